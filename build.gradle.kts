@@ -22,6 +22,14 @@ dependencies {
     implementation ("com.fasterxml.jackson.core:jackson-databind:2.15.2")
 }
 
+// Simulation harnesses run against the main classes but are not part of the shaded jar
+val simulation by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations["simulationImplementation"].extendsFrom(configurations.implementation.get())
+configurations["simulationRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 tasks.test {
     useJUnitPlatform()
 }
@@ -32,3 +40,10 @@ tasks.withType<JavaCompile> {
 
     sourceCompatibility = "21"
 }
+
+tasks.register<JavaExec>("simulateInactivity") {
+    group = "verification"
+    description = "Replays a synthetic forum against the inactivity scheduler on a virtual clock"
+    classpath = simulation.runtimeClasspath
+    mainClass = "com.mcsmanager.bot.simulation.InactivitySimulation"
+}
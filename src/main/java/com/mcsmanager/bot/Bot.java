@@ -1,6 +1,8 @@
 package com.mcsmanager.bot;
 
 import com.mcsmanager.bot.command.CloseCommand;
+import com.mcsmanager.bot.command.CrashesCommand;
+import com.mcsmanager.bot.command.InactivityCommand;
 import com.mcsmanager.bot.command.PurgeCommand;
 import com.mcsmanager.bot.command.FAQCommand;
 import com.mcsmanager.bot.command.InfoCommand;
@@ -9,13 +11,26 @@ import com.mcsmanager.bot.faq.FaqHandler;
 import com.mcsmanager.bot.listener.BugReportListener;
 import com.mcsmanager.bot.listener.SuggestionListener;
 import com.mcsmanager.bot.listener.SupportListener;
+import com.mcsmanager.bot.listener.MessageIndexListener;
 import com.mcsmanager.bot.listener.ThreadDeleteListener;
+import com.mcsmanager.bot.logs.LogHttpClient;
+import com.mcsmanager.bot.logs.LogUploadExecutor;
+import com.mcsmanager.bot.paste.LocalPasteServer;
+import com.mcsmanager.bot.paste.MclogsPasteService;
+import com.mcsmanager.bot.paste.ResilientPasteService;
 import com.mcsmanager.bot.shortcuts.ShortcutStorage;
 import com.mcsmanager.bot.util.CloseHandler;
 import com.mcsmanager.bot.util.InactivityChecker;
 import com.mcsmanager.bot.util.LogUploader;
 import com.mcsmanager.bot.util.LogUtils;
 import com.mcsmanager.bot.util.Reload;
+import com.mcsmanager.bot.util.ReplyEscalator;
+import com.mcsmanager.bot.storage.CrashSignatureStorage;
+import com.mcsmanager.bot.storage.LogCacheStorage;
+import com.mcsmanager.bot.storage.MessageIndexStorage;
+import com.mcsmanager.bot.storage.PurgeJobStorage;
+import com.mcsmanager.bot.storage.ThreadStateStorage;
+import com.mcsmanager.bot.storage.UploadSpoolStorage;
 import com.mcsmanager.bot.storage.VoteStorage;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
@@ -23,6 +38,13 @@ import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Main Bot class for the MCSM Discord Bot Discord application.
  * This class initializes the bot, registers event listeners, and configures JDA.
@@ -39,6 +61,39 @@ public class Bot {
     /** Storage for vote data across suggestion forums */
     private static VoteStorage voteStorage;
 
+    /** Cache of already uploaded logs */
+    private static LogCacheStorage logCache;
+
+    /** Spool of pending log upload jobs */
+    private static UploadSpoolStorage uploadSpool;
+
+    /** Index of crash signatures seen in uploaded logs */
+    private static CrashSignatureStorage crashIndex;
+
+    /** Last activity of support and bug report threads */
+    private static ThreadStateStorage threadState;
+
+    /** Index of recent messages per author, null if disabled */
+    private static MessageIndexStorage messageIndex;
+
+    /** Checkpoints of running purge jobs */
+    private static PurgeJobStorage purgeJobs;
+
+    /** Saves the message index in the background, keeping file writes off the event threads */
+    private static ScheduledExecutorService storageSaver;
+
+    /** Shared HTTP client for log uploads, owned by the bot lifecycle */
+    private static LogHttpClient logHttpClient;
+
+    /** Bounded executor running the log processing pipeline */
+    private static LogUploadExecutor logUploadExecutor;
+
+    /** Paste service the log uploader stores logs with */
+    private static ResilientPasteService pasteService;
+
+    /** Self-hosted paste server, only running if the local paste service is configured */
+    private static LocalPasteServer localPasteServer;
+
     /**
      * Initializes the storage systems for votes and tickets.
      * This method must be called before accessing any storage-related functionality.
@@ -59,6 +114,92 @@ public class Bot {
             LogUtils.logException("Error initializing shortcut storage", e);
         }
         LogUtils.logStorage("Initialized", "Shortcut Storage");
+
+        // The cache keeps its hit/miss counters, so it is only created once
+        if (logCache == null) {
+            LogUtils.logStorage("Initializing...", "Log Cache");
+            try {
+                Config.LogUpload settings = Config.get().getLogUpload();
+                logCache = new LogCacheStorage(settings.getCacheMaxEntries(), Duration.ofDays(settings.getCacheTtlDays()));
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing log cache, uploads will not be deduplicated", e);
+            }
+            LogUtils.logStorage("Initialized", "Log Cache");
+        }
+
+        if (uploadSpool == null) {
+            LogUtils.logStorage("Initializing...", "Upload Spool");
+            try {
+                uploadSpool = new UploadSpoolStorage(Paths.get(Config.get().getLogUpload().getSpoolDirectory()));
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing upload spool, uploads will not survive restarts", e);
+            }
+            LogUtils.logStorage("Initialized", "Upload Spool");
+        }
+
+        if (crashIndex == null) {
+            LogUtils.logStorage("Initializing...", "Crash Index");
+            try {
+                crashIndex = new CrashSignatureStorage(Config.get().getLogUpload().getCrashIndexMaxEntries());
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing crash index, recurring crashes will not be linked", e);
+            }
+            LogUtils.logStorage("Initialized", "Crash Index");
+        }
+
+        // Message events update the index as soon as JDA is built, so it is only created once
+        if (threadState == null) {
+            LogUtils.logStorage("Initializing...", "Thread State");
+            try {
+                threadState = new ThreadStateStorage();
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing thread state, the inactivity check will read thread histories", e);
+            }
+            LogUtils.logStorage("Initialized", "Thread State");
+        }
+
+        if (purgeJobs == null) {
+            LogUtils.logStorage("Initializing...", "Purge Jobs");
+            try {
+                purgeJobs = new PurgeJobStorage(Paths.get(Config.get().getPurge().getJobDirectory()));
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing purge jobs, purges will not survive restarts", e);
+            }
+            LogUtils.logStorage("Initialized", "Purge Jobs");
+        }
+
+        // Message events feed the index as soon as JDA is built, so it is only created once
+        if (messageIndex == null) {
+            try {
+                Config.Purge settings = Config.get().getPurge();
+                if (settings.isMessageIndexEnabled()) {
+                    LogUtils.logStorage("Initializing...", "Message Index");
+                    messageIndex = new MessageIndexStorage(Duration.ofDays(settings.getMessageIndexRetentionDays()),
+                            settings.getMessageIndexMaxPerUser());
+                    storageSaver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "Storage-Saver");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    long interval = MessageIndexStorage.SAVE_INTERVAL.toMillis();
+                    storageSaver.scheduleWithFixedDelay(Bot::saveMessageIndex, interval, interval, TimeUnit.MILLISECONDS);
+                    LogUtils.logStorage("Initialized", "Message Index");
+                }
+            } catch (Exception e) {
+                LogUtils.logException("Error initializing message index, /purge will scan channel histories", e);
+            }
+        }
+    }
+
+    /**
+     * Saves pending changes of the message index.
+     */
+    private static void saveMessageIndex() {
+        try {
+            messageIndex.flush();
+        } catch (Exception e) {
+            LogUtils.logException("Error saving message index", e);
+        }
     }
 
     /**
@@ -70,6 +211,103 @@ public class Bot {
         return voteStorage;
     }
 
+    /**
+     * Gets the cache of already uploaded logs.
+     *
+     * @return The log cache, or null if it could not be initialized
+     */
+    public static LogCacheStorage getLogCache() {
+        return logCache;
+    }
+
+    /**
+     * Gets the spool of pending log upload jobs.
+     *
+     * @return The upload spool, or null if it could not be initialized
+     */
+    public static UploadSpoolStorage getUploadSpool() {
+        return uploadSpool;
+    }
+
+    /**
+     * Gets the index of crash signatures seen in uploaded logs.
+     *
+     * @return The crash index, or null if it could not be initialized
+     */
+    public static CrashSignatureStorage getCrashIndex() {
+        return crashIndex;
+    }
+
+    /**
+     * Gets the last activity index of support and bug report threads.
+     *
+     * @return The thread state storage, or null if it could not be initialized
+     */
+    public static ThreadStateStorage getThreadState() {
+        return threadState;
+    }
+
+    /**
+     * Gets the index of recent messages per author.
+     *
+     * @return The message index, or null if it is disabled or could not be initialized
+     */
+    public static MessageIndexStorage getMessageIndex() {
+        return messageIndex;
+    }
+
+    /**
+     * Gets the checkpoints of running purge jobs.
+     *
+     * @return The purge job storage, or null if it could not be initialized
+     */
+    public static PurgeJobStorage getPurgeJobs() {
+        return purgeJobs;
+    }
+
+    /**
+     * Gets the shared HTTP client used for log uploads.
+     *
+     * @return The log HTTP client
+     */
+    public static LogHttpClient getLogHttpClient() {
+        return logHttpClient;
+    }
+
+    /**
+     * Gets the bounded executor that runs log downloads and uploads.
+     *
+     * @return The log upload executor
+     */
+    public static LogUploadExecutor getLogUploadExecutor() {
+        return logUploadExecutor;
+    }
+
+    /**
+     * Gets the paste service used for log uploads.
+     *
+     * @return The paste service
+     */
+    public static ResilientPasteService getPasteService() {
+        return pasteService;
+    }
+
+    /**
+     * Creates the configured paste service, starting the local paste server if required.
+     *
+     * @throws IOException If the configuration cannot be read or the local server cannot be started
+     */
+    private static void initPasteService() throws IOException {
+        Config.Paste settings = Config.get().getPaste();
+        String apiUrl = settings.getApiUrl();
+        if ("local".equalsIgnoreCase(settings.getService())) {
+            localPasteServer = new LocalPasteServer(settings);
+            apiUrl = localPasteServer.getApiUrl();
+        }
+        pasteService = new ResilientPasteService(new MclogsPasteService(logHttpClient, apiUrl), settings);
+        LogUtils.logInfo("Using paste service at " + apiUrl);
+    }
+
     /**
      * Gets the JDA instance for the bot.
      *
@@ -96,9 +334,37 @@ public class Bot {
             LogUtils.logException("Error while getting Bot Activity from Config. It may be corrupt.", e);
         }
 
+        logHttpClient = new LogHttpClient(Config.get().getLogUpload());
+        logUploadExecutor = new LogUploadExecutor(Config.get().getLogUpload());
+        initPasteService();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logUploadExecutor.shutdown();
+            pasteService.shutdown();
+            logHttpClient.close();
+            if (localPasteServer != null) {
+                localPasteServer.close();
+            }
+        }, "LogUpload-Shutdown"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (threadState != null) {
+                try {
+                    threadState.flush();
+                } catch (IOException e) {
+                    LogUtils.logException("Error saving thread state", e);
+                }
+            }
+            if (messageIndex != null) {
+                if (storageSaver != null) {
+                    storageSaver.shutdownNow();
+                }
+                saveMessageIndex();
+            }
+        }, "Storage-Shutdown"));
+
         jda = JDABuilder.createDefault(Config.get().getBot().getToken())
                 .addEventListeners(
                         new InfoCommand(),
+                        new CrashesCommand(),
                         new FAQCommand(),
                         new LogUploader(),
                         new Listener(),
@@ -112,13 +378,13 @@ public class Bot {
                         new FaqHandler(),
                         new Reload(),
                         new ThreadDeleteListener(),
-                        new InactivityChecker())
+                        new MessageIndexListener(),
+                        new InactivityChecker(),
+                        new ReplyEscalator(),
+                        new InactivityCommand())
                 .enableIntents(GatewayIntent.MESSAGE_CONTENT)
                 .setActivity(Activity.playing(activity))
                 .setStatus(OnlineStatus.ONLINE)
                 .build();
-
-        // Start the inactivity checker after JDA is built
-        InactivityChecker.start(jda);
     }
 }
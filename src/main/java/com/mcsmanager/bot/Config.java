@@ -41,6 +41,16 @@ public class Config {
     private Faq faq;
     /** Embed system configuration */
     private Embeds embeds;
+    /** Log upload pipeline configuration */
+    private LogUpload logUpload;
+    /** Paste service configuration */
+    private Paste paste;
+    /** Inactivity check configuration */
+    private Inactivity inactivity;
+    /** Escalation of unanswered posts */
+    private Escalation escalation;
+    /** Purge command configuration */
+    private Purge purge;
 
     /**
      * Gets the singleton instance of the configuration.
@@ -82,6 +92,11 @@ public class Config {
             this.support = loaded.support;
             this.faq = loaded.faq;
             this.embeds = loaded.embeds;
+            this.logUpload = loaded.logUpload != null ? loaded.logUpload : new LogUpload();
+            this.paste = loaded.paste != null ? loaded.paste : new Paste();
+            this.inactivity = loaded.inactivity != null ? loaded.inactivity : new Inactivity();
+            this.escalation = loaded.escalation != null ? loaded.escalation : new Escalation();
+            this.purge = loaded.purge != null ? loaded.purge : new Purge();
         }
     }
 
@@ -140,6 +155,92 @@ public class Config {
               warningColor: "#ff9900"
               infoColor: "#ffcc33"
               footerText: "MCSManager Bot | Version {Version}"
+            
+            logUpload:
+              maxConnections: 20
+              maxConnectionsPerRoute: 10
+              connectTimeoutSeconds: 10
+              responseTimeoutSeconds: 60
+              http2: true
+              workerThreads: 4
+              queueCapacity: 16
+              maxParallelPerMessage: 3
+              cacheMaxEntries: 2000
+              cacheTtlDays: 30
+              signatureFile: "log-signatures.yml"
+              redactionEnabled: true
+              redactionWindow: 512
+              archiveMaxEntries: 100
+              archiveMaxLogs: 5
+              archiveMaxEntryBytes: 67108864
+              archiveMaxTotalBytes: 134217728
+              maxUploadBytes: 10485760
+              sampleHeadBytes: 1048576
+              sampleTailBytes: 1048576
+              excerptChunkBytes: 16384
+              excerptMaxBytes: 65536
+              spoolDirectory: "upload-spool"
+              spoolMaxResumes: 3
+              spoolRetrySeconds: 30
+              crashIndexMaxEntries: 5000
+              inlineEnabled: true
+              inlineMinLines: 8
+              inlineStitchSeconds: 8
+              inlineMaxChars: 262144
+              environmentTags:  # forum tags applied in support and bug threads, matched by name
+                - fact: "os"
+                  contains: "windows"
+                  tag: "Windows"
+                - fact: "os"
+                  contains: "linux"
+                  tag: "Linux"
+                - fact: "os"
+                  contains: "mac"
+                  tag: "macOS"
+              redactionRules:
+                - name: "secret"
+                  regex: '(?i)\\b(api[_-]?key|access[_-]?token|daemon[_-]?key|token|secret|password|passwd)("?\\s*[:=]\\s*"?)[A-Za-z0-9_\\-.+/=]{6,}'
+                  replacement: "$1$2[redacted]"
+                - name: "bearer"
+                  regex: '(?i)(Bearer\\s+)[A-Za-z0-9_\\-.=]{10,}'
+                  replacement: "$1[redacted]"
+                - name: "email"
+                  regex: '[A-Za-z0-9._%+-]+@[A-Za-z0-9-]+(?:\\.[A-Za-z0-9-]+)*\\.[A-Za-z]{2,}'
+                  replacement: "[email redacted]"
+                - name: "public-ip"
+                  regex: '(?<![\\d.])(?!(?:10|127|0)\\.)(?!192\\.168\\.)(?!172\\.(?:1[6-9]|2\\d|3[01])\\.)(?!169\\.254\\.)(?:(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)\\.){3}(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)(?!\\.?\\d)'
+                  replacement: "[ip redacted]"
+
+            paste:
+              service: "mclogs"  # "mclogs" or "local"
+              apiUrl: "https://api.mclo.gs/1/log"
+              maxAttempts: 3
+              retryBaseDelayMillis: 500
+              retryMaxDelayMillis: 8000
+              attemptTimeoutSeconds: 120
+              breakerFailureThreshold: 5
+              breakerOpenSeconds: 60
+              localBindAddress: "127.0.0.1"
+              localPort: 8765
+              localDirectory: "pastes"
+              localPublicUrl: ""
+              localMaxBytes: 10485760
+
+            inactivity:
+              maxConcurrentRequests: 2  # Discord requests of the inactivity check in flight at once
+
+            escalation:
+              enabled: true
+              replySlaMinutes: 720  # ping the moderators if a new post has no reply from anyone but its author by then
+              channelId: ""  # empty to use the log channel
+
+            purge:
+              maxParallelChannels: 4  # channels /purge scans at once, each with one request in flight
+              maxConcurrentJobs: 2  # purges running at once
+              jobDirectory: "purge-jobs"  # checkpoints of running purges, resumed after a restart
+              messageIndexEnabled: false  # index recent messages per author, so /purge can skip the channel scan
+              messageIndexRetentionDays: 14
+              messageIndexMaxPerUser: 1000
             """;
 
         Files.writeString(CONFIG_PATH, defaultConfig);
@@ -188,6 +289,31 @@ public class Config {
     /** @param embeds Embed configuration to set */
     public void setEmbeds(Embeds embeds) { this.embeds = embeds; }
 
+    /** @return Log upload pipeline configuration */
+    public LogUpload getLogUpload() { return logUpload; }
+    /** @param logUpload Log upload configuration to set */
+    public void setLogUpload(LogUpload logUpload) { this.logUpload = logUpload; }
+
+    /** @return Paste service configuration */
+    public Paste getPaste() { return paste; }
+    /** @param paste Paste service configuration to set */
+    public void setPaste(Paste paste) { this.paste = paste; }
+
+    /** @return Inactivity check configuration */
+    public Inactivity getInactivity() { return inactivity; }
+    /** @param inactivity Inactivity check configuration to set */
+    public void setInactivity(Inactivity inactivity) { this.inactivity = inactivity; }
+
+    /** @return Escalation configuration */
+    public Escalation getEscalation() { return escalation; }
+    /** @param escalation Escalation configuration to set */
+    public void setEscalation(Escalation escalation) { this.escalation = escalation; }
+
+    /** @return Purge command configuration */
+    public Purge getPurge() { return purge; }
+    /** @param purge Purge command configuration to set */
+    public void setPurge(Purge purge) { this.purge = purge; }
+
     /**
      * Bot-specific configuration settings.
      */
@@ -279,6 +405,108 @@ public class Config {
         public void setSupport_forum_id(String support_forum_id) { this.support_forum_id = support_forum_id; }
     }
 
+    /**
+     * Inactivity check configuration.
+     */
+    public static class Inactivity {
+        /** Maximum number of Discord requests the inactivity check has in flight */
+        private int maxConcurrentRequests = 2;
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public Inactivity() {
+            // Constructor for SnakeYAML
+        }
+
+        /** @return Maximum number of requests in flight */
+        public int getMaxConcurrentRequests() { return maxConcurrentRequests; }
+        /** @param maxConcurrentRequests Maximum number of requests in flight to set */
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) { this.maxConcurrentRequests = maxConcurrentRequests; }
+    }
+
+    /**
+     * Escalation of support and bug report posts nobody replied to.
+     */
+    public static class Escalation {
+        /** Whether unanswered posts are escalated */
+        private boolean enabled = true;
+        /** Minutes a new post may wait for its first reply */
+        private int replySlaMinutes = 720;
+        /** Channel escalations are sent to, empty for the log channel */
+        private String channelId = "";
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public Escalation() {
+            // Constructor for SnakeYAML
+        }
+
+        /** @return Whether unanswered posts are escalated */
+        public boolean isEnabled() { return enabled; }
+        /** @param enabled Whether unanswered posts are escalated to set */
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        /** @return Minutes a new post may wait for its first reply */
+        public int getReplySlaMinutes() { return replySlaMinutes; }
+        /** @param replySlaMinutes Minutes a new post may wait for its first reply to set */
+        public void setReplySlaMinutes(int replySlaMinutes) { this.replySlaMinutes = replySlaMinutes; }
+        /** @return Channel escalations are sent to, empty for the log channel */
+        public String getChannelId() { return channelId; }
+        /** @param channelId Channel escalations are sent to to set */
+        public void setChannelId(String channelId) { this.channelId = channelId; }
+    }
+
+    /**
+     * Purge command configuration.
+     */
+    public static class Purge {
+        /** Maximum number of channels scanned at once */
+        private int maxParallelChannels = 4;
+        /** Maximum number of purges running at once */
+        private int maxConcurrentJobs = 2;
+        /** Directory holding the checkpoints of running purges */
+        private String jobDirectory = "purge-jobs";
+        /** Whether recent messages are indexed per author */
+        private boolean messageIndexEnabled = false;
+        /** Days messages are kept in the index */
+        private int messageIndexRetentionDays = 14;
+        /** Maximum number of indexed messages per author */
+        private int messageIndexMaxPerUser = 1000;
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public Purge() {
+            // Constructor for SnakeYAML
+        }
+
+        /** @return Maximum number of channels scanned at once */
+        public int getMaxParallelChannels() { return maxParallelChannels; }
+        /** @param maxParallelChannels Maximum number of channels scanned at once to set */
+        public void setMaxParallelChannels(int maxParallelChannels) { this.maxParallelChannels = maxParallelChannels; }
+        /** @return Maximum number of purges running at once */
+        public int getMaxConcurrentJobs() { return maxConcurrentJobs; }
+        /** @param maxConcurrentJobs Maximum number of purges running at once to set */
+        public void setMaxConcurrentJobs(int maxConcurrentJobs) { this.maxConcurrentJobs = maxConcurrentJobs; }
+        /** @return Directory holding the checkpoints of running purges */
+        public String getJobDirectory() { return jobDirectory; }
+        /** @param jobDirectory Directory holding the checkpoints of running purges to set */
+        public void setJobDirectory(String jobDirectory) { this.jobDirectory = jobDirectory; }
+        /** @return Whether recent messages are indexed per author */
+        public boolean isMessageIndexEnabled() { return messageIndexEnabled; }
+        /** @param messageIndexEnabled Whether recent messages are indexed per author to set */
+        public void setMessageIndexEnabled(boolean messageIndexEnabled) { this.messageIndexEnabled = messageIndexEnabled; }
+        /** @return Days messages are kept in the index */
+        public int getMessageIndexRetentionDays() { return messageIndexRetentionDays; }
+        /** @param messageIndexRetentionDays Days messages are kept in the index to set */
+        public void setMessageIndexRetentionDays(int messageIndexRetentionDays) { this.messageIndexRetentionDays = messageIndexRetentionDays; }
+        /** @return Maximum number of indexed messages per author */
+        public int getMessageIndexMaxPerUser() { return messageIndexMaxPerUser; }
+        /** @param messageIndexMaxPerUser Maximum number of indexed messages per author to set */
+        public void setMessageIndexMaxPerUser(int messageIndexMaxPerUser) { this.messageIndexMaxPerUser = messageIndexMaxPerUser; }
+    }
+
     /**
      * FAQ system configuration.
      */
@@ -334,4 +562,404 @@ public class Config {
         /** @param footerText Sets default embed Footer Text */
         public void setFooterText(String footerText) { this.footerText = footerText; }
     }
+
+    /**
+     * Log upload pipeline configuration.
+     * Every value has a default, so older config files without this section keep working.
+     */
+    public static class LogUpload {
+        /** Maximum number of pooled connections in total */
+        private int maxConnections = 20;
+        /** Maximum number of pooled connections per host */
+        private int maxConnectionsPerRoute = 10;
+        /** Timeout for establishing (or leasing) a connection */
+        private int connectTimeoutSeconds = 10;
+        /** Timeout for waiting on response data */
+        private int responseTimeoutSeconds = 60;
+        /** Whether HTTP/2 should be negotiated via ALPN */
+        private boolean http2 = true;
+        /** Number of worker threads processing attachments */
+        private int workerThreads = 4;
+        /** Number of tasks that may wait for a worker before new messages are rejected */
+        private int queueCapacity = 16;
+        /** Maximum number of attachments of a single message processed in parallel */
+        private int maxParallelPerMessage = 3;
+        /** Maximum number of uploaded logs remembered for deduplication */
+        private int cacheMaxEntries = 2000;
+        /** Number of days a remembered upload is reused */
+        private int cacheTtlDays = 30;
+        /** Path of the YAML file with known error signatures */
+        private String signatureFile = "log-signatures.yml";
+        /** Whether sensitive values are redacted before upload */
+        private boolean redactionEnabled = true;
+        /** Maximum length of a redacted value (and look-behind context) in characters */
+        private int redactionWindow = 512;
+        /** Patterns of sensitive values to redact */
+        private RedactionRule[] redactionRules = RedactionRule.defaults();
+        /** Maximum number of entries read from a zip archive, including skipped ones */
+        private int archiveMaxEntries = 100;
+        /** Maximum number of logs uploaded from a single archive */
+        private int archiveMaxLogs = 5;
+        /** Maximum decompressed size of a single log in an archive */
+        private long archiveMaxEntryBytes = 64L * 1024 * 1024;
+        /** Maximum decompressed size of all entries of an archive together */
+        private long archiveMaxTotalBytes = 128L * 1024 * 1024;
+        /** Size above which only the beginning and end of a log are uploaded (mclo.gs limit) */
+        private long maxUploadBytes = 10L * 1024 * 1024;
+        /** Number of leading bytes uploaded from an oversized attachment (archive entries keep all that fits before the tail) */
+        private int sampleHeadBytes = 1024 * 1024;
+        /** Number of trailing bytes uploaded from an oversized log */
+        private int sampleTailBytes = 1024 * 1024;
+        /** Number of bytes fetched per step when searching the end of a log for the last error */
+        private int excerptChunkBytes = 16 * 1024;
+        /** Maximum number of bytes searched at the end of a log for the last error */
+        private int excerptMaxBytes = 64 * 1024;
+        /** Directory pending upload jobs are persisted in */
+        private String spoolDirectory = "upload-spool";
+        /** Number of restarts after which an unfinished upload job is given up */
+        private int spoolMaxResumes = 3;
+        /** Delay before a resumed job is retried while all workers are busy */
+        private int spoolRetrySeconds = 30;
+        /** Maximum number of crash signatures remembered across uploads */
+        private int crashIndexMaxEntries = 5000;
+        /** Whether logs pasted into message bodies are uploaded */
+        private boolean inlineEnabled = true;
+        /** Minimum number of lines of a pasted log */
+        private int inlineMinLines = 8;
+        /** Seconds an author may take between the parts of a pasted log split across messages */
+        private int inlineStitchSeconds = 8;
+        /** Maximum number of characters collected for a single pasted log */
+        private int inlineMaxChars = 256 * 1024;
+        /** Forum tags applied to support and bug threads based on the environment found in logs */
+        private EnvironmentTagRule[] environmentTags = EnvironmentTagRule.defaults();
+        /** @return Maximum number of pooled connections */
+        public int getMaxConnections() { return maxConnections; }
+        /** @param maxConnections Maximum number of pooled connections to set */
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        /** @return Maximum number of pooled connections per host */
+        public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+        /** @param maxConnectionsPerRoute Maximum number of pooled connections per host to set */
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) { this.maxConnectionsPerRoute = maxConnectionsPerRoute; }
+        /** @return Connect timeout in seconds */
+        public int getConnectTimeoutSeconds() { return connectTimeoutSeconds; }
+        /** @param connectTimeoutSeconds Connect timeout in seconds to set */
+        public void setConnectTimeoutSeconds(int connectTimeoutSeconds) { this.connectTimeoutSeconds = connectTimeoutSeconds; }
+        /** @return Response timeout in seconds */
+        public int getResponseTimeoutSeconds() { return responseTimeoutSeconds; }
+        /** @param responseTimeoutSeconds Response timeout in seconds to set */
+        public void setResponseTimeoutSeconds(int responseTimeoutSeconds) { this.responseTimeoutSeconds = responseTimeoutSeconds; }
+        /** @return Whether HTTP/2 is enabled */
+        public boolean isHttp2() { return http2; }
+        /** @param http2 Whether HTTP/2 should be enabled */
+        public void setHttp2(boolean http2) { this.http2 = http2; }
+        /** @return Number of worker threads */
+        public int getWorkerThreads() { return workerThreads; }
+        /** @param workerThreads Number of worker threads to set */
+        public void setWorkerThreads(int workerThreads) { this.workerThreads = workerThreads; }
+        /** @return Number of queue slots */
+        public int getQueueCapacity() { return queueCapacity; }
+        /** @param queueCapacity Number of queue slots to set */
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        /** @return Maximum parallel attachments per message */
+        public int getMaxParallelPerMessage() { return maxParallelPerMessage; }
+        /** @param maxParallelPerMessage Maximum parallel attachments per message to set */
+        public void setMaxParallelPerMessage(int maxParallelPerMessage) { this.maxParallelPerMessage = maxParallelPerMessage; }
+        /** @return Maximum number of cached uploads */
+        public int getCacheMaxEntries() { return cacheMaxEntries; }
+        /** @param cacheMaxEntries Maximum number of cached uploads to set */
+        public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+        /** @return Days a cached upload is reused */
+        public int getCacheTtlDays() { return cacheTtlDays; }
+        /** @param cacheTtlDays Days a cached upload is reused to set */
+        public void setCacheTtlDays(int cacheTtlDays) { this.cacheTtlDays = cacheTtlDays; }
+        /** @return Path of the error signature file */
+        public String getSignatureFile() { return signatureFile; }
+        /** @param signatureFile Path of the error signature file to set */
+        public void setSignatureFile(String signatureFile) { this.signatureFile = signatureFile; }
+        /** @return Whether redaction is enabled */
+        public boolean isRedactionEnabled() { return redactionEnabled; }
+        /** @param redactionEnabled Whether redaction should be enabled */
+        public void setRedactionEnabled(boolean redactionEnabled) { this.redactionEnabled = redactionEnabled; }
+        /** @return Redaction window in characters */
+        public int getRedactionWindow() { return redactionWindow; }
+        /** @param redactionWindow Redaction window in characters to set */
+        public void setRedactionWindow(int redactionWindow) { this.redactionWindow = redactionWindow; }
+        /** @return Redaction rules */
+        public RedactionRule[] getRedactionRules() { return redactionRules; }
+        /** @param redactionRules Redaction rules to set */
+        public void setRedactionRules(RedactionRule[] redactionRules) { this.redactionRules = redactionRules; }
+        /** @return Maximum number of entries read from an archive */
+        public int getArchiveMaxEntries() { return archiveMaxEntries; }
+        /** @param archiveMaxEntries Maximum number of entries read from an archive to set */
+        public void setArchiveMaxEntries(int archiveMaxEntries) { this.archiveMaxEntries = archiveMaxEntries; }
+        /** @return Maximum number of logs uploaded from an archive */
+        public int getArchiveMaxLogs() { return archiveMaxLogs; }
+        /** @param archiveMaxLogs Maximum number of logs uploaded from an archive to set */
+        public void setArchiveMaxLogs(int archiveMaxLogs) { this.archiveMaxLogs = archiveMaxLogs; }
+        /** @return Maximum decompressed size of a single log in bytes */
+        public long getArchiveMaxEntryBytes() { return archiveMaxEntryBytes; }
+        /** @param archiveMaxEntryBytes Maximum decompressed size of a single log in bytes to set */
+        public void setArchiveMaxEntryBytes(long archiveMaxEntryBytes) { this.archiveMaxEntryBytes = archiveMaxEntryBytes; }
+        /** @return Maximum decompressed size of an archive in bytes */
+        public long getArchiveMaxTotalBytes() { return archiveMaxTotalBytes; }
+        /** @param archiveMaxTotalBytes Maximum decompressed size of an archive in bytes to set */
+        public void setArchiveMaxTotalBytes(long archiveMaxTotalBytes) { this.archiveMaxTotalBytes = archiveMaxTotalBytes; }
+        /** @return Size above which logs are shortened in bytes */
+        public long getMaxUploadBytes() { return maxUploadBytes; }
+        /** @param maxUploadBytes Size above which logs are shortened in bytes to set */
+        public void setMaxUploadBytes(long maxUploadBytes) { this.maxUploadBytes = maxUploadBytes; }
+        /** @return Leading bytes uploaded from an oversized log */
+        public int getSampleHeadBytes() { return sampleHeadBytes; }
+        /** @param sampleHeadBytes Leading bytes uploaded from an oversized log to set */
+        public void setSampleHeadBytes(int sampleHeadBytes) { this.sampleHeadBytes = sampleHeadBytes; }
+        /** @return Trailing bytes uploaded from an oversized log */
+        public int getSampleTailBytes() { return sampleTailBytes; }
+        /** @param sampleTailBytes Trailing bytes uploaded from an oversized log to set */
+        public void setSampleTailBytes(int sampleTailBytes) { this.sampleTailBytes = sampleTailBytes; }
+        /** @return Bytes fetched per step when searching for the last error */
+        public int getExcerptChunkBytes() { return excerptChunkBytes; }
+        /** @param excerptChunkBytes Bytes fetched per step when searching for the last error to set */
+        public void setExcerptChunkBytes(int excerptChunkBytes) { this.excerptChunkBytes = excerptChunkBytes; }
+        /** @return Maximum bytes searched for the last error */
+        public int getExcerptMaxBytes() { return excerptMaxBytes; }
+        /** @param excerptMaxBytes Maximum bytes searched for the last error to set */
+        public void setExcerptMaxBytes(int excerptMaxBytes) { this.excerptMaxBytes = excerptMaxBytes; }
+        /** @return Directory of the upload spool */
+        public String getSpoolDirectory() { return spoolDirectory; }
+        /** @param spoolDirectory Directory of the upload spool to set */
+        public void setSpoolDirectory(String spoolDirectory) { this.spoolDirectory = spoolDirectory; }
+        /** @return Restarts after which an upload job is given up */
+        public int getSpoolMaxResumes() { return spoolMaxResumes; }
+        /** @param spoolMaxResumes Restarts after which an upload job is given up to set */
+        public void setSpoolMaxResumes(int spoolMaxResumes) { this.spoolMaxResumes = spoolMaxResumes; }
+        /** @return Delay before a resumed job is retried in seconds */
+        public int getSpoolRetrySeconds() { return spoolRetrySeconds; }
+        /** @param spoolRetrySeconds Delay before a resumed job is retried in seconds to set */
+        public void setSpoolRetrySeconds(int spoolRetrySeconds) { this.spoolRetrySeconds = spoolRetrySeconds; }
+
+        /** @return Maximum number of remembered crash signatures */
+        public int getCrashIndexMaxEntries() { return crashIndexMaxEntries; }
+        /** @param crashIndexMaxEntries Maximum number of remembered crash signatures to set */
+        public void setCrashIndexMaxEntries(int crashIndexMaxEntries) { this.crashIndexMaxEntries = crashIndexMaxEntries; }
+
+        /** @return Whether pasted logs are uploaded */
+        public boolean isInlineEnabled() { return inlineEnabled; }
+        /** @param inlineEnabled Whether pasted logs are uploaded to set */
+        public void setInlineEnabled(boolean inlineEnabled) { this.inlineEnabled = inlineEnabled; }
+
+        /** @return Minimum number of lines of a pasted log */
+        public int getInlineMinLines() { return inlineMinLines; }
+        /** @param inlineMinLines Minimum number of lines of a pasted log to set */
+        public void setInlineMinLines(int inlineMinLines) { this.inlineMinLines = inlineMinLines; }
+
+        /** @return Seconds between the parts of a split pasted log */
+        public int getInlineStitchSeconds() { return inlineStitchSeconds; }
+        /** @param inlineStitchSeconds Seconds between the parts of a split pasted log to set */
+        public void setInlineStitchSeconds(int inlineStitchSeconds) { this.inlineStitchSeconds = inlineStitchSeconds; }
+
+        /** @return Maximum number of characters of a pasted log */
+        public int getInlineMaxChars() { return inlineMaxChars; }
+        /** @param inlineMaxChars Maximum number of characters of a pasted log to set */
+        public void setInlineMaxChars(int inlineMaxChars) { this.inlineMaxChars = inlineMaxChars; }
+
+        /** @return Forum tag rules for environment facts */
+        public EnvironmentTagRule[] getEnvironmentTags() { return environmentTags; }
+        /** @param environmentTags Forum tag rules for environment facts to set */
+        public void setEnvironmentTags(EnvironmentTagRule[] environmentTags) { this.environmentTags = environmentTags; }
+    }
+
+    /**
+     * Paste service configuration.
+     */
+    public static class Paste {
+        /** Backend used for uploads: "mclogs" or "local" */
+        private String service = "mclogs";
+        /** Endpoint of the mclo.gs compatible API */
+        private String apiUrl = "https://api.mclo.gs/1/log";
+        /** Maximum number of attempts per upload */
+        private int maxAttempts = 3;
+        /** Backoff before the first retry */
+        private long retryBaseDelayMillis = 500;
+        /** Upper bound of the backoff between retries */
+        private long retryMaxDelayMillis = 8000;
+        /** Timeout of a single upload attempt */
+        private int attemptTimeoutSeconds = 120;
+        /** Consecutive failed attempts after which uploads fail fast */
+        private int breakerFailureThreshold = 5;
+        /** Time uploads fail fast before the service is tried again */
+        private int breakerOpenSeconds = 60;
+        /** Address the local paste server listens on */
+        private String localBindAddress = "127.0.0.1";
+        /** Port the local paste server listens on */
+        private int localPort = 8765;
+        /** Directory the local paste server stores pastes in */
+        private String localDirectory = "pastes";
+        /** Public base URL of the local paste server, empty to derive it from the bound address */
+        private String localPublicUrl = "";
+        /** Maximum size of a paste accepted by the local paste server */
+        private long localMaxBytes = 10L * 1024 * 1024;
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public Paste() {
+            // Constructor for SnakeYAML
+        }
+
+        /** @return Backend used for uploads */
+        public String getService() { return service; }
+        /** @param service Backend used for uploads to set */
+        public void setService(String service) { this.service = service; }
+        /** @return Endpoint of the mclo.gs compatible API */
+        public String getApiUrl() { return apiUrl; }
+        /** @param apiUrl Endpoint of the mclo.gs compatible API to set */
+        public void setApiUrl(String apiUrl) { this.apiUrl = apiUrl; }
+        /** @return Maximum number of attempts per upload */
+        public int getMaxAttempts() { return maxAttempts; }
+        /** @param maxAttempts Maximum number of attempts per upload to set */
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+        /** @return Backoff before the first retry in milliseconds */
+        public long getRetryBaseDelayMillis() { return retryBaseDelayMillis; }
+        /** @param retryBaseDelayMillis Backoff before the first retry in milliseconds to set */
+        public void setRetryBaseDelayMillis(long retryBaseDelayMillis) { this.retryBaseDelayMillis = retryBaseDelayMillis; }
+        /** @return Upper bound of the backoff in milliseconds */
+        public long getRetryMaxDelayMillis() { return retryMaxDelayMillis; }
+        /** @param retryMaxDelayMillis Upper bound of the backoff in milliseconds to set */
+        public void setRetryMaxDelayMillis(long retryMaxDelayMillis) { this.retryMaxDelayMillis = retryMaxDelayMillis; }
+        /** @return Timeout of a single attempt in seconds */
+        public int getAttemptTimeoutSeconds() { return attemptTimeoutSeconds; }
+        /** @param attemptTimeoutSeconds Timeout of a single attempt in seconds to set */
+        public void setAttemptTimeoutSeconds(int attemptTimeoutSeconds) { this.attemptTimeoutSeconds = attemptTimeoutSeconds; }
+        /** @return Consecutive failures that open the circuit breaker */
+        public int getBreakerFailureThreshold() { return breakerFailureThreshold; }
+        /** @param breakerFailureThreshold Consecutive failures that open the circuit breaker to set */
+        public void setBreakerFailureThreshold(int breakerFailureThreshold) { this.breakerFailureThreshold = breakerFailureThreshold; }
+        /** @return Seconds the circuit breaker stays open */
+        public int getBreakerOpenSeconds() { return breakerOpenSeconds; }
+        /** @param breakerOpenSeconds Seconds the circuit breaker stays open to set */
+        public void setBreakerOpenSeconds(int breakerOpenSeconds) { this.breakerOpenSeconds = breakerOpenSeconds; }
+        /** @return Address the local paste server listens on */
+        public String getLocalBindAddress() { return localBindAddress; }
+        /** @param localBindAddress Address the local paste server listens on to set */
+        public void setLocalBindAddress(String localBindAddress) { this.localBindAddress = localBindAddress; }
+        /** @return Port the local paste server listens on */
+        public int getLocalPort() { return localPort; }
+        /** @param localPort Port the local paste server listens on to set */
+        public void setLocalPort(int localPort) { this.localPort = localPort; }
+        /** @return Directory of the local paste server */
+        public String getLocalDirectory() { return localDirectory; }
+        /** @param localDirectory Directory of the local paste server to set */
+        public void setLocalDirectory(String localDirectory) { this.localDirectory = localDirectory; }
+        /** @return Public base URL of the local paste server */
+        public String getLocalPublicUrl() { return localPublicUrl; }
+        /** @param localPublicUrl Public base URL of the local paste server to set */
+        public void setLocalPublicUrl(String localPublicUrl) { this.localPublicUrl = localPublicUrl; }
+        /** @return Maximum paste size of the local paste server in bytes */
+        public long getLocalMaxBytes() { return localMaxBytes; }
+        /** @param localMaxBytes Maximum paste size of the local paste server in bytes to set */
+        public void setLocalMaxBytes(long localMaxBytes) { this.localMaxBytes = localMaxBytes; }
+    }
+
+    /**
+     * A single redaction rule for the log upload pipeline.
+     */
+    public static class RedactionRule {
+        /** Name of the rule */
+        private String name;
+        /** Java regular expression finding the sensitive value */
+        private String regex;
+        /** Replacement, may reference groups with $n */
+        private String replacement = "[redacted]";
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public RedactionRule() {
+            // Constructor for SnakeYAML
+        }
+
+        private RedactionRule(String name, String regex, String replacement) {
+            this.name = name;
+            this.regex = regex;
+            this.replacement = replacement;
+        }
+
+        /**
+         * Built-in rules used when the config does not define any.
+         *
+         * @return The default rules
+         */
+        static RedactionRule[] defaults() {
+            return new RedactionRule[]{
+                    new RedactionRule("secret", "(?i)\\b(api[_-]?key|access[_-]?token|daemon[_-]?key|token|secret|password|passwd)(\"?\\s*[:=]\\s*\"?)[A-Za-z0-9_\\-.+/=]{6,}", "$1$2[redacted]"),
+                    new RedactionRule("bearer", "(?i)(Bearer\\s+)[A-Za-z0-9_\\-.=]{10,}", "$1[redacted]"),
+                    new RedactionRule("email", "[A-Za-z0-9._%+-]+@[A-Za-z0-9-]+(?:\\.[A-Za-z0-9-]+)*\\.[A-Za-z]{2,}", "[email redacted]"),
+                    new RedactionRule("public-ip", "(?<![\\d.])(?!(?:10|127|0)\\.)(?!192\\.168\\.)(?!172\\.(?:1[6-9]|2\\d|3[01])\\.)(?!169\\.254\\.)(?:(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)\\.){3}(?:25[0-5]|2[0-4]\\d|1?\\d?\\d)(?!\\.?\\d)", "[ip redacted]")
+            };
+        }
+
+        /** @return Name of the rule */
+        public String getName() { return name; }
+        /** @param name Name to set */
+        public void setName(String name) { this.name = name; }
+        /** @return Regular expression of the rule */
+        public String getRegex() { return regex; }
+        /** @param regex Regular expression to set */
+        public void setRegex(String regex) { this.regex = regex; }
+        /** @return Replacement of the rule */
+        public String getReplacement() { return replacement; }
+        /** @param replacement Replacement to set */
+        public void setReplacement(String replacement) { this.replacement = replacement; }
+    }
+
+    /**
+     * Rule applying a forum tag when an environment fact found in an uploaded log contains a text.
+     */
+    public static class EnvironmentTagRule {
+        /** Fact to check: panel, daemon, os, java or node */
+        private String fact;
+        /** Text the fact must contain (case-insensitive), empty to match any value */
+        private String contains = "";
+        /** Name of the forum tag to apply (case-insensitive) */
+        private String tag;
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public EnvironmentTagRule() {
+            // Constructor for SnakeYAML
+        }
+
+        private EnvironmentTagRule(String fact, String contains, String tag) {
+            this.fact = fact;
+            this.contains = contains;
+            this.tag = tag;
+        }
+
+        /**
+         * Built-in rules used when the config does not define any.
+         *
+         * @return The default rules
+         */
+        static EnvironmentTagRule[] defaults() {
+            return new EnvironmentTagRule[]{
+                    new EnvironmentTagRule("os", "windows", "Windows"),
+                    new EnvironmentTagRule("os", "linux", "Linux"),
+                    new EnvironmentTagRule("os", "mac", "macOS")
+            };
+        }
+
+        /** @return Fact the rule checks */
+        public String getFact() { return fact; }
+        /** @param fact Fact to set */
+        public void setFact(String fact) { this.fact = fact; }
+        /** @return Text the fact must contain */
+        public String getContains() { return contains; }
+        /** @param contains Text to set */
+        public void setContains(String contains) { this.contains = contains; }
+        /** @return Name of the forum tag */
+        public String getTag() { return tag; }
+        /** @param tag Name of the forum tag to set */
+        public void setTag(String tag) { this.tag = tag; }
+    }
 }
@@ -3,13 +3,14 @@ package com.mcsmanager.bot;
 import com.mcsmanager.bot.command.CommandRegistry;
 import com.mcsmanager.bot.util.InactivityChecker;
 import com.mcsmanager.bot.util.LogUtils;
+import com.mcsmanager.bot.util.PurgeJobRegistry;
+import com.mcsmanager.bot.util.ReplyEscalator;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
-import java.util.TimerTask;
 
 /**
  * Main event listener for the MCSM Discord Bot.
@@ -47,15 +48,7 @@ public class Listener extends ListenerAdapter {
         LogUtils.logInfo("Bot is ready.");
 
         InactivityChecker.start(api);
-
-        // Delay initial check to allow JDA to fully connect
-        new Thread(() -> {
-            try {
-                Thread.sleep(5000);
-                InactivityChecker.checkInactiveThreads();
-            } catch (Exception e) {
-                LogUtils.logException("Error during initial inactivity check", e);
-            }
-        }).start();
+        ReplyEscalator.start(api);
+        PurgeJobRegistry.resumeAll(api);
     }
 }
\ No newline at end of file
@@ -58,10 +58,26 @@ public class CommandRegistry {
             .addOptions(
                 new OptionData(OptionType.USER, "user", "The user whose messages to delete", true),
                 new OptionData(OptionType.INTEGER, "days", "Delete messages from the last n days (optional, don't provide to delete all messages)", false),
-                new OptionData(OptionType.CHANNEL, "channel", "Only scan this specific channel (optional, scans entire server by default)", false),
-                new OptionData(OptionType.INTEGER, "count", "Maximum number of messages to delete (optional, no limit by default)", false)
+                new OptionData(OptionType.CHANNEL, "channel", "Only scan this channel, thread or forum (optional, scans entire server by default)", false),
+                new OptionData(OptionType.INTEGER, "count", "Maximum number of messages to delete (optional, no limit by default)", false),
+                new OptionData(OptionType.BOOLEAN, "preview", "Only count the messages that would be deleted (optional)", false),
+                new OptionData(OptionType.BOOLEAN, "scan", "Scan the channel histories even if the message index covers the time range (optional)", false)
             );
 
-        return List.of(faq, info, close, sendFaq, reload, shortcut, deleteMessages);
+        CommandData crashes = Commands.slash("crashes", "Shows crashes found in uploaded logs")
+            .addSubcommands(
+                new SubcommandData("top", "Ranks crash signatures by how often they were seen")
+                    .addOptions(
+                        new OptionData(OptionType.INTEGER, "limit", "Number of crashes to show (default 10)", false)
+                            .setRequiredRange(1, 25)
+                    )
+            );
+
+        CommandData inactivity = Commands.slash("inactivity", "Inspects the inactivity check of forum posts")
+            .addSubcommands(
+                new SubcommandData("dryrun", "Lists the posts that would be reminded or closed now, without sending anything")
+            );
+
+        return List.of(faq, info, close, sendFaq, reload, shortcut, deleteMessages, crashes, inactivity);
     }
 }
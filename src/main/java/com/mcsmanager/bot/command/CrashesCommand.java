@@ -0,0 +1,95 @@
+package com.mcsmanager.bot.command;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.storage.CrashSignatureStorage;
+import com.mcsmanager.bot.util.EmbedUtils;
+import com.mcsmanager.bot.util.PermissionUtils;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.TimeFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Slash command showing the crash signatures collected from uploaded logs.
+ * Requires moderator permissions, since it reveals crashes from every user's logs.
+ *
+ * @author SkyKing_PX
+ */
+public class CrashesCommand extends ListenerAdapter {
+
+    /** Number of signatures shown by default */
+    private static final int DEFAULT_LIMIT = 10;
+    /** Maximum number of signatures shown */
+    private static final int MAX_LIMIT = 25;
+
+    /**
+     * Handles the /crashes slash command.
+     *
+     * @param event The slash command interaction event
+     */
+    @Override
+    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        if (!event.getName().equals("crashes")) return;
+
+        if (!PermissionUtils.isModerator(event.getMember())) {
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ You don't have permission to use this command."))
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        String subcommand = event.getSubcommandName();
+        if (subcommand == null) {
+            event.reply("Invalid subcommand").setEphemeral(true).queue();
+            return;
+        }
+
+        switch (subcommand) {
+            case "top" -> handleTop(event);
+            default -> event.reply("Unknown subcommand: " + subcommand).setEphemeral(true).queue();
+        }
+    }
+
+    /**
+     * Handles the 'top' subcommand, ranking signatures by the number of uploads they were seen in.
+     */
+    private void handleTop(SlashCommandInteractionEvent event) {
+        CrashSignatureStorage index = Bot.getCrashIndex();
+        if (index == null) {
+            event.replyEmbeds(EmbedUtils.createError()
+                    .setTitle("❌ Crash index unavailable")
+                    .setDescription("The crash index could not be loaded, check the bot log.")
+                    .build()).setEphemeral(true).queue();
+            return;
+        }
+
+        int limit = Math.max(1, Math.min(MAX_LIMIT, event.getOption("limit", DEFAULT_LIMIT, opt -> opt.getAsInt())));
+        List<CrashSignatureStorage.Entry> top = index.top(limit);
+        EmbedBuilder embed = EmbedUtils.createDefault()
+                .setTitle("🧬 Most frequent crashes")
+                .setFooter(index.size() + " distinct crash signature(s) indexed");
+        if (top.isEmpty()) {
+            embed.setDescription("No stack traces have been found in uploaded logs yet.");
+            event.replyEmbeds(embed.build()).queue();
+            return;
+        }
+
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < top.size(); i++) {
+            CrashSignatureStorage.Entry entry = top.get(i);
+            String frame = entry.frames.isEmpty() ? null : entry.frames.get(0);
+            String line = "**" + (i + 1) + ".** `" + entry.exception + "` – **" + entry.occurrences + "×**"
+                    + (frame != null ? "\n> at `" + frame + "`" : "")
+                    + "\n> `" + entry.id + "` · last " + TimeFormat.RELATIVE.format(entry.lastSeen)
+                    + (entry.threads.isEmpty() ? "" : " in <#" + entry.threads.get(entry.threads.size() - 1) + ">")
+                    + "\n";
+            if (description.length() + line.length() > MessageEmbed.DESCRIPTION_MAX_LENGTH) break;
+            description.append(line);
+        }
+        embed.setDescription(description.toString());
+        event.replyEmbeds(embed.build()).queue();
+    }
+}
@@ -0,0 +1,107 @@
+package com.mcsmanager.bot.command;
+
+import com.mcsmanager.bot.util.EmbedUtils;
+import com.mcsmanager.bot.util.ForumGateway;
+import com.mcsmanager.bot.util.InactivityChecker;
+import com.mcsmanager.bot.util.InactivityPolicy;
+import com.mcsmanager.bot.util.LogUtils;
+import com.mcsmanager.bot.util.PermissionUtils;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slash command for inspecting the inactivity check.
+ * Requires moderator permissions.
+ *
+ * @author SkyKing_PX
+ */
+public class InactivityCommand extends ListenerAdapter {
+
+    /**
+     * Handles the /inactivity slash command.
+     *
+     * @param event The slash command interaction event
+     */
+    @Override
+    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        if (!event.getName().equals("inactivity")) return;
+
+        if (!PermissionUtils.isModerator(event.getMember())) {
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ You don't have permission to use this command."))
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        String subcommand = event.getSubcommandName();
+        if (subcommand == null) {
+            event.reply("Invalid subcommand").setEphemeral(true).queue();
+            return;
+        }
+
+        switch (subcommand) {
+            case "dryrun" -> handleDryRun(event);
+            default -> event.reply("Unknown subcommand: " + subcommand).setEphemeral(true).queue();
+        }
+    }
+
+    /**
+     * Handles the 'dryrun' subcommand, listing the threads that would be reminded or closed now.
+     */
+    private void handleDryRun(SlashCommandInteractionEvent event) {
+        long started = System.currentTimeMillis();
+        event.deferReply(true).queue(hook -> {
+            try {
+                InactivityChecker.dryRun().whenComplete((decisions, error) -> {
+                    if (error != null) {
+                        LogUtils.logException("Error during inactivity dry run", error);
+                        hook.editOriginalEmbeds(EmbedUtils.createSimpleError("❌ The dry run failed, check the bot log.")).queue();
+                        return;
+                    }
+                    hook.editOriginalEmbeds(buildReport(decisions, System.currentTimeMillis() - started)).queue();
+                });
+            } catch (Exception e) {
+                LogUtils.logException("Error during inactivity dry run", e);
+                hook.editOriginalEmbeds(EmbedUtils.createSimpleError("❌ The dry run failed, check the bot log.")).queue();
+            }
+        });
+    }
+
+    private MessageEmbed buildReport(Map<InactivityPolicy.Decision, List<ForumGateway.ForumThread>> decisions, long elapsedMillis) {
+        List<ForumGateway.ForumThread> remind = decisions.getOrDefault(InactivityPolicy.Decision.REMIND, List.of());
+        List<ForumGateway.ForumThread> close = decisions.getOrDefault(InactivityPolicy.Decision.CLOSE, List.of());
+        int total = decisions.values().stream().mapToInt(List::size).sum();
+
+        EmbedBuilder embed = EmbedUtils.createDefault()
+                .setTitle("🕒 Inactivity dry run")
+                .setDescription("Nothing was sent. These posts would be handled if they were checked now.")
+                .addField("🔔 Would remind (" + remind.size() + ")", mentions(remind), false)
+                .addField("🔒 Would close (" + close.size() + ")", mentions(close), false)
+                .setFooter("Checked " + total + " open post(s) in " + elapsedMillis + " ms");
+        return embed.build();
+    }
+
+    private String mentions(List<ForumGateway.ForumThread> threads) {
+        if (threads.isEmpty()) {
+            return "None";
+        }
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < threads.size(); i++) {
+            String mention = "<#" + threads.get(i).id() + ">";
+            String more = "\n… and " + (threads.size() - i) + " more";
+            if (value.length() + mention.length() + 1 + more.length() > MessageEmbed.VALUE_MAX_LENGTH) {
+                value.append(more);
+                break;
+            }
+            if (!value.isEmpty()) value.append(' ');
+            value.append(mention);
+        }
+        return value.toString();
+    }
+}
@@ -4,7 +4,7 @@ import com.mcsmanager.bot.Bot;
 import com.mcsmanager.bot.Listener;
 import com.mcsmanager.bot.util.EmbedUtils;
 import com.mcsmanager.bot.util.MessageHandler;
-import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
@@ -35,12 +35,23 @@ public class InfoCommand extends ListenerAdapter {
         long minutes = (seconds % 3600) / 60;
         long remainingSeconds = seconds % 60;
 
-        MessageEmbed embed = EmbedUtils.createDefault()
+        EmbedBuilder embed = EmbedUtils.createDefault()
                 .setTitle("MCSManager Bot")
                 .setThumbnail("https://cdn.discordapp.com/avatars/1418568057755930745/ccc107fadae2d4627054b0b2f8992e51.webp?size=1024")
-                .addField("General Information", "**Bot Version:** `" + Bot.VERSION + "`\n**Uptime:** " + hours + "h " + minutes + "min " + remainingSeconds + "sec", false)
-                .build();
-        MessageHandler.sendPreparedMessage(event, embed);
+                .addField("General Information", "**Bot Version:** `" + Bot.VERSION + "`\n**Uptime:** " + hours + "h " + minutes + "min " + remainingSeconds + "sec", false);
+        if (Bot.getLogHttpClient() != null) {
+            embed.addField("Log Upload Connections", Bot.getLogHttpClient().describePool(), false);
+        }
+        if (Bot.getLogUploadExecutor() != null) {
+            embed.addField("Log Upload Workers", Bot.getLogUploadExecutor().describe(), false);
+        }
+        if (Bot.getPasteService() != null) {
+            embed.addField("Paste Service", Bot.getPasteService().describe(), false);
+        }
+        if (Bot.getLogCache() != null) {
+            embed.addField("Log Upload Cache", Bot.getLogCache().describe(), false);
+        }
+        MessageHandler.sendPreparedMessage(event, embed.build());
 
     }
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.mcsmanager.bot.command;
 
-import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.PurgeJobStorage;
 import com.mcsmanager.bot.util.EmbedUtils;
-import com.mcsmanager.bot.util.LogUtils;
+import com.mcsmanager.bot.util.PermissionUtils;
+import com.mcsmanager.bot.util.PurgeJob;
+import com.mcsmanager.bot.util.PurgeJobRegistry;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.Channel;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,6 +22,7 @@ import java.util.List;
 /**
  * Slash command for deleting all messages from a user.
  * Can delete messages from the last N days or all messages if no days specified.
+ * Each purge runs as a job with a progress message and a cancel button, see {@link PurgeJob}.
  * Requires moderator permissions.
  *
  * @author SkyKing_PX
@@ -30,7 +34,7 @@ public class PurgeCommand extends ListenerAdapter {
         if (!event.getName().equals("purge")) return;
 
         // Check if user has moderator permissions
-        if (!isModerator(event)) {
+        if (!PermissionUtils.isModerator(event.getMember())) {
             event.replyEmbeds(EmbedUtils.createSimpleError("❌ You don't have permission to use this command."))
                     .setEphemeral(true).queue();
             return;
@@ -44,213 +48,85 @@ public class PurgeCommand extends ListenerAdapter {
             return;
         }
 
+        Guild guild = event.getGuild();
+        if (guild == null) {
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ Guild not found.")).setEphemeral(true).queue();
+            return;
+        }
+
         // Get the days argument (optional)
         Integer daysArg = event.getOption("days", null, opt -> opt.getAsInt() > 0 ? opt.getAsInt() : null);
 
         // Get the channel argument (optional)
         Channel channelArg = event.getOption("channel", null, net.dv8tion.jda.api.interactions.commands.OptionMapping::getAsChannel);
-        final TextChannel targetChannel;
-        if (channelArg instanceof TextChannel) {
-            targetChannel = (TextChannel) channelArg;
+        final List<String> targetChannelIds;
+        if (channelArg == null) {
+            targetChannelIds = null;
+        } else if (channelArg instanceof GuildMessageChannel messageChannel) {
+            targetChannelIds = List.of(messageChannel.getId());
+        } else if (channelArg instanceof ForumChannel forum) {
+            // Scan the open posts of the forum
+            targetChannelIds = new ArrayList<>();
+            forum.getThreadChannels().forEach(thread -> targetChannelIds.add(thread.getId()));
         } else {
-            targetChannel = null;
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ Messages can't be purged in this channel."))
+                    .setEphemeral(true).queue();
+            return;
         }
 
         // Get the count argument (optional)
         final Integer countArg = event.getOption("count", null, opt -> opt.getAsInt() > 0 ? opt.getAsInt() : null);
 
-        event.deferReply().queue(hook -> {
-            try {
-                Guild guild = event.getGuild();
-                if (guild == null) {
-                    event.getHook().editOriginalEmbeds(EmbedUtils.createSimpleError("❌ Guild not found.")).queue();
-                    return;
-                }
-                deleteUserMessagesAsync(guild, targetUser, daysArg, targetChannel, countArg, deletedCount -> {
-                    net.dv8tion.jda.api.EmbedBuilder embed = EmbedUtils.createSuccess()
-                            .setTitle("✅ Messages Deleted")
-                            .setDescription("Successfully deleted messages from **" + targetUser.getAsMention() + "**")
-                            .addField("Messages Deleted", String.valueOf(deletedCount), false);
-
-                    if (targetChannel != null) {
-                        embed.addField("Channel", targetChannel.getAsMention(), false);
-                    }
-
-                    if (daysArg != null) {
-                        embed.addField("Time Range", "Last " + daysArg + " day(s)", false);
-                    } else {
-                        embed.addField("Time Range", "All messages", false);
-                    }
-
-                    if (countArg != null) {
-                        embed.addField("Limit", countArg + " messages", false);
-                    }
-
-                    event.getHook().editOriginalEmbeds(embed.build()).queue();
-                    LogUtils.logInfo("Deleted " + deletedCount + " messages from " + targetUser.getAsTag() +
-                            (daysArg != null ? " from last " + daysArg + " days" : " (all messages)") +
-                            (targetChannel != null ? " in channel " + targetChannel.getName() : "") +
-                            (countArg != null ? " (limit: " + countArg + ")" : ""));
-                });
-
-            } catch (Exception e) {
-                LogUtils.logException("Error deleting messages", e);
-                event.getHook().editOriginalEmbeds(EmbedUtils.createSimpleError("❌ An error occurred while deleting messages.")).queue();
-            }
-        });
+        // Get the preview and scan flags (optional)
+        final boolean preview = event.getOption("preview", false, net.dv8tion.jda.api.interactions.commands.OptionMapping::getAsBoolean);
+        final boolean forceScan = event.getOption("scan", false, net.dv8tion.jda.api.interactions.commands.OptionMapping::getAsBoolean);
+
+        PurgeJobStorage.PurgeJobState state = new PurgeJobStorage.PurgeJobState();
+        state.id = event.getId();
+        state.guildId = guild.getId();
+        state.targetUserId = targetUser.getId();
+        state.targetUserName = targetUser.getAsTag();
+        state.statusChannelId = event.getChannel().getId();
+        state.channelIds = targetChannelIds;
+        state.scopeMention = channelArg != null ? channelArg.getAsMention() : null;
+        state.days = daysArg != null ? daysArg : 0;
+        state.cutoffMillis = daysArg != null ? OffsetDateTime.now().minusDays(daysArg).toInstant().toEpochMilli() : 0;
+        state.limit = countArg != null ? countArg : 0;
+        state.forceScan = forceScan;
+        state.createdAt = System.currentTimeMillis();
+
+        if (!PurgeJobRegistry.start(new PurgeJob(guild, state, preview))) {
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ Too many purges are running. Please wait for one to finish or cancel one."))
+                    .setEphemeral(true).queue();
+            return;
+        }
+        event.replyEmbeds(EmbedUtils.createDefault()
+                        .setDescription("🧹 Purge of messages from " + targetUser.getAsMention() + " started. Progress is posted in this channel.")
+                        .setFooter("Job " + state.id)
+                        .build())
+                .setEphemeral(true).queue();
     }
 
     /**
-     * Deletes all messages from a specific user in the guild.
+     * Handles the cancel button of a running purge.
      *
-     * @param guild The guild to search in
-     * @param targetUser The user whose messages to delete
-     * @param daysArg The number of days to go back, or null to delete all messages
-     * @param targetChannel The specific channel to scan, or null to scan all channels
-     * @param countArg The maximum number of messages to delete, or null for no limit
-     * @param onComplete Callback to execute when deletion is complete
+     * @param event The button interaction event
      */
-    private void deleteUserMessagesAsync(Guild guild, User targetUser, Integer daysArg, TextChannel targetChannel, Integer countArg, java.util.function.Consumer<Integer> onComplete) {
-        Thread deletionThread = new Thread(() -> {
-            int totalDeleted = 0;
-            OffsetDateTime cutoffTime = null;
-            int deletionLimit = countArg != null ? countArg : Integer.MAX_VALUE;
-
-            // Calculate cutoff time if days are specified
-            if (daysArg != null && daysArg > 0) {
-                cutoffTime = OffsetDateTime.now().minusDays(daysArg);
-            }
-
-            // Determine which channels to scan
-            List<TextChannel> channelsToScan = new ArrayList<>();
-            if (targetChannel != null) {
-                // Only scan the specified channel
-                channelsToScan.add(targetChannel);
-            } else {
-                // Scan all text channels
-                channelsToScan.addAll(guild.getTextChannels());
-            }
-
-            // Iterate through the channels to scan
-            for (TextChannel channel : channelsToScan) {
-                try {
-                    LogUtils.logDebug("Searching for messages in channel: " + channel.getName());
-
-                    // Keep retrieving messages batch by batch
-                    Message lastMessage = null;
-                    boolean hasRetrievedMessages = false;
-
-                    while (true) {
-                        // Check if we've reached the deletion limit
-                        if (totalDeleted >= deletionLimit) {
-                            LogUtils.logDebug("Reached deletion limit of " + deletionLimit);
-                            break;
-                        }
-
-                        List<Message> messages;
-
-                        try {
-                            if (!hasRetrievedMessages) {
-                                // First retrieval - get the most recent messages
-                                messages = channel.getHistory().retrievePast(100).complete();
-                                hasRetrievedMessages = true;
-                            } else {
-                                // Subsequent retrieval - get messages before the last one
-                                if (lastMessage == null) {
-                                    // No more messages to retrieve
-                                    break;
-                                }
-                                messages = channel.getHistoryBefore(lastMessage, 100).complete().getRetrievedHistory();
-                            }
-                        } catch (Exception e) {
-                            // If we can't retrieve messages, skip this channel
-                            LogUtils.logDebug("Could not retrieve messages from channel " + channel.getName() + ": " + e.getMessage());
-                            break;
-                        }
-
-                        if (messages.isEmpty()) {
-                            break; // No more messages in this channel
-                        }
-
-                        int deletedInBatch = 0;
-                        boolean shouldContinue = true;
-
-                        for (Message message : messages) {
-                            // Check if we've reached the deletion limit
-                            if (totalDeleted >= deletionLimit) {
-                                shouldContinue = false;
-                                break;
-                            }
-
-                            // Check if we've gone past the cutoff time
-                            if (cutoffTime != null && message.getTimeCreated().isBefore(cutoffTime)) {
-                                shouldContinue = false;
-                                break;
-                            }
-
-                            // Check if message is from target user
-                            if (message.getAuthor().getId().equals(targetUser.getId())) {
-                                try {
-                                    // Use complete() inside a separate thread, not a callback
-                                    message.delete().complete();
-                                    totalDeleted++;
-                                    deletedInBatch++;
-                                    LogUtils.logDebug("Deleted message " + message.getId() + " from " + channel.getName());
-                                } catch (Exception e) {
-                                    LogUtils.logDebug("Could not delete message " + message.getId() + " in channel " + channel.getName() + ": " + e.getMessage());
-                                }
-                            }
-                        }
-
-                        if (deletedInBatch > 0) {
-                            LogUtils.logDebug("Deleted " + deletedInBatch + " messages from channel " + channel.getName());
-                        }
-
-                        // Stop if we've gone past the cutoff time, hit deletion limit, or this was the last batch
-                        if (!shouldContinue || messages.size() < 100) {
-                            break;
-                        }
-
-                        // Update lastMessage for next iteration
-                        lastMessage = messages.getLast();
-                    }
-
-                } catch (Exception e) {
-                    LogUtils.logDebug("Error accessing channel " + channel.getName() + ": " + e.getMessage());
-                }
-            }
-
-            // Call the callback with the result
-            onComplete.accept(totalDeleted);
-        });
-
-        deletionThread.setName("PurgeCommand-Thread");
-        deletionThread.setDaemon(true);
-        deletionThread.start();
-    }
+    @Override
+    public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
+        if (!event.getComponentId().startsWith("purge_cancel:")) return;
 
-    /**
-     * Checks if the user has moderator permissions.
-     *
-     * @param event The slash command interaction event
-     * @return true if user is a moderator, false otherwise
-     */
-    private boolean isModerator(SlashCommandInteractionEvent event) {
-        if (event.getMember() == null) {
-            return false;
+        if (!PermissionUtils.isModerator(event.getMember())) {
+            event.replyEmbeds(EmbedUtils.createSimpleError("❌ You don't have permission to cancel purges."))
+                    .setEphemeral(true).queue();
+            return;
         }
 
-        String[] modRoleIds;
-        try {
-            modRoleIds = Config.get().getRoles().getModerators();
-        } catch (Exception e) {
-            LogUtils.logException("Error loading mod roles", e);
-            return false;
+        String jobId = event.getComponentId().substring("purge_cancel:".length());
+        if (PurgeJobRegistry.cancel(jobId)) {
+            event.reply("⏹️ Cancelling the purge …").setEphemeral(true).queue();
+        } else {
+            event.reply("❌ This purge is no longer running.").setEphemeral(true).queue();
         }
-
-        List<String> modRolesList = List.of(modRoleIds);
-        return event.getMember().getRoles().stream()
-                .anyMatch(role -> modRolesList.contains(role.getId()));
     }
 }
-
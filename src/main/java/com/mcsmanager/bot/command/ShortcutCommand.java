@@ -1,17 +1,15 @@
 package com.mcsmanager.bot.command;
 
-import com.mcsmanager.bot.Config;
 import com.mcsmanager.bot.shortcuts.Shortcut;
 import com.mcsmanager.bot.shortcuts.ShortcutStorage;
 import com.mcsmanager.bot.util.EmbedUtils;
 import com.mcsmanager.bot.util.LogUtils;
+import com.mcsmanager.bot.util.PermissionUtils;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-
 /**
  * Handles shortcut slash commands.
  * Supports add, remove, and execute subcommands for managing shortcuts.
@@ -47,7 +45,7 @@ public class ShortcutCommand extends ListenerAdapter {
      */
     private void handleAdd(SlashCommandInteractionEvent event) {
         // Check if user has moderator role (you can customize this check)
-        if (!isModerator(event)) {
+        if (!PermissionUtils.isModerator(event.getMember())) {
             event.reply("You don't have permission to use this command.").setEphemeral(true).queue();
             return;
         }
@@ -87,7 +85,7 @@ public class ShortcutCommand extends ListenerAdapter {
      */
     private void handleRemove(SlashCommandInteractionEvent event) {
         // Check if user has moderator role
-        if (!isModerator(event)) {
+        if (!PermissionUtils.isModerator(event.getMember())) {
             event.reply("You don't have permission to use this command.").setEphemeral(true).queue();
             return;
         }
@@ -169,26 +167,4 @@ public class ShortcutCommand extends ListenerAdapter {
         event.replyEmbeds(embed.build()).queue();
         LogUtils.logInfo("Listed all shortcuts: " + allShortcuts.size());
     }
-
-    /**
-     * Checks if the user has moderator permissions.
-     * Checks against configured moderator roles from Config.
-     */
-    private boolean isModerator(SlashCommandInteractionEvent event) {
-        if (event.getMember() == null) {
-            return false;
-        }
-
-        String[] modRoleIds;
-        try {
-            modRoleIds = Config.get().getRoles().getModerators();
-        } catch (Exception e) {
-            LogUtils.logException("Error loading mod roles", e);
-            return false;
-        }
-
-        List<String> modRolesList = List.of(modRoleIds);
-        return event.getMember().getRoles().stream()
-                .anyMatch(role -> modRolesList.contains(role.getId()));
-    }
 }
@@ -0,0 +1,63 @@
+package com.mcsmanager.bot.listener;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.storage.MessageIndexStorage;
+import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Event listener keeping the message index up to date.
+ * Records every guild message by its author and forgets deleted messages.
+ * Does nothing while the index is disabled.
+ *
+ * @author SkyKing_PX
+ */
+public class MessageIndexListener extends ListenerAdapter {
+
+    /**
+     * Records a new guild message.
+     *
+     * @param event The message received event
+     */
+    @Override
+    public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+        MessageIndexStorage index = Bot.getMessageIndex();
+        if (index == null || !event.isFromGuild()) {
+            return;
+        }
+
+        index.record(event.getAuthor().getId(), event.getChannel().getId(), event.getMessageId(),
+                event.getMessage().getTimeCreated().toInstant().toEpochMilli());
+    }
+
+    /**
+     * Forgets a deleted message.
+     *
+     * @param event The message delete event
+     */
+    @Override
+    public void onMessageDelete(@NotNull MessageDeleteEvent event) {
+        MessageIndexStorage index = Bot.getMessageIndex();
+        if (index != null) {
+            index.remove(List.of(event.getMessageId()));
+        }
+    }
+
+    /**
+     * Forgets bulk deleted messages.
+     *
+     * @param event The message bulk delete event
+     */
+    @Override
+    public void onMessageBulkDelete(@NotNull MessageBulkDeleteEvent event) {
+        MessageIndexStorage index = Bot.getMessageIndex();
+        if (index != null) {
+            index.remove(event.getMessageIds());
+        }
+    }
+}
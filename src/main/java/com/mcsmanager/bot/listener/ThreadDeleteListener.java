@@ -2,6 +2,7 @@ package com.mcsmanager.bot.listener;
 
 import com.mcsmanager.bot.Bot;
 import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.ThreadStateStorage;
 import com.mcsmanager.bot.storage.VoteStorage;
 import com.mcsmanager.bot.util.LogUtils;
 import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
@@ -11,7 +12,7 @@ import java.io.IOException;
 
 /**
  * Event listener for thread deletion cleanup.
- * Removes vote data when suggestion threads are deleted.
+ * Removes vote data when suggestion threads are deleted and forgets the activity of deleted threads.
  * 
  * @author SkyKing_PX
  */
@@ -32,6 +33,15 @@ public class ThreadDeleteListener extends ListenerAdapter {
             return;
         }
 
+        ThreadStateStorage threadState = Bot.getThreadState();
+        if (threadState != null) {
+            try {
+                threadState.remove(event.getChannel().getId());
+            } catch (IOException e) {
+                LogUtils.logException("Couldn't remove state of deleted thread " + event.getChannel().getId(), e);
+            }
+        }
+
         try {
             if (event.getChannel().asThreadChannel().getParentChannel().getId().equals(Config.get().getVoting().getSuggestions_forum_id())) {
                 String threadID = event.getChannel().asThreadChannel().getId();
@@ -0,0 +1,78 @@
+package com.mcsmanager.bot.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Normalised stack trace identifying a crash independently of the machine it happened on.
+ * Exception messages, line numbers, addresses and user paths are not part of the signature,
+ * so the same crash reported by different users hashes to the same identifier.
+ *
+ * @author SkyKing_PX
+ */
+public class CrashSignature {
+
+    /** Number of hex characters of the identifier */
+    private static final int ID_LENGTH = 12;
+
+    /** Identifier derived from the normalised trace */
+    private final String id;
+    /** Exception type at the top of the trace */
+    private final String exception;
+    /** Normalised frames, including the exception types of causes */
+    private final List<String> frames;
+
+    /**
+     * Creates a signature from a normalised trace.
+     *
+     * @param exception Exception type at the top of the trace
+     * @param frames Normalised frames, including the exception types of causes
+     */
+    public CrashSignature(String exception, List<String> frames) {
+        this.exception = exception;
+        this.frames = List.copyOf(frames);
+        this.id = hash(exception, this.frames);
+    }
+
+    /**
+     * Hashes a normalised trace into an identifier.
+     *
+     * @param exception Exception type at the top of the trace
+     * @param frames Normalised frames
+     * @return The signature identifier
+     */
+    private static String hash(String exception, List<String> frames) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(exception.getBytes(StandardCharsets.UTF_8));
+            for (String frame : frames) {
+                digest.update((byte) '\n');
+                digest.update(frame.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** @return Identifier derived from the normalised trace */
+    public String getId() { return id; }
+
+    /** @return Exception type at the top of the trace */
+    public String getException() { return exception; }
+
+    /** @return Normalised frames, including the exception types of causes */
+    public List<String> getFrames() { return frames; }
+
+    /**
+     * Gets the first frame that is not a cause marker, for display.
+     *
+     * @return The topmost frame, or null if the trace has none
+     */
+    public String getTopFrame() {
+        return frames.stream().filter(frame -> !frame.startsWith(StackTraceTap.CAUSE_PREFIX)).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,180 @@
+package com.mcsmanager.bot.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log tap extracting facts about the environment a log was written in: panel and daemon version,
+ * operating system, Java and Node.js version.
+ * Each extractor has a literal anchor that is searched for in the raw bytes of a line; only lines
+ * containing an anchor are decoded and matched against the extractor's (bounded) pattern. Anchors of
+ * case-insensitive patterns are matched ignoring ASCII case, so both always agree.
+ * The first value found per fact wins, and once every fact is known the tap stops looking at lines.
+ * Values are taken from the raw log and must be redacted before they are shown anywhere.
+ *
+ * @author SkyKing_PX
+ */
+public class EnvironmentTap implements LogTap {
+
+    /** Maximum number of bytes kept per line, the rest of longer lines is ignored */
+    private static final int MAX_LINE_BYTES = 512;
+    /** Maximum length of an extracted value */
+    private static final int MAX_VALUE_LENGTH = 64;
+    /** Operating system names and versions, e.g. "Linux (amd64) 5.15.0-86-generic"; stops at anything else on the line */
+    private static final String OS_NAME = "[A-Za-z][\\w .()+-]{0,47}";
+
+    /** Extractors in order of preference per fact */
+    private static final List<Extractor> EXTRACTORS = List.of(
+            new Extractor(Fact.PANEL, "panel", "(?i)\\b(?:web\\s*)?panel\\b[^0-9\\r\\n]{0,30}?v?(\\d+\\.\\d+\\.\\d+(?:-[\\w.]+)?)"),
+            new Extractor(Fact.DAEMON, "daemon", "(?i)\\bdaemon\\b[^0-9\\r\\n]{0,30}?v?(\\d+\\.\\d+\\.\\d+(?:-[\\w.]+)?)"),
+            new Extractor(Fact.OS, "Operating System:", "Operating System:\\s*(" + OS_NAME + ")"),
+            new Extractor(Fact.OS, "os.name", "os\\.name\\s*[=:]\\s*(" + OS_NAME + ")"),
+            new Extractor(Fact.OS, "OS:", "\\bOS:\\s*(" + OS_NAME + ")"),
+            new Extractor(Fact.JAVA, "java version", "(?i)\\bjava version:?\\s*\"?(\\d[\\w.+-]*)"),
+            new Extractor(Fact.JAVA, "openjdk version", "openjdk version \"([^\"]{1,40})\""),
+            new Extractor(Fact.JAVA, "java.version", "java\\.version\\s*[=:]\\s*(\\S+)"),
+            new Extractor(Fact.NODE, "Node.js v", "Node\\.js v(\\d+\\.\\d+\\.\\d+)"),
+            new Extractor(Fact.NODE, "node", "(?i)\\bnode(?:\\.js|js)? version:?\\s*v?(\\d+\\.\\d+\\.\\d+)")
+    );
+
+    /** Bytes of the current line */
+    private final byte[] line = new byte[MAX_LINE_BYTES];
+    /** Number of bytes in {@link #line} */
+    private int lineLength;
+    /** Facts found so far */
+    private final Map<Fact, String> facts = new EnumMap<>(Fact.class);
+
+    @Override
+    public void accept(byte[] buffer, int offset, int length) {
+        if (facts.size() == Fact.values().length) return;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                processLine();
+                lineLength = 0;
+            } else if (lineLength < MAX_LINE_BYTES) {
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (lineLength > 0) {
+            processLine();
+            lineLength = 0;
+        }
+    }
+
+    /**
+     * Gets the facts found in the log.
+     *
+     * @return Extracted values by fact, in display order
+     */
+    public Map<Fact, String> getFacts() {
+        return new EnumMap<>(facts);
+    }
+
+    private void processLine() {
+        String text = null;
+        for (Extractor extractor : EXTRACTORS) {
+            if (facts.containsKey(extractor.fact) || !contains(extractor)) continue;
+            if (text == null) {
+                text = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+            }
+            Matcher matcher = extractor.pattern.matcher(text);
+            if (matcher.find()) {
+                String value = clean(matcher.group(1));
+                if (!value.isEmpty()) facts.put(extractor.fact, value);
+            }
+        }
+    }
+
+    private boolean contains(Extractor extractor) {
+        byte[] anchor = extractor.anchor;
+        outer:
+        for (int i = 0; i <= lineLength - anchor.length; i++) {
+            for (int j = 0; j < anchor.length; j++) {
+                byte b = line[i + j];
+                if (extractor.ignoreCase && b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != anchor[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String clean(String value) {
+        String cleaned = value.strip();
+        while (!cleaned.isEmpty() && ",;.)".indexOf(cleaned.charAt(cleaned.length() - 1)) >= 0) {
+            cleaned = cleaned.substring(0, cleaned.length() - 1);
+        }
+        return cleaned.length() > MAX_VALUE_LENGTH ? cleaned.substring(0, MAX_VALUE_LENGTH) : cleaned;
+    }
+
+    /**
+     * A fact about the environment of a log.
+     */
+    public enum Fact {
+        PANEL("panel", "Panel"),
+        DAEMON("daemon", "Daemon"),
+        OS("os", "OS"),
+        JAVA("java", "Java"),
+        NODE("node", "Node.js");
+
+        /** Key used in the configuration and the upload cache */
+        private final String key;
+        /** Label shown to users */
+        private final String label;
+
+        Fact(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        /** @return Key used in the configuration and the upload cache */
+        public String getKey() { return key; }
+
+        /** @return Label shown to users */
+        public String getLabel() { return label; }
+
+        /**
+         * Looks up a fact by key.
+         *
+         * @param key The key, case-insensitive
+         * @return The fact, or null if the key is unknown
+         */
+        public static Fact fromKey(String key) {
+            for (Fact fact : values()) {
+                if (fact.key.equalsIgnoreCase(key)) return fact;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A literal anchor and the pattern applied to lines containing it.
+     * The anchor ignores case exactly if the pattern starts with {@code (?i)}.
+     */
+    private static final class Extractor {
+        private final Fact fact;
+        private final byte[] anchor;
+        private final boolean ignoreCase;
+        private final Pattern pattern;
+
+        private Extractor(Fact fact, String anchor, String regex) {
+            this.fact = fact;
+            this.ignoreCase = regex.startsWith("(?i)");
+            this.anchor = (ignoreCase ? anchor.toLowerCase(Locale.ROOT) : anchor).getBytes(StandardCharsets.US_ASCII);
+            this.pattern = Pattern.compile(regex);
+        }
+    }
+}
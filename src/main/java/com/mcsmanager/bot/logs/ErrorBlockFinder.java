@@ -0,0 +1,78 @@
+package com.mcsmanager.bot.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Locates the last error block (error line plus its stack trace) in the end of a log.
+ * Works on a window of bytes taken from the end of a log, which may start in the middle of a line.
+ *
+ * @author SkyKing_PX
+ */
+public final class ErrorBlockFinder {
+
+    /** Lines that start an error block */
+    private static final Pattern HEADER = Pattern.compile(
+            "\\b(ERROR|FATAL|SEVERE)\\b|Exception\\b|\\bError:|Throwable\\b");
+    /** Lines that continue an error block (stack frames, causes, suppressed exceptions) */
+    private static final Pattern CONTINUATION = Pattern.compile(
+            "^(\\s+at\\s|\\s*Caused by:|\\s+Suppressed:|\\s*\\.\\.\\. \\d+ (more|common frames omitted))");
+    /** Maximum number of lines in a block */
+    private static final int MAX_LINES = 40;
+
+    private ErrorBlockFinder() {
+    }
+
+    /**
+     * A located error block.
+     *
+     * @param text The lines of the block
+     * @param touchesStart Whether the block begins at the first complete line of the window,
+     *                     meaning it may continue further back
+     */
+    public record Block(String text, boolean touchesStart) {
+    }
+
+    /**
+     * Finds the last error block in a window.
+     *
+     * @param window Bytes from the end of a log
+     * @param partialStart Whether the window starts in the middle of the log, in which case its first line is dropped
+     * @return The last error block, or null if the window contains none
+     */
+    public static Block findLast(byte[] window, boolean partialStart) {
+        String text = new String(window, StandardCharsets.UTF_8);
+        if (partialStart) {
+            int newline = text.indexOf('\n');
+            text = newline == -1 ? "" : text.substring(newline + 1);
+        }
+        String[] lines = text.split("\r?\n");
+
+        // 1) find the last line that belongs to an error block
+        int last = lines.length - 1;
+        while (last >= 0 && !HEADER.matcher(lines[last]).find() && !CONTINUATION.matcher(lines[last]).find()) {
+            last--;
+        }
+        if (last < 0) {
+            return null;
+        }
+
+        // 2) walk back over the stack trace to the line that introduced it
+        int start = last;
+        while (start > 0 && CONTINUATION.matcher(lines[start]).find()) {
+            start--;
+        }
+        // "[Server thread/ERROR]: Encountered an unexpected exception" followed by "java.lang.RuntimeException: …"
+        if (start > 0 && HEADER.matcher(lines[start - 1]).find() && !CONTINUATION.matcher(lines[start - 1]).find()) {
+            start--;
+        }
+
+        // 3) everything up to the last matching line belongs to the block; long traces keep their top frames
+        int end = Math.min(last + 1, start + MAX_LINES);
+        StringBuilder block = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            block.append(lines[i]).append('\n');
+        }
+        return new Block(block.toString().stripTrailing(), start == 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mcsmanager.bot.logs;
+
+import java.util.List;
+
+/**
+ * Data model for a known failure message loaded from the signature file.
+ * A signature matches if any of its patterns occurs in a log (ASCII case-insensitive).
+ *
+ * @author SkyKing_PX
+ */
+public class ErrorSignature {
+    /** Unique identifier of the signature */
+    private String id;
+    /** Short title shown to the user */
+    private String title;
+    /** Literal text fragments identifying the failure */
+    private List<String> patterns;
+    /** Suggested fix shown to the user */
+    private String fix;
+
+    /**
+     * Default constructor for SnakeYAML deserialization.
+     */
+    public ErrorSignature() {
+        // Constructor for SnakeYAML
+    }
+
+    /** @return Unique identifier of the signature */
+    public String getId() { return id; }
+    /** @param id Unique identifier to set */
+    public void setId(String id) { this.id = id; }
+
+    /** @return Short title shown to the user */
+    public String getTitle() { return title; }
+    /** @param title Title to set */
+    public void setTitle(String title) { this.title = title; }
+
+    /** @return Literal text fragments identifying the failure */
+    public List<String> getPatterns() { return patterns; }
+    /** @param patterns Text fragments to set */
+    public void setPatterns(List<String> patterns) { this.patterns = patterns; }
+
+    /** @return Suggested fix shown to the user */
+    public String getFix() { return fix; }
+    /** @param fix Suggested fix to set */
+    public void setFix(String fix) { this.fix = fix; }
+}
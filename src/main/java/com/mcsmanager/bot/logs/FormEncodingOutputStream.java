@@ -0,0 +1,97 @@
+package com.mcsmanager.bot.logs;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that applies {@code application/x-www-form-urlencoded} encoding on the fly.
+ * Every byte written is percent-encoded (or passed through if unreserved) into a small fixed buffer,
+ * so arbitrarily large logs can be streamed into a request body without being materialized.
+ *
+ * @author SkyKing_PX
+ */
+public class FormEncodingOutputStream extends FilterOutputStream {
+
+    /** Size of the internal output buffer in bytes */
+    private static final int BUFFER_SIZE = 8192;
+    /** Upper-case hex digits used for percent-encoding */
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    /** Encoded bytes waiting to be flushed to the underlying stream */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    /** Number of bytes currently held in the buffer */
+    private int count;
+
+    /**
+     * Creates a new encoding stream.
+     *
+     * @param out The stream receiving the encoded bytes
+     */
+    public FormEncodingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * Writes a raw (already encoded) ASCII string, e.g. a field name followed by {@code =}.
+     *
+     * @param raw The string to write without encoding
+     * @throws IOException If the underlying stream fails
+     */
+    public void writeRaw(String raw) throws IOException {
+        for (int i = 0; i < raw.length(); i++) {
+            put((byte) raw.charAt(i));
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        encode((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(b[i]);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Encodes a single byte. UTF-8 is percent-encoded byte by byte, so no character decoding is needed.
+     *
+     * @param b The byte to encode
+     * @throws IOException If the underlying stream fails
+     */
+    private void encode(byte b) throws IOException {
+        if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                || b == '-' || b == '.' || b == '_' || b == '*') {
+            put(b);
+        } else if (b == ' ') {
+            put((byte) '+');
+        } else {
+            put((byte) '%');
+            put(HEX[(b >> 4) & 0x0F]);
+            put(HEX[b & 0x0F]);
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = b;
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mcsmanager.bot.logs;
+
+/**
+ * Recognises logs pasted into message bodies.
+ * A single pass over the text counts lines and how many of them look like log output: a leading
+ * timestamp ({@code [12:34:56]}, {@code 12:34:56} or {@code 2024-01-31}), a log level token
+ * ({@code INFO}, {@code WARN}, {@code ERROR}, …) or a stack frame. Content inside code blocks is
+ * preferred over the surrounding text. No regular expressions are involved, and ordinary messages
+ * are rejected by their length and line count before any line is inspected.
+ *
+ * @author SkyKing_PX
+ */
+public final class InlineLogDetector {
+
+    /** Minimum average line length, used to reject short messages before scanning */
+    private static final int MIN_CHARS_PER_LINE = 12;
+    /** Share of non-empty lines that must look like log output, in percent */
+    private static final int MIN_LOG_LINE_PERCENT = 60;
+    /** Code fence delimiter */
+    private static final String FENCE = "```";
+
+    private InlineLogDetector() {
+    }
+
+    /**
+     * Extracts pasted log content from a message.
+     *
+     * @param message The raw message content
+     * @param minLines Minimum number of non-empty lines for the content to count as a log
+     * @return The log content, or null if the message does not look like a log
+     */
+    public static String extract(String message, int minLines) {
+        if (message == null || message.length() < minLines * MIN_CHARS_PER_LINE) return null;
+        if (countLines(message) < minLines) return null;
+
+        String text = message.contains(FENCE) ? stripFences(message) : message;
+        int lines = 0;
+        int logLines = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end == -1) end = text.length();
+            int first = skipWhitespace(text, start, end);
+            if (first < end) {
+                lines++;
+                if (isLogLine(text, first, end)) logLines++;
+            }
+            start = end + 1;
+        }
+        if (lines < minLines || logLines * 100 < lines * MIN_LOG_LINE_PERCENT) return null;
+        return text.strip();
+    }
+
+    private static int countLines(String text) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') lines++;
+        }
+        return lines;
+    }
+
+    /**
+     * Keeps only the content of code blocks. The language tag after an opening fence is dropped,
+     * and an unclosed block (a log split across messages) runs to the end of the message.
+     */
+    private static String stripFences(String message) {
+        StringBuilder content = new StringBuilder(message.length());
+        int position = 0;
+        while (true) {
+            int open = message.indexOf(FENCE, position);
+            if (open == -1) break;
+            int body = message.indexOf('\n', open + FENCE.length());
+            int close = message.indexOf(FENCE, open + FENCE.length());
+            if (body == -1 || (close != -1 && close < body)) {
+                // Single-line code block, not a paste
+                position = close == -1 ? message.length() : close + FENCE.length();
+                continue;
+            }
+            int end = close == -1 ? message.length() : close;
+            content.append(message, body + 1, end);
+            if (content.length() > 0 && content.charAt(content.length() - 1) != '\n') content.append('\n');
+            position = close == -1 ? message.length() : close + FENCE.length();
+        }
+        return content.length() > 0 ? content.toString() : message;
+    }
+
+    private static int skipWhitespace(String text, int from, int end) {
+        while (from < end && Character.isWhitespace(text.charAt(from))) from++;
+        return from;
+    }
+
+    private static boolean isLogLine(String text, int start, int end) {
+        if (startsWith(text, start, end, "at ") || startsWith(text, start, end, "Caused by:")
+                || startsWith(text, start, end, "...")) {
+            return true;
+        }
+        int position = start < end && text.charAt(start) == '[' ? start + 1 : start;
+        if (isTime(text, position, end) || isDate(text, position, end)) {
+            return true;
+        }
+        return hasLevel(text, start, end);
+    }
+
+    private static boolean startsWith(String text, int start, int end, String prefix) {
+        return end - start >= prefix.length() && text.startsWith(prefix, start);
+    }
+
+    /** {@code HH:MM} */
+    private static boolean isTime(String text, int i, int end) {
+        return i + 5 <= end && isDigit(text, i) && isDigit(text, i + 1) && text.charAt(i + 2) == ':'
+                && isDigit(text, i + 3) && isDigit(text, i + 4);
+    }
+
+    /** {@code YYYY-MM-DD} or {@code YYYY/MM/DD} */
+    private static boolean isDate(String text, int i, int end) {
+        if (i + 10 > end) return false;
+        char separator = text.charAt(i + 4);
+        return (separator == '-' || separator == '/') && text.charAt(i + 7) == separator
+                && isDigit(text, i) && isDigit(text, i + 1) && isDigit(text, i + 2) && isDigit(text, i + 3)
+                && isDigit(text, i + 5) && isDigit(text, i + 6) && isDigit(text, i + 8) && isDigit(text, i + 9);
+    }
+
+    private static boolean isDigit(String text, int i) {
+        char c = text.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Checks whether a line contains a log level as a separate upper case token.
+     */
+    private static boolean hasLevel(String text, int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                i++;
+                continue;
+            }
+            int tokenStart = i;
+            while (i < end && text.charAt(i) >= 'A' && text.charAt(i) <= 'Z') i++;
+            boolean separated = (tokenStart == start || !Character.isLetterOrDigit(text.charAt(tokenStart - 1)))
+                    && (i == end || !Character.isLetterOrDigit(text.charAt(i)));
+            if (separated && isLevel(text, tokenStart, i - tokenStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLevel(String text, int start, int length) {
+        return switch (length) {
+            case 4 -> text.startsWith("INFO", start) || text.startsWith("WARN", start);
+            case 5 -> text.startsWith("ERROR", start) || text.startsWith("DEBUG", start)
+                    || text.startsWith("FATAL", start) || text.startsWith("TRACE", start);
+            case 6 -> text.startsWith("SEVERE", start);
+            case 7 -> text.startsWith("WARNING", start);
+            default -> false;
+        };
+    }
+}
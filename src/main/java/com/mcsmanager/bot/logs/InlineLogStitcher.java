@@ -0,0 +1,143 @@
+package com.mcsmanager.bot.logs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Joins pasted logs that an author splits across consecutive messages.
+ * Parts are collected per channel and author. A batch is handed on once the author has been quiet
+ * for the stitch delay, when somebody else writes in the channel, when the author sends something
+ * that is not a log, or when the batch reaches its size limit.
+ * Thread-safe implementation using synchronized methods; batches are delivered outside the lock.
+ *
+ * @param <C> Type of the channel handle passed through to the consumer
+ * @author SkyKing_PX
+ */
+public class InlineLogStitcher<C> {
+
+    /** Delay after the last part before a batch is delivered */
+    private final long delayMillis;
+    /** Maximum number of characters per batch */
+    private final int maxChars;
+    /** Receives completed batches */
+    private final Consumer<Batch<C>> consumer;
+    /** Batches being collected, by channel ID */
+    private final Map<String, Pending<C>> pending = new HashMap<>();
+    /** Timer delivering batches after the delay */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "InlineLog-Stitcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a new stitcher.
+     *
+     * @param delayMillis Delay after the last part before a batch is delivered
+     * @param maxChars Maximum number of characters per batch
+     * @param consumer Receives completed batches
+     */
+    public InlineLogStitcher(long delayMillis, int maxChars, Consumer<Batch<C>> consumer) {
+        this.delayMillis = delayMillis;
+        this.maxChars = maxChars;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Checks whether an author has a batch in progress in a channel.
+     *
+     * @param channelId ID of the channel
+     * @param authorId ID of the author
+     * @return Whether the next message of the author may continue a batch
+     */
+    public synchronized boolean isCollecting(String channelId, String authorId) {
+        Pending<C> current = pending.get(channelId);
+        return current != null && current.authorId.equals(authorId);
+    }
+
+    /**
+     * Adds a part to the author's batch, delivering a batch of a different author in the channel first.
+     *
+     * @param channel Channel handle passed through to the consumer
+     * @param channelId ID of the channel
+     * @param authorId ID of the author
+     * @param messageId ID of the message holding the part
+     * @param text The log content of the message
+     */
+    public void offer(C channel, String channelId, String authorId, String messageId, String text) {
+        List<Batch<C>> ready = new ArrayList<>(2);
+        synchronized (this) {
+            Pending<C> existing = pending.get(channelId);
+            if (existing != null && (!existing.authorId.equals(authorId) || existing.text.length() + text.length() > maxChars)) {
+                ready.add(take(channelId));
+            }
+            Pending<C> current = pending.computeIfAbsent(channelId, id -> new Pending<>(channel, authorId));
+            if (current.text.length() > 0) current.text.append('\n');
+            current.text.append(text, 0, Math.min(text.length(), maxChars));
+            current.messageIds.add(messageId);
+            if (current.timeout != null) current.timeout.cancel(false);
+            current.timeout = timer.schedule(() -> flush(channelId, current), delayMillis, TimeUnit.MILLISECONDS);
+        }
+        ready.forEach(consumer);
+    }
+
+    /**
+     * Delivers the batch in progress in a channel, e.g. because another message interrupted it.
+     *
+     * @param channelId ID of the channel
+     */
+    public void interrupt(String channelId) {
+        Batch<C> batch;
+        synchronized (this) {
+            batch = pending.containsKey(channelId) ? take(channelId) : null;
+        }
+        if (batch != null) consumer.accept(batch);
+    }
+
+    private void flush(String channelId, Pending<C> expected) {
+        Batch<C> batch;
+        synchronized (this) {
+            // A newer batch may have replaced the one this timer belongs to
+            batch = pending.get(channelId) == expected ? take(channelId) : null;
+        }
+        if (batch != null) consumer.accept(batch);
+    }
+
+    private Batch<C> take(String channelId) {
+        Pending<C> current = pending.remove(channelId);
+        if (current.timeout != null) current.timeout.cancel(false);
+        return new Batch<>(current.channel, current.authorId, List.copyOf(current.messageIds), current.text.toString());
+    }
+
+    /**
+     * A completed batch.
+     *
+     * @param channel Channel handle the batch was collected in
+     * @param authorId ID of the author
+     * @param messageIds IDs of the messages holding the parts, in order
+     * @param text The joined log content
+     * @param <C> Type of the channel handle
+     */
+    public record Batch<C>(C channel, String authorId, List<String> messageIds, String text) {
+    }
+
+    private static final class Pending<C> {
+        private final C channel;
+        private final String authorId;
+        private final List<String> messageIds = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private ScheduledFuture<?> timeout;
+
+        private Pending(C channel, String authorId) {
+            this.channel = channel;
+            this.authorId = authorId;
+        }
+    }
+}
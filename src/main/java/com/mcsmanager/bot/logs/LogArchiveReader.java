@@ -0,0 +1,205 @@
+package com.mcsmanager.bot.logs;
+
+import com.mcsmanager.bot.Config;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streams the logs contained in a compressed attachment ({@code .gz} or {@code .zip}).
+ * Nothing is extracted to disk or buffered as a whole: every contained log is handed to the
+ * caller as a stream that decompresses on demand. Decompressed sizes and the number of entries
+ * are counted while reading and the archive is rejected as soon as a limit is exceeded,
+ * so compression bombs cannot exhaust memory or occupy a worker for long.
+ * A reader keeps count across entries and is therefore used for a single archive.
+ *
+ * @author SkyKing_PX
+ */
+public class LogArchiveReader {
+
+    /** Buffer size of the decompressors */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Maximum number of entries read from a zip archive, including skipped ones */
+    private final int maxEntries;
+    /** Maximum number of logs handed to the caller */
+    private final int maxLogs;
+    /** Maximum decompressed size of a single entry */
+    private final long maxEntryBytes;
+    /** Maximum decompressed size of all entries together */
+    private final long maxTotalBytes;
+
+    /** Decompressed bytes read so far */
+    private long totalBytes;
+
+    /**
+     * Receives the logs of an archive one after another.
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+        /**
+         * Processes a single log. The stream is only valid during the call and does not need to be closed.
+         *
+         * @param name File name of the log
+         * @param content Decompressed content of the log
+         * @throws IOException If processing fails or a limit is exceeded
+         */
+        void accept(String name, InputStream content) throws IOException;
+    }
+
+    /**
+     * Creates a new reader with the configured limits.
+     *
+     * @param settings The log upload configuration
+     */
+    public LogArchiveReader(Config.LogUpload settings) {
+        this.maxEntries = Math.max(1, settings.getArchiveMaxEntries());
+        this.maxLogs = Math.max(1, settings.getArchiveMaxLogs());
+        this.maxEntryBytes = Math.max(1, settings.getArchiveMaxEntryBytes());
+        this.maxTotalBytes = Math.max(1, settings.getArchiveMaxTotalBytes());
+    }
+
+    /**
+     * Checks whether a file name denotes an archive of logs.
+     * Gzip files must wrap a log ({@code latest.log.gz}); zip files must be named like a log
+     * collection ({@code logs.zip}, {@code crash-reports.zip}) so that unrelated archives are ignored.
+     *
+     * @param fileName The file name
+     * @return Whether the file is a supported log archive
+     */
+    public static boolean isLogArchive(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".gz")) {
+            return isLogName(lower.substring(0, lower.length() - ".gz".length()));
+        }
+        return lower.endsWith(".zip") && (lower.contains("log") || lower.contains("crash"));
+    }
+
+    /**
+     * Checks whether a file name inside an archive denotes a log worth uploading.
+     *
+     * @param fileName The file name
+     * @return Whether the file is a log or crash report
+     */
+    public static boolean isLogName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".log") || lower.endsWith(".txt") || lower.contains("crash");
+    }
+
+    /**
+     * Reads an archive and passes every contained log to the handler, in archive order.
+     *
+     * @param fileName File name of the archive
+     * @param compressed The compressed content, closed when done
+     * @param handler Receives the contained logs
+     * @return Number of logs passed to the handler
+     * @throws IOException If the archive is invalid, a limit is exceeded or the handler fails
+     */
+    public int read(String fileName, InputStream compressed, EntryHandler handler) throws IOException {
+        try (compressed) {
+            if (fileName.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                return readZip(fileName, compressed, handler);
+            }
+            // Rotated logs (latest.log.gz, 2024-01-01-1.log.gz) contain a single log named like the archive
+            String inner = fileName.substring(0, fileName.length() - ".gz".length());
+            handler.accept(inner, new LimitedStream(new GZIPInputStream(compressed, BUFFER_SIZE), inner, maxEntryBytes));
+            return 1;
+        }
+    }
+
+    private int readZip(String fileName, InputStream compressed, EntryHandler handler) throws IOException {
+        ZipInputStream zip = new ZipInputStream(compressed);
+        int entries = 0;
+        int logs = 0;
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (++entries > maxEntries) {
+                throw new IOException(fileName + " contains more than " + maxEntries + " entries");
+            }
+            if (entry.isDirectory()) continue;
+
+            String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+            boolean upload = logs < maxLogs && isLogName(name);
+            // Skipped files (jars, worlds …) are only bounded by the archive total
+            LimitedStream content = new LimitedStream(zip, name, upload ? maxEntryBytes : Long.MAX_VALUE);
+            if (upload) {
+                handler.accept(name, content);
+                logs++;
+            }
+            // Whatever was not consumed still has to be decompressed to reach the next entry
+            content.transferTo(OutputStream.nullOutputStream());
+        }
+        return logs;
+    }
+
+    private static String formatMiB(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Stream over a single decompressed entry that enforces the size limits and ignores close,
+     * so the caller cannot close the underlying archive.
+     */
+    private class LimitedStream extends FilterInputStream {
+        /** Name of the entry, for error messages */
+        private final String name;
+        /** Maximum decompressed size of this entry */
+        private final long limit;
+        /** Decompressed bytes read from this entry */
+        private long entryBytes;
+
+        LimitedStream(InputStream in, String name, long limit) {
+            super(in);
+            this.name = name;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) count(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // The archive is owned by the reader
+        }
+
+        private void count(long bytes) throws IOException {
+            entryBytes += bytes;
+            totalBytes += bytes;
+            if (entryBytes > limit) {
+                throw new IOException(name + " exceeds the decompressed size limit of " + formatMiB(limit));
+            }
+            if (totalBytes > maxTotalBytes) {
+                throw new IOException("Archive exceeds the decompressed size limit of " + formatMiB(maxTotalBytes));
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.mcsmanager.bot.logs;
+
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.util.LogUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Long-lived, pooled asynchronous HTTP client used by the log upload pipeline.
+ * One instance is owned by the bot lifecycle so that connections (and TLS sessions) are reused
+ * across uploads, and HTTP/2 is negotiated where the remote supports it.
+ *
+ * @author SkyKing_PX
+ */
+public class LogHttpClient implements Closeable {
+
+    /** Size of the buffer shared between the body writer thread and the I/O reactor */
+    private static final int BODY_BUFFER_SIZE = 16 * 1024;
+    /** Size of the copy buffer used when reading from the source stream */
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    /** Connection manager, kept to expose pool statistics */
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    /** The underlying async client */
+    private final CloseableHttpAsyncClient client;
+    /** Executor running the blocking source-to-body copies of streamed request bodies */
+    private final ExecutorService bodyWriters;
+
+    /**
+     * Creates and starts a new client from the given settings.
+     *
+     * @param settings The log upload configuration
+     */
+    public LogHttpClient(Config.LogUpload settings) {
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxConnections())
+                .setMaxConnPerRoute(settings.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofSeconds(settings.getConnectTimeoutSeconds()))
+                        .setSocketTimeout(Timeout.ofSeconds(settings.getResponseTimeoutSeconds()))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(settings.isHttp2() ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofSeconds(settings.getConnectTimeoutSeconds()))
+                        .setResponseTimeout(Timeout.ofSeconds(settings.getResponseTimeoutSeconds()))
+                        .build())
+                .build();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.bodyWriters = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "LogHttpClient-Body-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        client.start();
+        LogUtils.logInfo("Log HTTP client started (max " + settings.getMaxConnections() + " connections, HTTP/2 " + (settings.isHttp2() ? "enabled" : "disabled") + ")");
+    }
+
+    /**
+     * Posts a single form field whose value is streamed from the given source.
+     * The source is form-encoded on the fly through a bounded buffer and closed once the request completes.
+     * If reading the source fails, the exchange is aborted and the future fails with the source's error.
+     * Cancelling the returned future aborts the exchange and releases its connection.
+     *
+     * @param uri Target URI
+     * @param field Name of the form field
+     * @param source Stream providing the field value
+     * @return Future completing with the buffered response
+     */
+    public CompletableFuture<SimpleHttpResponse> postForm(String uri, String field, InputStream source) {
+        CompletableFuture<CompletableFuture<SimpleHttpResponse>> exchange = new CompletableFuture<>();
+        AtomicReference<IOException> sourceError = new AtomicReference<>();
+        AbstractClassicEntityProducer body = new AbstractClassicEntityProducer(BODY_BUFFER_SIZE, ContentType.APPLICATION_FORM_URLENCODED, bodyWriters) {
+            @Override
+            protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+                FormEncodingOutputStream encoder = new FormEncodingOutputStream(outputStream);
+                encoder.writeRaw(field + "=");
+                byte[] chunk = new byte[COPY_BUFFER_SIZE];
+                while (true) {
+                    int read;
+                    try {
+                        read = source.read(chunk);
+                    } catch (IOException e) {
+                        // The producer ends the body as if it was complete, so abort the exchange first
+                        sourceError.set(e);
+                        exchange.join().cancel(true);
+                        throw e;
+                    }
+                    if (read == -1) {
+                        break;
+                    }
+                    encoder.write(chunk, 0, read);
+                }
+                encoder.flush();
+            }
+        };
+
+        AsyncRequestProducer request = AsyncRequestBuilder.post(uri).setEntity(body).build();
+        CompletableFuture<SimpleHttpResponse> response = execute(request);
+        exchange.complete(response);
+        response.whenComplete((result, error) -> {
+            try {
+                source.close();
+            } catch (IOException e) {
+                LogUtils.logDebug("Could not close upload source: " + e.getMessage());
+            }
+        });
+
+        CompletableFuture<SimpleHttpResponse> result = response.handle((message, error) -> {
+            if (sourceError.get() != null) {
+                throw new CompletionException(sourceError.get());
+            }
+            if (error != null) {
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            return message;
+        });
+        result.whenComplete((message, error) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Fetches a byte range of a remote resource.
+     * The response is capped at the requested length, so servers ignoring the range cannot blow up memory.
+     *
+     * @param uri Resource URI
+     * @param offset First byte to fetch
+     * @param length Number of bytes to fetch
+     * @return Future completing with the fetched bytes (may be shorter at the end of the resource)
+     */
+    public CompletableFuture<byte[]> getRange(String uri, long offset, int length) {
+        AsyncRequestProducer request = AsyncRequestBuilder.get(uri)
+                .setHeader(HttpHeaders.RANGE, "bytes=" + offset + "-" + (offset + length - 1))
+                .build();
+        return execute(request, new BasicResponseConsumer<>(new BoundedBytesConsumer(length))).thenApply(message -> {
+            int status = message.getHead().getCode();
+            if (status == HttpStatus.SC_PARTIAL_CONTENT || (status == HttpStatus.SC_OK && offset == 0)) {
+                return message.getBody() != null ? message.getBody() : new byte[0];
+            }
+            throw new CompletionException(new IOException("Range request failed with status " + status));
+        });
+    }
+
+    /**
+     * Executes a request with a buffered response.
+     *
+     * @param request The request to execute
+     * @return Future completing with the buffered response
+     */
+    private CompletableFuture<SimpleHttpResponse> execute(AsyncRequestProducer request) {
+        return execute(request, SimpleResponseConsumer.create());
+    }
+
+    /**
+     * Executes a request and adapts the callback to a {@link CompletableFuture}.
+     * Cancelling the returned future cancels the exchange.
+     *
+     * @param request The request to execute
+     * @param consumer Consumer turning the response into a result
+     * @param <T> The result type
+     * @return Future completing with the consumed response
+     */
+    private <T> CompletableFuture<T> execute(AsyncRequestProducer request, AsyncResponseConsumer<T> consumer) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<T> exchange = client.execute(request, consumer, new FutureCallback<>() {
+            @Override
+            public void completed(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                future.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Gets the current connection pool utilisation.
+     *
+     * @return Totals of leased, pending and available connections
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Formats the current pool utilisation for display.
+     *
+     * @return Human-readable pool statistics
+     */
+    public String describePool() {
+        PoolStats stats = getPoolStats();
+        return "**Leased:** " + stats.getLeased() + " / " + stats.getMax()
+                + "\n**Available:** " + stats.getAvailable()
+                + "\n**Pending:** " + stats.getPending();
+    }
+
+    /**
+     * Shuts the client down gracefully and releases all pooled connections.
+     */
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+        bodyWriters.shutdown();
+        LogUtils.logInfo("Log HTTP client stopped.");
+    }
+
+    /**
+     * Entity consumer buffering at most a fixed number of bytes and failing beyond that.
+     */
+    private static class BoundedBytesConsumer extends AbstractBinAsyncEntityConsumer<byte[]> {
+        /** Maximum number of bytes accepted */
+        private final int limit;
+        /** Received bytes */
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        BoundedBytesConsumer(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        protected void streamStart(ContentType contentType) {
+        }
+
+        @Override
+        protected byte[] generateContent() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return COPY_BUFFER_SIZE;
+        }
+
+        @Override
+        protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+            if (buffer.size() + src.remaining() > limit) {
+                throw new IOException("Response exceeds " + limit + " bytes");
+            }
+            byte[] chunk = new byte[src.remaining()];
+            src.get(chunk);
+            buffer.write(chunk);
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mcsmanager.bot.logs;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads the end of a remote log with HTTP range requests, walking backwards chunk by chunk
+ * until the last error block is complete or the configured maximum is reached.
+ * Only the end of the log is transferred, regardless of its size.
+ *
+ * @author SkyKing_PX
+ */
+public class LogTailReader {
+
+    /** Client used for the range requests */
+    private final LogHttpClient client;
+    /** Number of bytes fetched per step */
+    private final int chunkBytes;
+    /** Maximum number of bytes fetched in total */
+    private final int maxBytes;
+
+    /**
+     * Creates a new tail reader.
+     *
+     * @param client Client used for the range requests
+     * @param chunkBytes Number of bytes fetched per step
+     * @param maxBytes Maximum number of bytes fetched in total
+     */
+    public LogTailReader(LogHttpClient client, int chunkBytes, int maxBytes) {
+        this.client = client;
+        this.chunkBytes = Math.max(1024, chunkBytes);
+        this.maxBytes = Math.max(this.chunkBytes, maxBytes);
+    }
+
+    /**
+     * Finds the last error block of a remote log.
+     *
+     * @param url URL of the log
+     * @param size Total size of the log in bytes
+     * @return Future completing with the last error block, or null if none was found
+     */
+    public CompletableFuture<String> lastErrorBlock(String url, long size) {
+        return step(url, size, new byte[0]);
+    }
+
+    private CompletableFuture<String> step(String url, long size, byte[] suffix) {
+        long end = size - suffix.length;
+        int length = (int) Math.min(chunkBytes, end);
+        long offset = end - length;
+        return client.getRange(url, offset, length).thenCompose(bytes -> {
+            byte[] window = new byte[bytes.length + suffix.length];
+            System.arraycopy(bytes, 0, window, 0, bytes.length);
+            System.arraycopy(suffix, 0, window, bytes.length, suffix.length);
+
+            boolean atStart = offset == 0;
+            ErrorBlockFinder.Block block = ErrorBlockFinder.findLast(window, !atStart);
+            // Keep walking back if nothing was found yet or the block may start before the window
+            if (!atStart && window.length < maxBytes && (block == null || block.touchesStart())) {
+                return step(url, size, window);
+            }
+            return CompletableFuture.completedFuture(block != null ? block.text() : null);
+        });
+    }
+}
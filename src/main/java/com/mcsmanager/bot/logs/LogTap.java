@@ -0,0 +1,25 @@
+package com.mcsmanager.bot.logs;
+
+/**
+ * Observer of the raw bytes of a log while it streams through the upload pipeline.
+ * Taps let analysis share the single pass that also feeds the upload, without buffering the log.
+ *
+ * @author SkyKing_PX
+ */
+public interface LogTap {
+
+    /**
+     * Receives the next chunk of the log.
+     *
+     * @param buffer Buffer holding the bytes
+     * @param offset Start of the chunk in the buffer
+     * @param length Number of bytes in the chunk
+     */
+    void accept(byte[] buffer, int offset, int length);
+
+    /**
+     * Called once after the last chunk has been passed to {@link #accept(byte[], int, int)}.
+     */
+    default void finish() {
+    }
+}
@@ -0,0 +1,102 @@
+package com.mcsmanager.bot.logs;
+
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded executor for the log processing pipeline.
+ * Keeps downloads and uploads off the JDA event threads and applies backpressure:
+ * a batch of tasks is only admitted if there is room for all of it, otherwise it is rejected as a whole.
+ * Admission is bounded by permits alone; the work queue itself is unbounded, because a permit is released
+ * by the finishing task before its worker is idle again.
+ *
+ * @author SkyKing_PX
+ */
+public class LogUploadExecutor {
+
+    /** Worker pool running the pipeline tasks */
+    private final ThreadPoolExecutor executor;
+    /** Admission permits, one per running or queued task */
+    private final Semaphore admission;
+    /** Total number of admission permits (workers + queue slots) */
+    private final int capacity;
+
+    /**
+     * Creates a new executor from the given settings.
+     *
+     * @param settings The log upload configuration
+     */
+    public LogUploadExecutor(Config.LogUpload settings) {
+        int workers = Math.max(1, settings.getWorkerThreads());
+        int queueCapacity = Math.max(0, settings.getQueueCapacity());
+        this.capacity = workers + queueCapacity;
+        this.admission = new Semaphore(capacity);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "LogUpload-Worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a batch of tasks if there is capacity for all of them.
+     *
+     * @param tasks The tasks to run
+     * @param <T> The result type of the tasks
+     * @return One future per task in the same order, or {@code null} if the executor is saturated.
+     *         Tasks the executor refuses because it is shutting down complete exceptionally.
+     */
+    public <T> List<CompletableFuture<T>> trySubmitAll(List<Supplier<T>> tasks) {
+        if (!admission.tryAcquire(tasks.size())) {
+            LogUtils.logWarning("Log upload executor saturated, rejecting " + tasks.size() + " task(s)");
+            return null;
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            try {
+                futures.add(CompletableFuture.supplyAsync(task, executor)
+                        .whenComplete((result, error) -> admission.release()));
+            } catch (RejectedExecutionException e) {
+                admission.release();
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Formats the current executor utilisation for display.
+     *
+     * @return Human-readable executor statistics
+     */
+    public String describe() {
+        return "**Active:** " + executor.getActiveCount() + " / " + executor.getMaximumPoolSize()
+                + "\n**Queued:** " + executor.getQueue().size()
+                + "\n**Free slots:** " + admission.availablePermits() + " / " + capacity;
+    }
+
+    /**
+     * Stops accepting new work and lets queued tasks finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
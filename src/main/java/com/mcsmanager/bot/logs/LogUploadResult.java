@@ -0,0 +1,84 @@
+package com.mcsmanager.bot.logs;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of processing a single log through the upload pipeline.
+ *
+ * @author SkyKing_PX
+ */
+public class LogUploadResult {
+    /** Original file name of the log */
+    private final String fileName;
+    /** URL of the paste */
+    private final String url;
+    /** Whether the URL came from the upload cache */
+    private final boolean cached;
+    /** Known failures recognised in the log */
+    private final List<ErrorSignature> signatures;
+    /** Number of sensitive values redacted before upload */
+    private final int redactions;
+    /** Last error block at the end of the log, or null */
+    private final String excerpt;
+    /** Whether only the beginning and end of the log were uploaded */
+    private final boolean sampled;
+    /** Crash signatures of the stack traces in the log */
+    private final List<CrashSignature> crashes;
+    /** Environment facts found in the log */
+    private final Map<EnvironmentTap.Fact, String> environment;
+
+    /**
+     * Creates a new result.
+     *
+     * @param fileName Original file name of the log
+     * @param url URL of the paste
+     * @param cached Whether the URL came from the upload cache
+     * @param signatures Known failures recognised in the log
+     * @param redactions Number of sensitive values redacted before upload
+     * @param excerpt Last error block at the end of the log, or null
+     * @param sampled Whether only the beginning and end of the log were uploaded
+     * @param crashes Crash signatures of the stack traces in the log
+     * @param environment Environment facts found in the log
+     */
+    public LogUploadResult(String fileName, String url, boolean cached, List<ErrorSignature> signatures, int redactions,
+                           String excerpt, boolean sampled, List<CrashSignature> crashes,
+                           Map<EnvironmentTap.Fact, String> environment) {
+        this.fileName = fileName;
+        this.url = url;
+        this.cached = cached;
+        this.signatures = signatures;
+        this.redactions = redactions;
+        this.excerpt = excerpt;
+        this.sampled = sampled;
+        this.crashes = crashes;
+        this.environment = environment;
+    }
+
+    /** @return Original file name of the log */
+    public String getFileName() { return fileName; }
+
+    /** @return URL of the paste */
+    public String getUrl() { return url; }
+
+    /** @return Whether the URL came from the upload cache */
+    public boolean isCached() { return cached; }
+
+    /** @return Known failures recognised in the log */
+    public List<ErrorSignature> getSignatures() { return signatures; }
+
+    /** @return Number of sensitive values redacted before upload */
+    public int getRedactions() { return redactions; }
+
+    /** @return Last error block at the end of the log, or null */
+    public String getExcerpt() { return excerpt; }
+
+    /** @return Whether only the beginning and end of the log were uploaded */
+    public boolean isSampled() { return sampled; }
+
+    /** @return Crash signatures of the stack traces in the log */
+    public List<CrashSignature> getCrashes() { return crashes; }
+
+    /** @return Environment facts found in the log */
+    public Map<EnvironmentTap.Fact, String> getEnvironment() { return environment; }
+}
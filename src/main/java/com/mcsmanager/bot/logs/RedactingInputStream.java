@@ -0,0 +1,234 @@
+package com.mcsmanager.bot.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Input stream that removes sensitive values (API keys, tokens, IPs, emails …) from a UTF-8 log on the fly.
+ * The log is processed chunk by chunk. A bounded window of text is held back at the end of each chunk
+ * so that matches crossing a chunk border are still found, and a bounded amount of already emitted text
+ * is kept as context so that look-behind assertions work across borders. Memory use is therefore
+ * constant, but a single match can be at most {@code window} characters long.
+ *
+ * @author SkyKing_PX
+ */
+public class RedactingInputStream extends InputStream {
+
+    /** Number of characters decoded per chunk */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** Decoder of the source stream */
+    private final Reader source;
+    /** Compiled rules, applied leftmost-first */
+    private final List<Rule> rules;
+    /** Maximum length of a match and amount of context kept for look-behind */
+    private final int window;
+
+    /** Already emitted text kept as context, followed by text not yet emitted */
+    private final StringBuilder text = new StringBuilder();
+    /** Length of the context prefix in {@link #text} */
+    private int contextLength;
+    /** Decode buffer */
+    private final char[] chunk = new char[CHUNK_SIZE];
+    /** Whether the source is exhausted */
+    private boolean eof;
+
+    /** Encoded output waiting to be read */
+    private byte[] output = new byte[0];
+    /** Read position in {@link #output} */
+    private int outputPosition;
+
+    /** Number of values redacted so far */
+    private int redactions;
+
+    /**
+     * Creates a new redacting stream.
+     *
+     * @param in The UTF-8 source stream
+     * @param rules The rules to apply
+     * @param window Maximum match length and look-behind context in characters
+     */
+    public RedactingInputStream(InputStream in, List<Rule> rules, int window) {
+        this.source = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.rules = rules;
+        this.window = Math.max(16, window);
+    }
+
+    /**
+     * Gets the number of values redacted so far. Final once the stream is exhausted.
+     *
+     * @return Number of redactions
+     */
+    public int getRedactionCount() {
+        return redactions;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        while (outputPosition >= output.length) {
+            if (eof && text.length() == contextLength) {
+                return -1;
+            }
+            fill();
+        }
+        int count = Math.min(len, output.length - outputPosition);
+        System.arraycopy(output, outputPosition, b, off, count);
+        outputPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Decodes the next chunk, redacts everything that can no longer be part of an unfinished match
+     * and encodes it into the output buffer.
+     *
+     * @throws IOException If the source fails
+     */
+    private void fill() throws IOException {
+        int read = source.read(chunk);
+        if (read == -1) {
+            eof = true;
+        } else {
+            text.append(chunk, 0, read);
+        }
+
+        // Everything but the last window characters is safe to emit, unless the source is done
+        int limit = eof ? text.length() : Math.max(contextLength, text.length() - window);
+        if (!eof && limit > contextLength && Character.isHighSurrogate(text.charAt(limit - 1))) {
+            limit--;
+        }
+
+        // One matcher per rule; a matcher is only searched again once the position has passed its match
+        Matcher[] matchers = new Matcher[rules.size()];
+        boolean[] found = new boolean[rules.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = rules.get(i).pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false);
+            found[i] = find(matchers[i], contextLength);
+        }
+
+        StringBuilder emitted = new StringBuilder();
+        int position = contextLength;
+        while (position < limit) {
+            int best = -1;
+            for (int i = 0; i < matchers.length; i++) {
+                if (found[i] && matchers[i].start() < position) {
+                    found[i] = find(matchers[i], position);
+                }
+                if (found[i] && matchers[i].start() < limit && (best == -1 || matchers[i].start() < matchers[best].start())) {
+                    best = i;
+                }
+            }
+            if (best == -1) {
+                break;
+            }
+            Matcher match = matchers[best];
+            emitted.append(text, position, match.start());
+            emitted.append(expand(rules.get(best).replacement, match));
+            redactions++;
+            position = match.end();
+        }
+        // A match may have run past the limit; it is complete, so emit up to its end
+        int emitEnd = Math.max(position, limit);
+        if (position < emitEnd) {
+            emitted.append(text, position, emitEnd);
+        }
+
+        // Keep at most one window of emitted text as look-behind context
+        int contextStart = Math.max(0, emitEnd - window);
+        text.delete(0, contextStart);
+        contextLength = emitEnd - contextStart;
+
+        output = emitted.toString().getBytes(StandardCharsets.UTF_8);
+        outputPosition = 0;
+    }
+
+    /**
+     * Finds the next non-empty match at or after a position.
+     *
+     * @param matcher The matcher over {@link #text}
+     * @param from Position to search from
+     * @return Whether a match was found
+     */
+    private boolean find(Matcher matcher, int from) {
+        matcher.region(from, text.length());
+        while (matcher.find()) {
+            if (matcher.end() > matcher.start()) {
+                return true;
+            }
+            if (matcher.end() >= text.length()) {
+                return false;
+            }
+            matcher.region(matcher.end() + 1, text.length());
+        }
+        return false;
+    }
+
+    /**
+     * Expands {@code $n} group references in a replacement.
+     *
+     * @param replacement The replacement template
+     * @param matcher The matcher positioned on the match
+     * @return The expanded replacement
+     */
+    private static String expand(String replacement, Matcher matcher) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < replacement.length(); i++) {
+            char c = replacement.charAt(i);
+            if (c == '$' && i + 1 < replacement.length() && Character.isDigit(replacement.charAt(i + 1))) {
+                int group = replacement.charAt(++i) - '0';
+                if (group <= matcher.groupCount() && matcher.group(group) != null) {
+                    result.append(matcher.group(group));
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * A compiled redaction rule.
+     */
+    public static class Rule {
+        /** Name of the rule, for logging */
+        private final String name;
+        /** Pattern finding the sensitive value */
+        private final Pattern pattern;
+        /** Replacement template, may reference groups with {@code $n} */
+        private final String replacement;
+
+        /**
+         * Creates a new rule.
+         *
+         * @param name Name of the rule
+         * @param pattern Pattern finding the sensitive value
+         * @param replacement Replacement template, may reference groups with {@code $n}
+         */
+        public Rule(String name, Pattern pattern, String replacement) {
+            this.name = name;
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+
+        /** @return Name of the rule */
+        public String getName() { return name; }
+    }
+}
@@ -0,0 +1,146 @@
+package com.mcsmanager.bot.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Input stream that shortens logs above the paste size limit to their beginning and end.
+ * Everything up to the limit minus the tail is passed through as it arrives. Only the remainder is held
+ * back, in a ring buffer the size of the tail: if the log ends within the limit it is emitted unchanged,
+ * otherwise only its end is emitted after a truncation marker. Memory use is therefore bounded by the tail
+ * size, however large the log is. Since the source is read only once, the beginning of an oversized log
+ * covers everything that fits before the tail.
+ *
+ * @author SkyKing_PX
+ */
+public class SamplingInputStream extends InputStream {
+
+    /** Read buffer size */
+    private static final int BUFFER_SIZE = 8192;
+    /** Space reserved for the truncation marker, so a shortened log never exceeds the limit */
+    private static final int MARKER_RESERVE = marker(Long.MAX_VALUE).getBytes(StandardCharsets.UTF_8).length;
+
+    /** The source */
+    private final InputStream in;
+    /** Number of trailing bytes kept for oversized logs */
+    private final int tailBytes;
+    /** Number of leading bytes passed through before anything is held back */
+    private final long passThroughBytes;
+    /** Number of bytes after the passed-through part that still fit within the limit */
+    private final int heldBytes;
+
+    /** Number of bytes passed through so far */
+    private long passed;
+    /** Output following the passed-through part, built once the source is exhausted */
+    private byte[] trailer;
+    /** Read position in {@link #trailer} */
+    private int trailerPosition;
+    /** Number of bytes left out */
+    private long omitted;
+
+    /**
+     * Creates a new sampling stream.
+     *
+     * @param in The source
+     * @param tailBytes Number of trailing bytes kept for oversized logs
+     * @param maxBytes Maximum size of a log that is emitted unchanged
+     */
+    public SamplingInputStream(InputStream in, int tailBytes, long maxBytes) {
+        this.in = in;
+        this.tailBytes = tailBytes;
+        this.heldBytes = (int) Math.min(maxBytes, (long) tailBytes + MARKER_RESERVE);
+        this.passThroughBytes = maxBytes - heldBytes;
+    }
+
+    /**
+     * Builds the marker inserted where a log was shortened.
+     *
+     * @param omitted Number of bytes left out
+     * @return The marker text
+     */
+    public static String marker(long omitted) {
+        return String.format(Locale.ROOT,
+                "%n%n[… %.1f MiB omitted – the log was too large, only its beginning and end were uploaded …]%n%n",
+                omitted / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Gets the number of bytes left out. Final once the stream is exhausted.
+     *
+     * @return Number of omitted bytes, 0 if the log was emitted unchanged
+     */
+    public long getOmittedBytes() {
+        return omitted;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (passed < passThroughBytes && trailer == null) {
+            int read = in.read(b, off, (int) Math.min(len, passThroughBytes - passed));
+            if (read == -1) {
+                trailer = new byte[0];
+                return -1;
+            }
+            passed += read;
+            return read;
+        }
+        if (trailer == null) {
+            trailer = drainRest();
+        }
+        if (trailerPosition >= trailer.length) {
+            return -1;
+        }
+        int count = Math.min(len, trailer.length - trailerPosition);
+        System.arraycopy(trailer, trailerPosition, b, off, count);
+        trailerPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the source to its end and builds everything that follows the passed-through part.
+     *
+     * @return The rest of the log, or a marker followed by its tail
+     * @throws IOException If the source fails
+     */
+    private byte[] drainRest() throws IOException {
+        TailTap held = new TailTap(heldBytes);
+        long rest = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            rest += read;
+            held.accept(buffer, 0, read);
+        }
+        if (!held.isTruncated()) {
+            return held.getTail();
+        }
+
+        // Over the limit: keep the end, starting at a line boundary
+        byte[] kept = held.getTail();
+        int start = Math.max(0, kept.length - tailBytes);
+        while (start < kept.length && kept[start] != '\n') start++;
+        start = Math.min(start + 1, kept.length);
+        omitted = rest - (kept.length - start);
+
+        byte[] marker = marker(omitted).getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[marker.length + kept.length - start];
+        System.arraycopy(marker, 0, result, 0, marker.length);
+        System.arraycopy(kept, start, result, marker.length, kept.length - start);
+        return result;
+    }
+}
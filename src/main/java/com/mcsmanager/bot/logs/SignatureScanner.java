@@ -0,0 +1,329 @@
+package com.mcsmanager.bot.logs;
+
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.util.LogUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recognises known failure messages in logs with an Aho-Corasick automaton.
+ * The automaton is built once from the signature file and shared; each scanned log gets its own
+ * {@link Session}, which is a {@link LogTap} and therefore runs in the same pass as the upload.
+ * Scanning is linear in the size of the log, independent of the number of signatures.
+ * Matching is ASCII case-insensitive.
+ *
+ * @author SkyKing_PX
+ */
+public class SignatureScanner {
+
+    /** Singleton instance, rebuilt on reload */
+    private static volatile SignatureScanner instance;
+
+    /** Signatures in index order */
+    private final List<ErrorSignature> signatures;
+    /** Sorted transition bytes per state */
+    private final byte[][] edgeKeys;
+    /** Transition targets per state, parallel to {@link #edgeKeys} */
+    private final int[][] edgeTargets;
+    /** Failure link per state */
+    private final int[] fail;
+    /** Signature indices ending in each state */
+    private final int[][] outputs;
+    /** Nearest state along the failure chain that has outputs, or -1 */
+    private final int[] dictLink;
+
+    /**
+     * Gets the shared scanner, loading the signature file on first use.
+     *
+     * @return The scanner instance
+     */
+    public static SignatureScanner get() {
+        if (instance == null) {
+            synchronized (SignatureScanner.class) {
+                if (instance == null) {
+                    instance = load();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuilds the scanner from the signature file.
+     */
+    public static void reload() {
+        instance = load();
+    }
+
+    /**
+     * Loads the signature file, creating a default one if none exists.
+     * Falls back to an empty scanner if the file cannot be read.
+     *
+     * @return The loaded scanner
+     */
+    private static SignatureScanner load() {
+        try {
+            Path path = Paths.get(Config.get().getLogUpload().getSignatureFile());
+            if (Files.notExists(path)) {
+                createDefaultSignatures(path);
+            }
+            try (InputStream input = Files.newInputStream(path)) {
+                Yaml yaml = new Yaml(new Constructor(SignatureFile.class, new LoaderOptions()));
+                SignatureFile file = yaml.loadAs(input, SignatureFile.class);
+                List<ErrorSignature> loaded = file != null && file.getSignatures() != null ? file.getSignatures() : List.of();
+                LogUtils.logInfo("Loaded " + loaded.size() + " log signatures from " + path);
+                return new SignatureScanner(loaded);
+            }
+        } catch (Exception e) {
+            LogUtils.logException("Error loading log signatures", e);
+            return new SignatureScanner(List.of());
+        }
+    }
+
+    /**
+     * Builds the automaton for the given signatures.
+     *
+     * @param signatures The signatures to recognise
+     */
+    public SignatureScanner(List<ErrorSignature> signatures) {
+        this.signatures = List.copyOf(signatures);
+
+        // 1) build the trie
+        List<TreeMap<Byte, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(new ArrayList<>());
+        for (int index = 0; index < this.signatures.size(); index++) {
+            List<String> patterns = this.signatures.get(index).getPatterns();
+            if (patterns == null) continue;
+            for (String pattern : patterns) {
+                if (pattern == null || pattern.isEmpty()) continue;
+                int state = 0;
+                for (byte b : pattern.getBytes(StandardCharsets.UTF_8)) {
+                    byte folded = fold(b);
+                    Integer next = trie.get(state).get(folded);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        terminal.add(new ArrayList<>());
+                        trie.get(state).put(folded, next);
+                    }
+                    state = next;
+                }
+                terminal.get(state).add(index);
+            }
+        }
+
+        int size = trie.size();
+        edgeKeys = new byte[size][];
+        edgeTargets = new int[size][];
+        outputs = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Byte, Integer> edges = trie.get(state);
+            edgeKeys[state] = new byte[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Byte, Integer> edge : edges.entrySet()) {
+                edgeKeys[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+            outputs[state] = terminal.get(state).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        // 2) breadth-first computation of failure and dictionary links
+        fail = new int[size];
+        dictLink = new int[size];
+        Arrays.fill(dictLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeKeys[state].length; i++) {
+                byte key = edgeKeys[state][i];
+                int child = edgeTargets[state][i];
+                int candidate = fail[state];
+                while (candidate != 0 && transition(candidate, key) == -1) {
+                    candidate = fail[candidate];
+                }
+                int target = transition(candidate, key);
+                fail[child] = target != -1 && target != child ? target : 0;
+                dictLink[child] = outputs[fail[child]].length > 0 ? fail[child] : dictLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Starts scanning a new log.
+     *
+     * @return A fresh scan session
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * Gets the number of loaded signatures.
+     *
+     * @return Number of signatures
+     */
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Finds a signature by its identifier.
+     *
+     * @param id The signature identifier
+     * @return The signature, or null if unknown
+     */
+    public ErrorSignature findById(String id) {
+        return signatures.stream().filter(signature -> id.equals(signature.getId())).findFirst().orElse(null);
+    }
+
+    private int transition(int state, byte key) {
+        byte[] keys = edgeKeys[state];
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) low = mid + 1;
+            else if (keys[mid] > key) high = mid - 1;
+            else return edgeTargets[state][mid];
+        }
+        return -1;
+    }
+
+    private static byte fold(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * State of a single scan. Not thread-safe; use one session per log.
+     */
+    public class Session implements LogTap {
+        /** Current automaton state */
+        private int state;
+        /** Indices of matched signatures */
+        private final BitSet matched = new BitSet();
+        /** States whose outputs (and dictionary chain) were already reported */
+        private final BitSet reported = new BitSet();
+
+        @Override
+        public void accept(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                byte key = fold(buffer[i]);
+                int next = transition(state, key);
+                while (next == -1 && state != 0) {
+                    state = fail[state];
+                    next = transition(state, key);
+                }
+                state = next == -1 ? 0 : next;
+
+                // Each output state is reported at most once, which keeps the scan linear
+                int out = outputs[state].length > 0 ? state : dictLink[state];
+                while (out != -1 && !reported.get(out)) {
+                    reported.set(out);
+                    for (int signature : outputs[out]) {
+                        matched.set(signature);
+                    }
+                    out = dictLink[out];
+                }
+            }
+        }
+
+        /**
+         * Gets the signatures matched so far.
+         *
+         * @return Matched signatures in signature file order
+         */
+        public List<ErrorSignature> getMatches() {
+            List<ErrorSignature> result = new ArrayList<>();
+            matched.stream().forEach(index -> result.add(signatures.get(index)));
+            return result;
+        }
+    }
+
+    /**
+     * Creates the default signature file with common MCSManager and daemon failures.
+     *
+     * @param path Where to write the file
+     * @throws IOException If there is an error writing the file
+     */
+    private static void createDefaultSignatures(Path path) throws IOException {
+        String defaultSignatures = """
+            signatures:
+              - id: "port-in-use"
+                title: "Port already in use"
+                patterns: ["EADDRINUSE", "Address already in use", "FAILED TO BIND TO PORT"]
+                fix: "Another process is already using this port. Stop the other instance or change the port in the instance / panel settings."
+              - id: "java-not-found"
+                title: "Java not found"
+                patterns: ["spawn java ENOENT", "java: command not found", "'java' is not recognized", "Cannot run program \\"java\\""]
+                fix: "Java is not installed or not on the PATH of the daemon. Install Java and set the full path to the Java executable in the instance settings."
+              - id: "permission-denied"
+                title: "Permission denied"
+                patterns: ["EACCES", "Permission denied", "Access is denied", "EPERM"]
+                fix: "The daemon cannot access a file or port. Check the file ownership of the instance directory and run the daemon as the correct user."
+              - id: "unsupported-class-version"
+                title: "Java version too old"
+                patterns: ["UnsupportedClassVersionError"]
+                fix: "The server requires a newer Java version than the one configured. Install a matching Java version and select it in the instance settings."
+              - id: "eula"
+                title: "EULA not accepted"
+                patterns: ["You need to agree to the EULA"]
+                fix: "Set `eula=true` in the `eula.txt` file of the instance and restart it."
+              - id: "out-of-memory"
+                title: "Out of memory"
+                patterns: ["java.lang.OutOfMemoryError", "JavaScript heap out of memory"]
+                fix: "The process ran out of memory. Increase the memory limit (-Xmx / instance memory) or reduce the load."
+              - id: "daemon-unreachable"
+                title: "Daemon unreachable"
+                patterns: ["ECONNREFUSED", "ETIMEDOUT", "socket hang up"]
+                fix: "The panel cannot reach the daemon. Make sure the daemon is running, its port is open in the firewall and the address in the panel is correct."
+            """;
+
+        Files.writeString(path, defaultSignatures);
+        LogUtils.logConfig("Created default log signature file at: " + path.toAbsolutePath());
+    }
+
+    /**
+     * Root of the signature file for SnakeYAML deserialization.
+     */
+    public static class SignatureFile {
+        /** The configured signatures */
+        private List<ErrorSignature> signatures;
+
+        /**
+         * Default constructor for SnakeYAML deserialization.
+         */
+        public SignatureFile() {
+            // Constructor for SnakeYAML
+        }
+
+        /** @return The configured signatures */
+        public List<ErrorSignature> getSignatures() { return signatures; }
+        /** @param signatures Signatures to set */
+        public void setSignatures(List<ErrorSignature> signatures) { this.signatures = signatures; }
+    }
+}
@@ -0,0 +1,227 @@
+package com.mcsmanager.bot.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log tap extracting Java and Node.js stack traces while a log streams through the upload pipeline.
+ * Lines are split out of the byte stream with two reusable buffers (the current and the previous line),
+ * and only lines that look like a frame, or the line right before the first frame, are decoded.
+ * Each trace is normalised into a {@link CrashSignature}: exception messages are dropped, and line numbers,
+ * addresses, generated class numbers and user paths are stripped from the frames.
+ *
+ * @author SkyKing_PX
+ */
+public class StackTraceTap implements LogTap {
+
+    /** Prefix of frames marking the exception type of a cause */
+    public static final String CAUSE_PREFIX = "caused by ";
+
+    /** Maximum number of bytes kept per line, the rest of longer lines is ignored */
+    private static final int MAX_LINE_BYTES = 1024;
+    /** Maximum number of frames of the top exception that make up a signature */
+    private static final int MAX_FRAMES = 8;
+    /** Maximum number of frames per cause that make up a signature */
+    private static final int MAX_CAUSE_FRAMES = 4;
+    /** Maximum number of frames of a signature in total */
+    private static final int MAX_TOTAL_FRAMES = 24;
+    /** Maximum number of distinct signatures collected per log */
+    private static final int MAX_SIGNATURES = 20;
+
+    /** Exception type in a header or cause line, e.g. {@code java.lang.IllegalStateException} or {@code TypeError} */
+    private static final Pattern EXCEPTION_TYPE = Pattern.compile("((?:[A-Za-z_$][\\w$]*\\.)*[A-Z][\\w$]*(?:Exception|Error|Throwable|Failure))\\b");
+    /** Java frame: {@code at pkg.Class.method(File.java:12)}, optionally followed by jar information */
+    private static final Pattern JAVA_FRAME = Pattern.compile("^\\s*at\\s+([^\\s(]+)\\(.*$");
+    /** Node.js frame: {@code at fn (/path/file.js:1:2)}, {@code at /path/file.js:1:2} or {@code at async Promise.all (index 0)} */
+    private static final Pattern NODE_FRAME = Pattern.compile("^\\s*at\\s+(?:(.+?)\\s+\\()?(.+?:\\d+:\\d+|native|<anonymous>|index \\d+)\\)?\\s*$");
+    /** Lambda classes, e.g. {@code $$Lambda$123/0x0000000800c4b440} */
+    private static final Pattern LAMBDA = Pattern.compile("\\$\\$Lambda(?:\\$\\d+)?/(?:0x)?[0-9a-fA-F]+");
+    /** Numbered generated classes, e.g. {@code GeneratedMethodAccessor12} or {@code $Proxy34} */
+    private static final Pattern GENERATED = Pattern.compile("(GeneratedMethodAccessor|GeneratedConstructorAccessor|GeneratedSerializationConstructorAccessor|\\$Proxy)\\d+");
+    /** Memory addresses and identity hash codes */
+    private static final Pattern ADDRESS = Pattern.compile("0x[0-9a-fA-F]+|@[0-9a-fA-F]{6,}");
+    /** Line and column numbers of Node.js locations */
+    private static final Pattern LOCATION = Pattern.compile("(?::\\d+)+$");
+
+    /** Bytes of the current line */
+    private byte[] line = new byte[MAX_LINE_BYTES];
+    /** Number of bytes in {@link #line} */
+    private int lineLength;
+    /** Bytes of the previous line, the header candidate of a trace */
+    private byte[] previous = new byte[MAX_LINE_BYTES];
+    /** Number of bytes in {@link #previous} */
+    private int previousLength;
+
+    /** Exception type of the trace being read, or null outside of a trace */
+    private String exception;
+    /** Normalised frames of the trace being read */
+    private final List<String> frames = new ArrayList<>();
+    /** Number of frames of the current exception or cause */
+    private int sectionFrames;
+    /** Frame limit of the current exception or cause */
+    private int sectionLimit;
+    /** Whether frames of a suppressed exception are being skipped */
+    private boolean suppressed;
+
+    /** Signatures found so far by identifier, in order of appearance */
+    private final Map<String, CrashSignature> signatures = new LinkedHashMap<>();
+
+    @Override
+    public void accept(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                endLine();
+            } else if (lineLength < MAX_LINE_BYTES) {
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (lineLength > 0) {
+            endLine();
+        }
+        completeTrace();
+    }
+
+    /**
+     * Gets the signatures of the traces found in the log.
+     *
+     * @return Distinct signatures in order of appearance
+     */
+    public List<CrashSignature> getSignatures() {
+        return List.copyOf(signatures.values());
+    }
+
+    private void endLine() {
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        processLine();
+
+        // Swap buffers, the current line becomes the header candidate of the next one
+        byte[] swap = previous;
+        previous = line;
+        previousLength = lineLength;
+        line = swap;
+        lineLength = 0;
+    }
+
+    private void processLine() {
+        int start = 0;
+        while (start < lineLength && (line[start] == ' ' || line[start] == '\t')) start++;
+
+        if (startsWith(start, "at ")) {
+            String text = decode(line, lineLength);
+            String frame = normaliseFrame(text);
+            if (frame == null) return;
+            if (exception == null) {
+                String type = exceptionType(decode(previous, previousLength));
+                if (type == null) return;
+                exception = type;
+                sectionLimit = MAX_FRAMES;
+            }
+            if (!suppressed && sectionFrames < sectionLimit && frames.size() < MAX_TOTAL_FRAMES) {
+                frames.add(frame);
+                sectionFrames++;
+            }
+        } else if (exception != null && startsWith(start, "Caused by:")) {
+            // Causes of suppressed exceptions are indented, causes of the trace itself are not
+            if (suppressed && start > 0) return;
+            suppressed = false;
+            String type = exceptionType(decode(line, lineLength).substring(start + "Caused by:".length()));
+            if (frames.size() < MAX_TOTAL_FRAMES) {
+                frames.add(CAUSE_PREFIX + (type != null ? type : "?"));
+            }
+            sectionFrames = 0;
+            sectionLimit = MAX_CAUSE_FRAMES;
+        } else if (exception != null && startsWith(start, "Suppressed:")) {
+            suppressed = true;
+        } else if (exception == null || !startsWith(start, "...")) {
+            completeTrace();
+        }
+    }
+
+    private void completeTrace() {
+        if (exception != null && !frames.isEmpty() && signatures.size() < MAX_SIGNATURES) {
+            CrashSignature signature = new CrashSignature(exception, frames);
+            signatures.putIfAbsent(signature.getId(), signature);
+        }
+        exception = null;
+        frames.clear();
+        sectionFrames = 0;
+        suppressed = false;
+    }
+
+    private boolean startsWith(int start, String prefix) {
+        if (lineLength - start < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[start + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static String decode(byte[] bytes, int length) {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the exception type in a header or cause line.
+     *
+     * @param text The line
+     * @return The exception type, or null if the line names none
+     */
+    static String exceptionType(String text) {
+        Matcher matcher = EXCEPTION_TYPE.matcher(text);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Normalises a frame line into the part that is the same on every machine.
+     * Java frames keep the fully qualified method without module, class loader, file and line.
+     * Node.js frames keep the function and the file below {@code node_modules}, or the last two
+     * path segments for application files, so install locations and user names drop out.
+     *
+     * @param text The frame line
+     * @return The normalised frame, or null if the line is not a frame
+     */
+    static String normaliseFrame(String text) {
+        Matcher java = JAVA_FRAME.matcher(text);
+        if (java.matches()) {
+            String method = LAMBDA.matcher(java.group(1)).replaceAll("\\$\\$Lambda");
+            method = method.substring(method.lastIndexOf('/') + 1);
+            method = GENERATED.matcher(method).replaceAll("$1");
+            return ADDRESS.matcher(method).replaceAll("");
+        }
+
+        Matcher node = NODE_FRAME.matcher(text);
+        if (node.matches()) {
+            String function = node.group(1) != null ? node.group(1).replaceFirst("^async ", "") : "<anonymous>";
+            String path = LOCATION.matcher(node.group(2)).replaceAll("").replace('\\', '/');
+            if (path.startsWith("index ")) {
+                path = "index";
+            }
+            if (path.startsWith("file://")) {
+                path = path.substring("file://".length());
+            }
+            int modules = path.lastIndexOf("node_modules/");
+            if (modules >= 0) {
+                path = path.substring(modules);
+            } else if (!path.startsWith("node:")) {
+                int last = path.lastIndexOf('/');
+                int parent = last > 0 ? path.lastIndexOf('/', last - 1) : -1;
+                path = path.substring(parent + 1);
+            }
+            return ADDRESS.matcher(function).replaceAll("") + " " + path;
+        }
+        return null;
+    }
+}
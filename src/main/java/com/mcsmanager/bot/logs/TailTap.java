@@ -0,0 +1,62 @@
+package com.mcsmanager.bot.logs;
+
+/**
+ * Log tap remembering the last bytes of a log in a ring buffer.
+ * Used where the log can only be read front to back, e.g. inside archives.
+ *
+ * @author SkyKing_PX
+ */
+public class TailTap implements LogTap {
+
+    /** Ring buffer holding the most recent bytes */
+    private final byte[] ring;
+    /** Total number of bytes seen */
+    private long total;
+
+    /**
+     * Creates a new tail tap.
+     *
+     * @param capacity Number of trailing bytes to keep
+     */
+    public TailTap(int capacity) {
+        this.ring = new byte[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void accept(byte[] buffer, int offset, int length) {
+        // Only the last ring.length bytes of a large write can survive
+        int skip = Math.max(0, length - ring.length);
+        total += skip;
+        for (int i = offset + skip; i < offset + length; ) {
+            int position = (int) (total % ring.length);
+            int count = Math.min(offset + length - i, ring.length - position);
+            System.arraycopy(buffer, i, ring, position, count);
+            i += count;
+            total += count;
+        }
+    }
+
+    /**
+     * Gets the remembered bytes in log order.
+     *
+     * @return Up to the configured number of trailing bytes
+     */
+    public byte[] getTail() {
+        int size = (int) Math.min(total, ring.length);
+        byte[] tail = new byte[size];
+        int start = (int) ((total - size) % ring.length);
+        int first = Math.min(size, ring.length - start);
+        System.arraycopy(ring, start, tail, 0, first);
+        System.arraycopy(ring, 0, tail, first, size - first);
+        return tail;
+    }
+
+    /**
+     * Checks whether the beginning of the log was dropped.
+     *
+     * @return Whether the log was longer than the ring buffer
+     */
+    public boolean isTruncated() {
+        return total > ring.length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mcsmanager.bot.logs;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Input stream that passes every byte read through to a set of {@link LogTap}s.
+ * The taps are finished exactly once when the end of the stream is reached.
+ *
+ * @author SkyKing_PX
+ */
+public class TappedInputStream extends FilterInputStream {
+
+    /** Taps receiving the bytes */
+    private final List<LogTap> taps;
+    /** Whether the taps have already been finished */
+    private boolean finished;
+
+    /**
+     * Creates a new tapped stream.
+     *
+     * @param in The source stream
+     * @param taps The taps to feed
+     */
+    public TappedInputStream(InputStream in, List<LogTap> taps) {
+        super(in);
+        this.taps = taps;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            finish();
+        } else {
+            byte[] single = {(byte) b};
+            for (LogTap tap : taps) {
+                tap.accept(single, 0, 1);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read == -1) {
+            finish();
+        } else if (read > 0) {
+            for (LogTap tap : taps) {
+                tap.accept(b, off, read);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipping would hide bytes from the taps, so read them instead
+        byte[] discard = new byte[(int) Math.min(n, 8192)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(discard, 0, (int) Math.min(remaining, discard.length));
+            if (read == -1) break;
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void finish() {
+        if (finished) return;
+        finished = true;
+        for (LogTap tap : taps) {
+            tap.finish();
+        }
+    }
+}
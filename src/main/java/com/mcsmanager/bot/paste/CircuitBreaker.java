@@ -0,0 +1,129 @@
+package com.mcsmanager.bot.paste;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker protecting a remote service.
+ * After a number of consecutive failures the breaker opens and calls fail fast for a cool-down period.
+ * Afterwards a single trial call is let through (half-open): success closes the breaker, failure opens it again.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class CircuitBreaker {
+
+    /**
+     * State of the breaker.
+     */
+    public enum State {
+        /** Calls pass through */
+        CLOSED,
+        /** Calls fail fast */
+        OPEN,
+        /** The cool-down is over and a single trial call is let through */
+        HALF_OPEN
+    }
+
+    /** Consecutive failures that open the breaker */
+    private final int failureThreshold;
+    /** Time the breaker stays open */
+    private final Duration openDuration;
+
+    /** Current state */
+    private State state = State.CLOSED;
+    /** Consecutive failures while closed */
+    private int consecutiveFailures;
+    /** Time the breaker was opened */
+    private Instant openedAt;
+    /** Whether the trial call of the half-open breaker is in flight */
+    private boolean trialInFlight;
+
+    /**
+     * Creates a new, closed breaker.
+     *
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openDuration Time the breaker stays open
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Asks for permission to make a call.
+     *
+     * @return Whether the call may be made; false while open or while a trial call is in flight
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (Instant.now().isBefore(openedAt.plus(openDuration))) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Records a call that reached the service.
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a call that failed because the service is unavailable.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = Instant.now();
+            consecutiveFailures = 0;
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a call that ended without telling anything about the service, e.g. because it was
+     * cancelled or its input failed. A trial call is given back, so the next call may try again.
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return The state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the time until the next trial call is allowed.
+     *
+     * @return Remaining cool-down, zero unless open
+     */
+    public synchronized Duration getRemainingOpen() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), openedAt.plus(openDuration));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
@@ -0,0 +1,328 @@
+package com.mcsmanager.bot.paste;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.util.LogUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal self-hosted paste server storing pastes as files.
+ * Implements the subset of the mclo.gs API used by the bot, so {@link MclogsPasteService} can talk to it unchanged:
+ * <ul>
+ *     <li>{@code POST /1/log} with form field {@code content} creates a paste</li>
+ *     <li>{@code GET /1/raw/<id>} and {@code GET /<id>} return its content</li>
+ * </ul>
+ * Uploads are decoded and written to disk while they are received, so memory use does not depend on paste size.
+ * Can be run standalone for integration and load tests: {@code java -cp bot.jar com.mcsmanager.bot.paste.LocalPasteServer [port] [directory]}
+ *
+ * @author SkyKing_PX
+ */
+public final class LocalPasteServer implements Closeable {
+
+    /** Characters used for paste identifiers */
+    private static final String ID_ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    /** Length of paste identifiers */
+    private static final int ID_LENGTH = 7;
+    /** Valid paste identifiers */
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9]{" + ID_LENGTH + "}");
+    /** JSON mapper for API responses */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Directory holding the pastes */
+    private final Path directory;
+    /** Base URL under which the server is reachable */
+    private final String publicUrl;
+    /** Maximum size of a paste in bytes */
+    private final long maxBytes;
+    /** The HTTP server */
+    private final HttpServer server;
+    /** Executor handling requests */
+    private final ExecutorService handlers;
+    /** Source of paste identifiers */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates and starts a paste server.
+     *
+     * @param bindAddress Address to listen on
+     * @param port Port to listen on, 0 for any free port
+     * @param directory Directory holding the pastes
+     * @param publicUrl Base URL under which the server is reachable, or null to derive it from the bound address
+     * @param maxBytes Maximum size of a paste in bytes
+     * @throws IOException If the server cannot be started
+     */
+    public LocalPasteServer(String bindAddress, int port, Path directory, String publicUrl, long maxBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+
+        String base = publicUrl != null && !publicUrl.isBlank() ? publicUrl : "http://" + getHost() + ":" + getPort();
+        this.publicUrl = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "LocalPasteServer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlers);
+        server.createContext("/1/log", this::handleCreate);
+        server.createContext("/1/raw/", exchange -> handleRaw(exchange, exchange.getRequestURI().getPath().substring("/1/raw/".length())));
+        server.createContext("/", exchange -> handleRaw(exchange, exchange.getRequestURI().getPath().substring(1)));
+        server.start();
+        LogUtils.logInfo("Local paste server listening on " + bindAddress + ":" + getPort() + ", storing pastes in " + this.directory.toAbsolutePath());
+    }
+
+    /**
+     * Creates a paste server from the configuration.
+     *
+     * @param settings The paste configuration
+     * @throws IOException If the server cannot be started
+     */
+    public LocalPasteServer(Config.Paste settings) throws IOException {
+        this(settings.getLocalBindAddress(), settings.getLocalPort(), Paths.get(settings.getLocalDirectory()),
+                settings.getLocalPublicUrl(), settings.getLocalMaxBytes());
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return The bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the endpoint for creating pastes, for use with {@link MclogsPasteService}.
+     *
+     * @return The create endpoint
+     */
+    public String getApiUrl() {
+        return "http://" + getHost() + ":" + getPort() + "/1/log";
+    }
+
+    private String getHost() {
+        InetSocketAddress address = server.getAddress();
+        return address.getAddress().isAnyLocalAddress() ? "localhost" : address.getHostString();
+    }
+
+    /**
+     * Handles {@code POST /1/log}.
+     *
+     * @param exchange The HTTP exchange
+     * @throws IOException If the response cannot be sent
+     */
+    private void handleCreate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("Method not allowed"));
+                return;
+            }
+
+            String id;
+            Path file;
+            OutputStream stream;
+            while (true) {
+                id = newId();
+                file = directory.resolve(id + ".log");
+                try {
+                    stream = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW);
+                    break;
+                } catch (FileAlreadyExistsException e) {
+                    // Claimed by a concurrent upload since the identifier was drawn, draw again
+                }
+            }
+
+            boolean stored;
+            try (InputStream body = new BufferedInputStream(exchange.getRequestBody());
+                 OutputStream out = new BufferedOutputStream(stream)) {
+                stored = copyField(body, "content", out);
+            } catch (PasteTooLargeException e) {
+                Files.deleteIfExists(file);
+                sendJson(exchange, 413, error("Log exceeds " + maxBytes + " bytes"));
+                return;
+            } catch (MalformedFormException e) {
+                Files.deleteIfExists(file);
+                sendJson(exchange, 400, error("Malformed form encoding."));
+                return;
+            } catch (IOException e) {
+                // E.g. the client went away mid-upload; do not keep a truncated paste
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            if (!stored) {
+                Files.deleteIfExists(file);
+                sendJson(exchange, 400, error("Required POST argument 'content' is empty."));
+                return;
+            }
+
+            ObjectNode response = MAPPER.createObjectNode();
+            response.put("success", true);
+            response.put("id", id);
+            response.put("url", publicUrl + "/" + id);
+            response.put("raw", publicUrl + "/1/raw/" + id);
+            sendJson(exchange, 200, response);
+        } catch (IOException e) {
+            LogUtils.logException("Error storing paste", e);
+        }
+    }
+
+    /**
+     * Handles {@code GET /1/raw/<id>} and {@code GET /<id>}.
+     *
+     * @param exchange The HTTP exchange
+     * @param id The requested paste identifier
+     * @throws IOException If the response cannot be sent
+     */
+    private void handleRaw(HttpExchange exchange, String id) throws IOException {
+        try (exchange) {
+            Path file = directory.resolve(id + ".log");
+            if (!"GET".equals(exchange.getRequestMethod()) || !ID_PATTERN.matcher(id).matches() || Files.notExists(file)) {
+                sendJson(exchange, 404, error("Log not found."));
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, Files.size(file));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(file, out);
+            }
+        }
+    }
+
+    /**
+     * Decodes a single field of an {@code application/x-www-form-urlencoded} body into the output.
+     * Other fields are skipped.
+     *
+     * @param body The request body
+     * @param field Name of the field to extract
+     * @param out Receives the decoded value
+     * @return Whether a non-empty value was found
+     * @throws IOException If reading or writing fails, the value exceeds the size limit or is malformed
+     */
+    private boolean copyField(InputStream body, String field, OutputStream out) throws IOException {
+        StringBuilder name = new StringBuilder();
+        boolean inValue = false;
+        boolean target = false;
+        long written = 0;
+        int b;
+        while ((b = body.read()) != -1) {
+            if (b == '&') {
+                if (target && written > 0) return true;
+                name.setLength(0);
+                inValue = false;
+                target = false;
+            } else if (!inValue) {
+                if (b == '=') {
+                    inValue = true;
+                    target = name.toString().equals(field);
+                } else if (name.length() < 64) {
+                    name.append((char) b);
+                }
+            } else if (target) {
+                int decoded = b == '+' ? ' ' : b;
+                if (b == '%') {
+                    int high = Character.digit(body.read(), 16);
+                    int low = Character.digit(body.read(), 16);
+                    if (high == -1 || low == -1) {
+                        throw new MalformedFormException();
+                    }
+                    decoded = (high << 4) | low;
+                }
+                if (++written > maxBytes) {
+                    throw new PasteTooLargeException();
+                }
+                out.write(decoded);
+            }
+        }
+        return target && written > 0;
+    }
+
+    private String newId() {
+        while (true) {
+            StringBuilder id = new StringBuilder(ID_LENGTH);
+            for (int i = 0; i < ID_LENGTH; i++) {
+                id.append(ID_ALPHABET.charAt(random.nextInt(ID_ALPHABET.length())));
+            }
+            if (Files.notExists(directory.resolve(id + ".log"))) {
+                return id.toString();
+            }
+        }
+    }
+
+    private static ObjectNode error(String message) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("success", false);
+        node.put("error", message);
+        return node;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Stops the server, waiting briefly for running requests.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        handlers.shutdown();
+        LogUtils.logInfo("Local paste server stopped.");
+    }
+
+    /**
+     * Runs the paste server standalone.
+     *
+     * @param args Optional port (default 8765) and storage directory (default "pastes")
+     * @throws IOException If the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8765;
+        Path directory = Paths.get(args.length > 1 ? args[1] : "pastes");
+        LocalPasteServer server = new LocalPasteServer("0.0.0.0", port, directory, null, 10L * 1024 * 1024);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "LocalPasteServer-Shutdown"));
+    }
+
+    /**
+     * Thrown when an upload exceeds the size limit.
+     */
+    private static class PasteTooLargeException extends IOException {
+        /** Serialization version */
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Thrown when an upload contains an invalid percent escape.
+     */
+    private static class MalformedFormException extends IOException {
+        /** Serialization version */
+        private static final long serialVersionUID = 1L;
+    }
+}
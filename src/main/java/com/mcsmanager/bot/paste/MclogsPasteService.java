@@ -0,0 +1,124 @@
+package com.mcsmanager.bot.paste;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.logs.LogHttpClient;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Paste service speaking the mclo.gs API ({@code POST /1/log} with a form field {@code content}).
+ * Works against mclo.gs itself, self-hosted mclo.gs instances and the bundled {@link LocalPasteServer}.
+ *
+ * @author SkyKing_PX
+ */
+public class MclogsPasteService implements PasteService {
+
+    /** Shared JSON mapper for API responses */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Client used for the uploads */
+    private final LogHttpClient client;
+    /** Endpoint for creating a new paste */
+    private final String apiUrl;
+
+    /**
+     * Creates a new mclo.gs client.
+     *
+     * @param client Client used for the uploads
+     * @param apiUrl Endpoint for creating a new paste
+     */
+    public MclogsPasteService(LogHttpClient client, String apiUrl) {
+        this.client = client;
+        this.apiUrl = apiUrl;
+    }
+
+    /**
+     * Streams the content to the API and returns the URL of the new paste.
+     * The content is form-encoded while it is sent, so it is never held in memory as a whole.
+     * Errors of the content are reported as {@link PasteSourceException}.
+     * Cancelling the returned future aborts the request.
+     *
+     * @param content The content to upload
+     * @return Future completing with the URL of the paste
+     */
+    @Override
+    public CompletableFuture<String> upload(PasteContent content) {
+        InputStream log;
+        try {
+            log = new SourceInputStream(content.open());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PasteSourceException(e));
+        }
+
+        CompletableFuture<SimpleHttpResponse> request = client.postForm(apiUrl, "content", log);
+        CompletableFuture<String> result = request.thenApply(response -> {
+            int status = response.getCode();
+            if (status == HttpStatus.SC_TOO_MANY_REQUESTS || status >= HttpStatus.SC_SERVER_ERROR) {
+                throw new CompletionException(new PasteException("mclo.gs API Error – HTTP " + status, true));
+            }
+            String body = response.getBodyText();
+            if (body == null || body.isEmpty()) {
+                throw new CompletionException(new PasteException("mclo.gs API Error – leere Antwort", true));
+            }
+            try {
+                JsonNode json = MAPPER.readTree(body);
+                if (json.path("success").asBoolean(false) && json.has("url")) {
+                    return json.get("url").asText();
+                }
+                throw new CompletionException(new PasteException(json.path("error").asText("mclo.gs API Error"), false));
+            } catch (IOException e) {
+                throw new CompletionException(new PasteException("mclo.gs API Error – invalid response (HTTP " + status + ")", true));
+            }
+        });
+        result.whenComplete((url, error) -> {
+            if (result.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public String describe() {
+        return "**Endpoint:** " + apiUrl;
+    }
+
+    /**
+     * Stream marking read errors of the content, so they are not mistaken for errors of the service.
+     */
+    private static class SourceInputStream extends FilterInputStream {
+
+        SourceInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (PasteSourceException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new PasteSourceException(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (PasteSourceException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new PasteSourceException(e);
+            }
+        }
+    }
+}
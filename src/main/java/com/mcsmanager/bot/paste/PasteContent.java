@@ -0,0 +1,56 @@
+package com.mcsmanager.bot.paste;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Content of a paste. Each upload attempt opens a fresh stream, so content that can be
+ * re-opened (buffered bytes, re-downloadable attachments) can be retried.
+ *
+ * @author SkyKing_PX
+ */
+@FunctionalInterface
+public interface PasteContent {
+
+    /**
+     * Opens a new stream over the content. The paste service closes it when the attempt completes.
+     *
+     * @return A stream positioned at the beginning of the content
+     * @throws IOException If the content cannot be opened
+     */
+    InputStream open() throws IOException;
+
+    /**
+     * Checks whether the content can be opened more than once.
+     *
+     * @return Whether failed uploads may be retried
+     */
+    default boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * Wraps a stream that can only be read once, e.g. an entry of an archive.
+     *
+     * @param stream The stream
+     * @return Content that can be opened a single time
+     */
+    static PasteContent once(InputStream stream) {
+        AtomicBoolean opened = new AtomicBoolean();
+        return new PasteContent() {
+            @Override
+            public InputStream open() throws IOException {
+                if (opened.getAndSet(true)) {
+                    throw new IOException("Content can only be read once");
+                }
+                return stream;
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.mcsmanager.bot.paste;
+
+import java.io.IOException;
+
+/**
+ * Failure reported by a paste service.
+ * Distinguishes transient failures (timeouts, overload, 5xx), which are worth retrying,
+ * from permanent ones (rejected content, 4xx), which are not.
+ *
+ * @author SkyKing_PX
+ */
+public class PasteException extends IOException {
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** Whether retrying the upload may succeed */
+    private final boolean retryable;
+
+    /**
+     * Creates a new paste exception.
+     *
+     * @param message Description of the failure
+     * @param retryable Whether retrying the upload may succeed
+     */
+    public PasteException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    /**
+     * Checks whether retrying the upload may succeed.
+     *
+     * @return Whether the failure is transient
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mcsmanager.bot.paste;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A service that stores logs and returns a shareable URL.
+ *
+ * @author SkyKing_PX
+ */
+public interface PasteService {
+
+    /**
+     * Uploads content as a new paste.
+     *
+     * Cancelling the returned future aborts the upload, so it neither holds a connection nor creates a paste.
+     *
+     * @param content The content to upload
+     * @return Future completing with the URL of the paste, or failing with a {@link PasteException}
+     *         or an I/O error
+     */
+    CompletableFuture<String> upload(PasteContent content);
+
+    /**
+     * Formats the state of the service for display.
+     *
+     * @return Human-readable service status
+     */
+    String describe();
+}
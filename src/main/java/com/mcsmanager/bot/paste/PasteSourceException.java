@@ -0,0 +1,39 @@
+package com.mcsmanager.bot.paste;
+
+import java.io.IOException;
+
+/**
+ * Failure opening or reading the content of a paste, e.g. a failed attachment download.
+ * Says nothing about the health of the paste service itself.
+ *
+ * @author SkyKing_PX
+ */
+public class PasteSourceException extends IOException {
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new source exception.
+     *
+     * @param cause The error raised by the content
+     */
+    public PasteSourceException(IOException cause) {
+        super("Could not read the content: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Checks whether a failure, or any of its causes, was raised by the content.
+     *
+     * @param error The failure
+     * @return Whether the content failed rather than the paste service
+     */
+    public static boolean isCauseOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasteSourceException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package com.mcsmanager.bot.paste;
+
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorator adding a timeout per attempt, retries with jittered exponential backoff
+ * and a {@link CircuitBreaker} to another paste service.
+ * While the breaker is open, uploads fail immediately instead of queueing up behind a dead service.
+ * Every attempt settles the breaker exactly once; failures of the content itself
+ * ({@link PasteSourceException}) neither count against the service nor keep a trial call blocked.
+ *
+ * @author SkyKing_PX
+ */
+public class ResilientPasteService implements PasteService {
+
+    /** The wrapped service */
+    private final PasteService delegate;
+    /** Breaker tracking the health of the wrapped service */
+    private final CircuitBreaker breaker;
+    /** Maximum number of attempts per upload */
+    private final int maxAttempts;
+    /** Backoff before the first retry */
+    private final long baseDelayMillis;
+    /** Upper bound of the backoff */
+    private final long maxDelayMillis;
+    /** Timeout of a single attempt */
+    private final long attemptTimeoutSeconds;
+    /** Executor starting retries once their backoff has elapsed */
+    private final ExecutorService retryExecutor;
+
+    /**
+     * Wraps a paste service with the configured resilience policy.
+     *
+     * @param delegate The service to wrap
+     * @param settings The paste configuration
+     */
+    public ResilientPasteService(PasteService delegate, Config.Paste settings) {
+        this.delegate = delegate;
+        this.breaker = new CircuitBreaker(settings.getBreakerFailureThreshold(), Duration.ofSeconds(settings.getBreakerOpenSeconds()));
+        this.maxAttempts = Math.max(1, settings.getMaxAttempts());
+        this.baseDelayMillis = Math.max(1, settings.getRetryBaseDelayMillis());
+        this.maxDelayMillis = Math.max(baseDelayMillis, settings.getRetryMaxDelayMillis());
+        this.attemptTimeoutSeconds = Math.max(1, settings.getAttemptTimeoutSeconds());
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.retryExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "PasteService-Retry-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> upload(PasteContent content) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        attempt(content, 1, result);
+        return result;
+    }
+
+    /**
+     * Runs a single attempt and schedules the next one if it failed transiently.
+     *
+     * @param content The content to upload
+     * @param attempt Number of this attempt, starting at 1
+     * @param result Future receiving the final outcome
+     */
+    private void attempt(PasteContent content, int attempt, CompletableFuture<String> result) {
+        if (result.isDone()) {
+            return; // Cancelled while waiting for the retry
+        }
+        if (!breaker.tryAcquire()) {
+            result.completeExceptionally(new PasteException("Paste service temporarily unavailable, try again in "
+                    + Math.max(1, breaker.getRemainingOpen().toSeconds()) + "s", false));
+            return;
+        }
+
+        CompletableFuture<String> upload = startUpload(content);
+        result.whenComplete((url, ex) -> {
+            if (result.isCancelled()) {
+                upload.cancel(true);
+            }
+        });
+        upload.copy().orTimeout(attemptTimeoutSeconds, TimeUnit.SECONDS).whenComplete((url, ex) -> {
+            if (result.isDone()) {
+                breaker.release();
+                return; // Cancelled by the caller
+            }
+            if (ex == null) {
+                breaker.onSuccess();
+                result.complete(url);
+                return;
+            }
+
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof TimeoutException) {
+                // Abort the exchange, so it neither holds a connection nor creates a second paste next to the retry
+                upload.cancel(true);
+            }
+            boolean transientFailure = !(cause instanceof PasteException) || ((PasteException) cause).isRetryable();
+            if (!transientFailure) {
+                // The service answered, it just rejected this content
+                breaker.onSuccess();
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            if (PasteSourceException.isCauseOf(cause)) {
+                breaker.release(); // The content failed, not the service
+            } else {
+                breaker.onFailure();
+            }
+            if (attempt >= maxAttempts || !content.isRepeatable()) {
+                result.completeExceptionally(cause instanceof TimeoutException
+                        ? new PasteException("Paste service timed out after " + attemptTimeoutSeconds + "s", true)
+                        : cause);
+                return;
+            }
+
+            long delay = backoff(attempt);
+            LogUtils.logWarning("Paste upload attempt " + attempt + "/" + maxAttempts + " failed (" + cause.getMessage()
+                    + "), retrying in " + delay + "ms");
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, retryExecutor);
+            delayed.execute(() -> attempt(content, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Starts an upload on the wrapped service, turning an exception thrown by it into a failed upload.
+     *
+     * @param content The content to upload
+     * @return The upload
+     */
+    private CompletableFuture<String> startUpload(PasteContent content) {
+        try {
+            return delegate.upload(content);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Computes the backoff before a retry: a random delay between half and all of an exponentially growing cap.
+     * The jitter spreads retries of concurrent uploads instead of having them hit the service in lockstep.
+     *
+     * @param attempt Number of the failed attempt, starting at 1
+     * @return Delay in milliseconds
+     */
+    private long backoff(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    /**
+     * Gets the breaker of this service.
+     *
+     * @return The circuit breaker
+     */
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public String describe() {
+        String state = switch (breaker.getState()) {
+            case CLOSED -> "🟢 Available";
+            case HALF_OPEN -> "🟡 Probing";
+            case OPEN -> "🔴 Unavailable (retry in " + breaker.getRemainingOpen().toSeconds() + "s)";
+        };
+        return delegate.describe() + "\n**Status:** " + state;
+    }
+
+    /**
+     * Stops the retry executor. Pending retries are dropped.
+     */
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+    }
+}
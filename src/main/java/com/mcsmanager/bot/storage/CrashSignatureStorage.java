@@ -0,0 +1,226 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.logs.CrashSignature;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON-based index of crash signatures seen in uploaded logs.
+ * Each signature remembers how often it was seen and in which threads, so recurring crashes
+ * can be linked to earlier reports. When the index is full, the least frequent and least
+ * recently seen signature is dropped.
+ * The file is replaced atomically, and an unreadable file is set aside so the index starts empty.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class CrashSignatureStorage {
+
+    /** Maximum number of threads remembered per signature */
+    private static final int MAX_THREADS = 10;
+    /** Orders entries from most to least relevant */
+    private static final Comparator<Entry> BY_RELEVANCE = Comparator.<Entry>comparingInt(entry -> entry.occurrences)
+            .thenComparingLong(entry -> entry.lastSeen)
+            .reversed();
+
+    /** JSON file for storing the index */
+    private final File file = new File("crash-signatures.json");
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /** Entries by signature identifier */
+    private final Map<String, Entry> entries = new HashMap<>();
+    /** Maximum number of entries kept */
+    private final int maxEntries;
+
+    /**
+     * Initializes the index, loading existing entries from disk.
+     *
+     * @param maxEntries Maximum number of entries kept
+     * @throws IOException If there is an error reading or creating the storage file
+     */
+    public CrashSignatureStorage(int maxEntries) throws IOException {
+        this.maxEntries = Math.max(1, maxEntries);
+        if (!file.exists()) {
+            save();
+            return;
+        }
+
+        IndexData data;
+        try {
+            data = mapper.readValue(file, IndexData.class);
+        } catch (IOException e) {
+            LogUtils.logException("Unreadable crash index, setting it aside and starting empty", e);
+            Files.move(file.toPath(), file.toPath().resolveSibling(file.getName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+            data = null;
+        }
+        if (data != null && data.entries != null) {
+            for (Entry entry : data.entries) {
+                entries.put(entry.id, entry);
+            }
+        }
+        LogUtils.logStorage("Loaded " + entries.size() + " crash signatures", "Crash Index");
+    }
+
+    /**
+     * Records a sighting of each signature in a thread.
+     *
+     * @param signatures Signatures found in one upload
+     * @param threadId ID of the thread or channel the logs were posted in
+     * @return One sighting per signature, describing the signature after this upload
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized List<Sighting> record(List<CrashSignature> signatures, String threadId) throws IOException {
+        List<Sighting> sightings = new ArrayList<>();
+        long now = Instant.now().toEpochMilli();
+        for (CrashSignature signature : signatures) {
+            Entry entry = entries.get(signature.getId());
+            if (entry == null) {
+                entry = new Entry();
+                entry.id = signature.getId();
+                entry.exception = signature.getException();
+                entry.frames = signature.getFrames();
+                entry.threads = new ArrayList<>();
+                entry.firstSeen = now;
+                entries.put(entry.id, entry);
+            }
+
+            // The most recent other thread is the most useful pointer for this one
+            String other = null;
+            for (int i = entry.threads.size() - 1; i >= 0 && other == null; i--) {
+                if (!entry.threads.get(i).equals(threadId)) {
+                    other = entry.threads.get(i);
+                }
+            }
+
+            entry.occurrences++;
+            entry.lastSeen = now;
+            entry.threads.remove(threadId);
+            entry.threads.add(threadId);
+            while (entry.threads.size() > MAX_THREADS) {
+                entry.threads.remove(0);
+            }
+            sightings.add(new Sighting(signature, entry.occurrences, entry.threads.size(), other));
+        }
+
+        while (entries.size() > maxEntries) {
+            entries.values().stream().max(BY_RELEVANCE).ifPresent(least -> entries.remove(least.id));
+        }
+        save();
+        return sightings;
+    }
+
+    /**
+     * Looks up a known signature.
+     *
+     * @param id The signature identifier
+     * @return The signature, or null if it is not in the index
+     */
+    public synchronized CrashSignature find(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? new CrashSignature(entry.exception, entry.frames) : null;
+    }
+
+    /**
+     * Gets the most frequent signatures.
+     *
+     * @param limit Maximum number of signatures
+     * @return Copies of the entries, most frequent first
+     */
+    public synchronized List<Entry> top(int limit) {
+        return entries.values().stream()
+                .sorted(BY_RELEVANCE)
+                .limit(limit)
+                .map(Entry::copy)
+                .toList();
+    }
+
+    /**
+     * Gets the number of signatures in the index.
+     *
+     * @return Number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Saves the index to the JSON file, replacing it atomically.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    private void save() throws IOException {
+        IndexData data = new IndexData();
+        data.entries = new ArrayList<>(entries.values());
+        Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+        mapper.writeValue(temp.toFile(), data);
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * A crash signature seen in an upload.
+     *
+     * @param signature The signature
+     * @param occurrences Number of uploads it was seen in, including this one
+     * @param threads Number of remembered threads it was seen in, including this one
+     * @param otherThreadId Most recent other thread it was seen in, or null
+     */
+    public record Sighting(CrashSignature signature, int occurrences, int threads, String otherThreadId) {
+    }
+
+    /**
+     * A single indexed crash signature.
+     */
+    public static class Entry {
+        /** Signature identifier */
+        public String id;
+        /** Exception type at the top of the trace */
+        public String exception;
+        /** Normalised frames of the trace */
+        public List<String> frames;
+        /** Number of uploads the signature was seen in */
+        public int occurrences;
+        /** IDs of the threads it was seen in, most recent last */
+        public List<String> threads;
+        /** Epoch milliseconds of the first sighting */
+        public long firstSeen;
+        /** Epoch milliseconds of the last sighting */
+        public long lastSeen;
+
+        private Entry copy() {
+            Entry copy = new Entry();
+            copy.id = id;
+            copy.exception = exception;
+            copy.frames = List.copyOf(frames);
+            copy.occurrences = occurrences;
+            copy.threads = List.copyOf(threads);
+            copy.firstSeen = firstSeen;
+            copy.lastSeen = lastSeen;
+            return copy;
+        }
+    }
+
+    /**
+     * Internal class for JSON serialization.
+     */
+    public static class IndexData {
+        public List<Entry> entries;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public IndexData() {
+        }
+    }
+}
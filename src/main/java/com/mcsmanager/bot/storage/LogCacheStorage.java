@@ -0,0 +1,271 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON-based LRU cache mapping uploaded log content to its paste URL.
+ * Entries are keyed by the SHA-256 of the full content and additionally indexed by a cheap probe key
+ * (size + hash of the first bytes), which can be computed with a single small range request.
+ * A probe only finds a candidate: logs from the same server often share size and startup banner,
+ * so a hit is confirmed against the hash of the full content before the paste is reused.
+ * The file is replaced atomically, and an unreadable file is set aside so the cache starts empty.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class LogCacheStorage {
+
+    /** JSON file for storing the cache */
+    private final File file = new File("log-cache.json");
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /** Entries by content hash, in access order (eldest first) */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Content hash by probe key */
+    private final Map<String, String> probes = new HashMap<>();
+    /** Maximum number of entries kept */
+    private final int maxEntries;
+    /** Time after which an entry is no longer served */
+    private final Duration ttl;
+
+    /** Number of lookups answered from the cache */
+    private final AtomicLong hits = new AtomicLong();
+    /** Number of lookups that required an upload */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Initializes the cache, loading existing entries from disk.
+     *
+     * @param maxEntries Maximum number of entries kept
+     * @param ttl Time after which an entry expires
+     * @throws IOException If there is an error reading or creating the storage file
+     */
+    public LogCacheStorage(int maxEntries, Duration ttl) throws IOException {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttl = ttl;
+        if (!file.exists()) {
+            save();
+            return;
+        }
+
+        CacheData data;
+        try {
+            data = mapper.readValue(file, CacheData.class);
+        } catch (IOException e) {
+            LogUtils.logException("Unreadable log cache, setting it aside and starting empty", e);
+            Files.move(file.toPath(), file.toPath().resolveSibling(file.getName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+            data = null;
+        }
+        if (data != null && data.entries != null) {
+            for (Entry entry : data.entries) {
+                if (!isExpired(entry)) {
+                    entries.put(entry.hash, entry);
+                    probes.put(entry.probe, entry.hash);
+                }
+            }
+        }
+        LogUtils.logStorage("Loaded " + entries.size() + " cached uploads", "Log Cache");
+    }
+
+    /**
+     * Builds the probe key for a log.
+     *
+     * @param size Total size of the log in bytes
+     * @param headHash Hex SHA-256 of the first bytes of the log
+     * @return The probe key
+     */
+    public static String probeKey(long size, String headHash) {
+        return size + ":" + headHash;
+    }
+
+    /**
+     * Looks up a cached upload by probe key and records a hit or miss.
+     * The content hash is only computed if the probe finds a candidate, and the candidate is only
+     * returned if it was uploaded from the same content.
+     *
+     * @param probe The probe key
+     * @param contentHash Computes the hex SHA-256 of the full content
+     * @return The cached entry, or null if unknown, expired or uploaded from different content
+     */
+    public Entry lookup(String probe, ContentHash contentHash) {
+        Entry candidate;
+        synchronized (this) {
+            String hash = probes.get(probe);
+            candidate = hash != null ? entries.get(hash) : null;
+            if (candidate != null && isExpired(candidate)) {
+                remove(candidate);
+                candidate = null;
+            }
+        }
+
+        // Hashing may download the log, so it runs outside the lock
+        boolean verified = false;
+        if (candidate != null) {
+            try {
+                verified = candidate.hash.equals(contentHash.compute());
+            } catch (IOException e) {
+                LogUtils.logDebug("Could not verify cached upload " + candidate.url + ": " + e.getMessage());
+            }
+        }
+        if (!verified) {
+            misses.incrementAndGet();
+            return null;
+        }
+        synchronized (this) {
+            entries.get(candidate.hash); // Mark as recently used
+        }
+        hits.incrementAndGet();
+        return candidate;
+    }
+
+    /**
+     * Stores the paste URL for a log and evicts the least recently used entries beyond the limit.
+     *
+     * @param hash Hex SHA-256 of the full content
+     * @param probe The probe key
+     * @param url The paste URL
+     * @param signatures Identifiers of the error signatures found in the log
+     * @param redactions Number of values redacted before upload
+     * @param sampled Whether only the beginning and end of the log were uploaded
+     * @param crashes Identifiers of the crash signatures found in the log
+     * @param environment Environment facts found in the log, by fact key
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized void put(String hash, String probe, String url, List<String> signatures, int redactions,
+                                 boolean sampled, List<String> crashes, Map<String, String> environment) throws IOException {
+        Entry previous = entries.get(hash);
+        if (previous != null) {
+            removeProbe(previous);
+        }
+
+        Entry entry = new Entry();
+        entry.hash = hash;
+        entry.probe = probe;
+        entry.url = url;
+        entry.signatures = signatures;
+        entry.redactions = redactions;
+        entry.sampled = sampled;
+        entry.crashes = crashes;
+        entry.environment = environment;
+        entry.storedAt = Instant.now().toEpochMilli();
+        entries.put(hash, entry);
+        probes.put(probe, hash);
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            removeProbe(eldest.next());
+            eldest.remove();
+        }
+        save();
+    }
+
+    /**
+     * Formats hit and miss counters for display.
+     *
+     * @return Human-readable cache statistics
+     */
+    public String describe() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        long rate = total == 0 ? 0 : hitCount * 100 / total;
+        synchronized (this) {
+            return "**Hits:** " + hitCount + "\n**Misses:** " + misses.get() + " (" + rate + "% hit rate)\n**Entries:** " + entries.size() + " / " + maxEntries;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return Instant.ofEpochMilli(entry.storedAt).plus(ttl).isBefore(Instant.now());
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.hash);
+        removeProbe(entry);
+    }
+
+    /**
+     * Removes the probe mapping of an entry, unless the probe now belongs to a newer upload.
+     */
+    private void removeProbe(Entry entry) {
+        probes.remove(entry.probe, entry.hash);
+    }
+
+    /**
+     * Saves the cache to the JSON file, least recently used entries first, replacing it atomically.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    private void save() throws IOException {
+        CacheData data = new CacheData();
+        data.entries = new ArrayList<>(entries.values());
+        Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+        mapper.writeValue(temp.toFile(), data);
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Computes the hash of the full content of a log.
+     */
+    @FunctionalInterface
+    public interface ContentHash {
+        /**
+         * Computes the hash.
+         *
+         * @return Hex SHA-256 of the full content
+         * @throws IOException If the content cannot be read
+         */
+        String compute() throws IOException;
+    }
+
+    /**
+     * A single cached upload.
+     */
+    public static class Entry {
+        /** Hex SHA-256 of the full content */
+        public String hash;
+        /** Probe key (size + head hash) */
+        public String probe;
+        /** URL of the paste */
+        public String url;
+        /** Identifiers of the error signatures found in the log */
+        public List<String> signatures;
+        /** Number of values redacted before upload */
+        public int redactions;
+        /** Whether only the beginning and end of the log were uploaded */
+        public boolean sampled;
+        /** Identifiers of the crash signatures found in the log */
+        public List<String> crashes;
+        /** Environment facts found in the log, by fact key */
+        public Map<String, String> environment;
+        /** Epoch milliseconds at which the entry was stored */
+        public long storedAt;
+    }
+
+    /**
+     * Internal class for JSON serialization.
+     */
+    public static class CacheData {
+        public List<Entry> entries;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public CacheData() {
+        }
+    }
+}
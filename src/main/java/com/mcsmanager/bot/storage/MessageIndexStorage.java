@@ -0,0 +1,308 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON-based index of the recent messages of every author, so a user's messages can be found
+ * without paging through the history of every channel.
+ * Fed by message events and pruned when messages are deleted. Entries older than the retention
+ * window are dropped, and only the newest messages of each author are kept up to a cap; the time of the
+ * newest message dropped by the cap is remembered per author, so the index knows what it no longer covers.
+ * Messages sent while the bot was offline are not indexed, so after a restart the index only
+ * covers the time since the start, even though older entries are kept.
+ * Writes are batched: message events only change the index in memory, and the owner saves it by calling
+ * {@link #flush()} every {@link #SAVE_INTERVAL} and on shutdown. The file is written outside the lock and
+ * replaced atomically; an unreadable file is set aside so the index starts empty.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class MessageIndexStorage {
+
+    /** Interval at which pending changes should be saved */
+    public static final Duration SAVE_INTERVAL = Duration.ofMinutes(1);
+
+    /** JSON file for storing the index */
+    private final File file = new File("message-index.json");
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /** Lock serializing writes of the file, which happen outside the index lock */
+    private final Object writeLock = new Object();
+    /** Messages by author ID, oldest first */
+    private final Map<String, Deque<IndexedMessage>> messages = new HashMap<>();
+    /** Author ID by message ID, for pruning deleted messages */
+    private final Map<String, String> authors = new HashMap<>();
+    /** Creation time of the newest message dropped by the per-author cap, by author ID */
+    private final Map<String, Long> evictedUntil = new HashMap<>();
+    /** Time after which messages are dropped */
+    private final long retentionMillis;
+    /** Maximum number of messages kept per author */
+    private final int maxPerUser;
+
+    /** Time since which messages have been indexed */
+    private long indexedSince;
+    /** Whether there are changes that were not saved yet */
+    private boolean dirty;
+
+    /**
+     * Initializes the index, loading existing entries from disk.
+     *
+     * @param retention Time after which messages are dropped
+     * @param maxPerUser Maximum number of messages kept per author
+     * @throws IOException If there is an error reading or creating the storage file
+     */
+    public MessageIndexStorage(Duration retention, int maxPerUser) throws IOException {
+        this.retentionMillis = retention.toMillis();
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.indexedSince = System.currentTimeMillis();
+        if (!file.exists()) {
+            write(snapshot());
+            return;
+        }
+
+        IndexData data;
+        try {
+            data = mapper.readValue(file, IndexData.class);
+        } catch (IOException e) {
+            LogUtils.logException("Unreadable message index, setting it aside and starting empty", e);
+            Files.move(file.toPath(), file.toPath().resolveSibling(file.getName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+            data = null;
+        }
+        if (data != null) {
+            if (data.savedAt != 0) {
+                LogUtils.logStorage("Messages of the last " + Duration.ofMillis(indexedSince - data.savedAt).toMinutes()
+                        + " minutes were sent while the bot was offline and are missing", "Message Index");
+            }
+            if (data.messages != null) {
+                for (IndexedMessage message : data.messages) {
+                    add(message);
+                }
+            }
+        }
+        prune(System.currentTimeMillis());
+        LogUtils.logStorage("Loaded " + authors.size() + " messages of " + messages.size() + " authors", "Message Index");
+    }
+
+    /**
+     * Records a new message.
+     *
+     * @param authorId ID of the author
+     * @param channelId ID of the channel the message was sent in
+     * @param messageId ID of the message
+     * @param createdAt Epoch milliseconds at which the message was created
+     */
+    public synchronized void record(String authorId, String channelId, String messageId, long createdAt) {
+        IndexedMessage message = new IndexedMessage();
+        message.authorId = authorId;
+        message.channelId = channelId;
+        message.messageId = messageId;
+        message.createdAt = createdAt;
+        add(message);
+        dirty = true;
+    }
+
+    /**
+     * Forgets deleted messages.
+     *
+     * @param messageIds IDs of the deleted messages
+     */
+    public synchronized void remove(Collection<String> messageIds) {
+        for (String messageId : messageIds) {
+            String authorId = authors.remove(messageId);
+            if (authorId == null) {
+                continue;
+            }
+            Deque<IndexedMessage> authored = messages.get(authorId);
+            authored.removeIf(message -> message.messageId.equals(messageId));
+            if (authored.isEmpty()) {
+                messages.remove(authorId);
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Gets the indexed messages of an author, newest first.
+     *
+     * @param authorId ID of the author
+     * @param since Epoch milliseconds before which messages are left out
+     * @param limit Maximum number of messages returned
+     * @return Copies of the matching entries
+     */
+    public synchronized List<IndexedMessage> getMessages(String authorId, long since, int limit) {
+        List<IndexedMessage> result = new ArrayList<>();
+        Deque<IndexedMessage> authored = messages.get(authorId);
+        if (authored == null) {
+            return result;
+        }
+        Iterator<IndexedMessage> newestFirst = authored.descendingIterator();
+        while (newestFirst.hasNext() && result.size() < limit) {
+            IndexedMessage message = newestFirst.next();
+            if (message.createdAt < since) {
+                break;
+            }
+            result.add(message.copy());
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether every message of an author since the given time would be in the index, as far as it
+     * was running. Older messages may have been dropped, cut by the per-author cap or sent before
+     * indexing started.
+     *
+     * @param authorId ID of the author
+     * @param since Epoch milliseconds of the oldest message needed
+     * @return True if the index covers the time range
+     */
+    public synchronized boolean covers(String authorId, long since) {
+        return since >= indexedSince && since >= System.currentTimeMillis() - retentionMillis
+                && since > evictedUntil.getOrDefault(authorId, 0L);
+    }
+
+    /**
+     * Saves pending changes. The index is only locked while its entries are copied, not while the file is written.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    public void flush() throws IOException {
+        IndexData data;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            prune(System.currentTimeMillis());
+            data = snapshot();
+            dirty = false;
+        }
+        try {
+            write(data);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            throw e;
+        }
+    }
+
+    private void add(IndexedMessage message) {
+        if (authors.putIfAbsent(message.messageId, message.authorId) != null) {
+            return;
+        }
+        Deque<IndexedMessage> authored = messages.computeIfAbsent(message.authorId, id -> new ArrayDeque<>());
+        authored.addLast(message);
+        while (authored.size() > maxPerUser) {
+            IndexedMessage evicted = authored.removeFirst();
+            authors.remove(evicted.messageId);
+            evictedUntil.merge(message.authorId, evicted.createdAt, Math::max);
+        }
+    }
+
+    /**
+     * Drops messages older than the retention window.
+     *
+     * @param now Current epoch milliseconds
+     */
+    private void prune(long now) {
+        long oldest = now - retentionMillis;
+        Iterator<Deque<IndexedMessage>> iterator = messages.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<IndexedMessage> authored = iterator.next();
+            while (!authored.isEmpty() && authored.peekFirst().createdAt < oldest) {
+                authors.remove(authored.removeFirst().messageId);
+            }
+            if (authored.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        // Evictions before the retention window are covered by it
+        evictedUntil.values().removeIf(createdAt -> createdAt < oldest);
+    }
+
+    /**
+     * Copies the index for saving. Entries are never changed once indexed, so they are shared.
+     *
+     * @return The data to save
+     */
+    private synchronized IndexData snapshot() {
+        IndexData data = new IndexData();
+        data.indexedSince = indexedSince;
+        data.savedAt = System.currentTimeMillis();
+        data.messages = new ArrayList<>(authors.size());
+        for (Deque<IndexedMessage> authored : messages.values()) {
+            data.messages.addAll(authored);
+        }
+        return data;
+    }
+
+    /**
+     * Writes a copy of the index to the JSON file, replacing it atomically.
+     *
+     * @param data The data to save
+     * @throws IOException If there is an error writing to the storage file
+     */
+    private void write(IndexData data) throws IOException {
+        synchronized (writeLock) {
+            Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+            mapper.writeValue(temp.toFile(), data);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * A single indexed message.
+     */
+    public static class IndexedMessage {
+        /** ID of the author */
+        public String authorId;
+        /** ID of the channel */
+        public String channelId;
+        /** ID of the message */
+        public String messageId;
+        /** Epoch milliseconds at which the message was created */
+        public long createdAt;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public IndexedMessage() {
+        }
+
+        private IndexedMessage copy() {
+            IndexedMessage copy = new IndexedMessage();
+            copy.authorId = authorId;
+            copy.channelId = channelId;
+            copy.messageId = messageId;
+            copy.createdAt = createdAt;
+            return copy;
+        }
+    }
+
+    /**
+     * Data structure for JSON serialization.
+     */
+    public static class IndexData {
+        /** Time since which messages have been indexed without interruption */
+        public long indexedSince;
+        /** Time of the save, after which messages were missed until the next start */
+        public long savedAt;
+        /** All indexed messages */
+        public List<IndexedMessage> messages;
+    }
+}
@@ -0,0 +1,166 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Directory of running purge jobs, one JSON file per job.
+ * A job is written when it starts and checkpointed with the position reached in every channel,
+ * so a purge interrupted by a restart resumes where it stopped instead of scanning everything again.
+ * Files are replaced atomically, so a crash while writing never leaves a half-written job behind.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class PurgeJobStorage {
+
+    /** Directory holding the job files */
+    private final Path directory;
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Initializes the job directory, creating it if necessary.
+     *
+     * @param directory Directory holding the job files
+     * @throws IOException If the directory cannot be created
+     */
+    public PurgeJobStorage(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Writes or replaces a job.
+     *
+     * @param job The job to persist
+     * @throws IOException If there is an error writing the job file
+     */
+    public synchronized void save(PurgeJobState job) throws IOException {
+        Path target = directory.resolve(job.id + ".json");
+        Path temp = directory.resolve(job.id + ".json.tmp");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), job);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes a finished or cancelled job.
+     *
+     * @param id Identifier of the job
+     */
+    public synchronized void remove(String id) {
+        try {
+            Files.deleteIfExists(directory.resolve(id + ".json"));
+        } catch (IOException e) {
+            LogUtils.logException("Error removing purge job " + id, e);
+        }
+    }
+
+    /**
+     * Loads all interrupted jobs, oldest first.
+     * Unreadable job files are renamed to {@code .broken} so they are not retried forever.
+     *
+     * @return The interrupted jobs
+     */
+    public synchronized List<PurgeJobState> loadAll() {
+        List<PurgeJobState> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    jobs.add(mapper.readValue(file.toFile(), PurgeJobState.class));
+                } catch (IOException e) {
+                    LogUtils.logException("Unreadable purge job " + file.getFileName() + ", setting it aside", e);
+                    setAside(file);
+                }
+            }
+        } catch (IOException e) {
+            LogUtils.logException("Error reading purge jobs", e);
+        }
+        jobs.sort(Comparator.comparingLong(job -> job.createdAt));
+        return jobs;
+    }
+
+    /**
+     * Renames an unreadable job file to {@code .broken}. A failure is only logged, so the
+     * remaining jobs are still loaded.
+     *
+     * @param file The unreadable job file
+     */
+    private static void setAside(Path file) {
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogUtils.logException("Error setting aside purge job " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * A purge job and the position it reached.
+     */
+    public static class PurgeJobState {
+        /** Identifier of the job */
+        public String id;
+        /** ID of the guild to purge in */
+        public String guildId;
+        /** ID of the user whose messages are deleted */
+        public String targetUserId;
+        /** Name of the user whose messages are deleted, for logging */
+        public String targetUserName;
+        /** ID of the channel the progress message is posted in */
+        public String statusChannelId;
+        /** ID of the progress message, null until it was sent */
+        public String statusMessageId;
+        /** IDs of the channels to purge, null for the whole server */
+        public List<String> channelIds;
+        /** Mention of the channel the purge was limited to, null for the whole server */
+        public String scopeMention;
+        /** Number of days to go back, 0 for all messages */
+        public int days;
+        /** Epoch milliseconds before which messages are kept, 0 for all messages */
+        public long cutoffMillis;
+        /** Maximum number of messages to delete, 0 for no limit */
+        public int limit;
+        /** Whether to scan the channels even if the message index covers the time range */
+        public boolean forceScan;
+        /** Position reached in each channel, by channel ID */
+        public Map<String, ChannelCursor> cursors = new LinkedHashMap<>();
+        /** Epoch milliseconds at which the job was created */
+        public long createdAt;
+        /** Number of times the job was resumed after a restart */
+        public int resumes;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public PurgeJobState() {
+        }
+    }
+
+    /**
+     * Position reached in a single channel.
+     */
+    public static class ChannelCursor {
+        /** ID of the last message processed, null if the channel was not started */
+        public String anchorId;
+        /** Whether the channel is finished */
+        public boolean done;
+        /** Number of messages deleted in the channel */
+        public int deleted;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public ChannelCursor() {
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.util.InactivityPolicy;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON-based index of the last activity, first reply and lifecycle of support and bug report threads.
+ * Kept up to date from message events and the notices the bot sends, so the inactivity sweep
+ * can decide from memory instead of paging through the history of every thread.
+ * Activity is saved at most once per save interval and on {@link #flush()}; activity lost in a crash is
+ * picked up again from the threads' latest message IDs. Reminders, closures and escalations are saved
+ * immediately. Threads that have been closed for longer than the inactivity period are dropped.
+ * The file is replaced atomically, so a crash while writing never leaves a half-written index behind.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class ThreadStateStorage {
+
+    /** Value of {@link ThreadState#closedBy} for threads closed by the inactivity check */
+    public static final String CLOSED_BY_INACTIVITY = "inactivity";
+
+    /** Minimum time between two saves caused by thread activity */
+    private static final long SAVE_INTERVAL_MILLIS = Duration.ofMinutes(1).toMillis();
+    /** Time after which closed threads are dropped */
+    private static final long CLOSED_RETENTION_MILLIS = Duration.ofDays(InactivityPolicy.CLOSE_AFTER_DAYS).toMillis();
+
+    /** JSON file for storing the index, null to keep it in memory only */
+    private final File file;
+    /** Source of the current time for throttling saves and pruning */
+    private final Clock clock;
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /** State by thread ID */
+    private final Map<String, ThreadState> states = new HashMap<>();
+
+    /** Whether there are changes that were not saved yet */
+    private boolean dirty;
+    /** Time of the last save */
+    private long lastSavedAt;
+
+    /**
+     * Initializes the index, loading existing entries from disk.
+     *
+     * @throws IOException If there is an error reading or creating the storage file
+     */
+    public ThreadStateStorage() throws IOException {
+        this(new File("thread-state.json"), Clock.systemUTC());
+    }
+
+    /**
+     * Initializes the index, loading existing entries from the given file.
+     * An unreadable file is renamed to {@code .broken} and the index starts empty.
+     *
+     * @param file JSON file for storing the index, null to keep it in memory only (e.g. for simulations)
+     * @param clock Source of the current time, the same the thread timestamps are compared against
+     * @throws IOException If there is an error reading or creating the storage file
+     */
+    public ThreadStateStorage(File file, Clock clock) throws IOException {
+        this.file = file;
+        this.clock = clock;
+        if (file == null) {
+            return;
+        }
+        if (!file.exists()) {
+            save();
+            return;
+        }
+
+        StateData data;
+        try {
+            data = mapper.readValue(file, StateData.class);
+        } catch (IOException e) {
+            LogUtils.logException("Unreadable thread state, setting it aside and starting empty", e);
+            Files.move(file.toPath(), file.toPath().resolveSibling(file.getName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+            data = null;
+        }
+        if (data != null && data.threads != null) {
+            for (ThreadState state : data.threads) {
+                states.put(state.threadId, state);
+            }
+        }
+        LogUtils.logStorage("Loaded state of " + states.size() + " threads", "Thread State");
+    }
+
+    /**
+     * Records a message posted in a thread.
+     *
+     * @param threadId ID of the thread
+     * @param createdAt Epoch milliseconds at which the message was created
+     * @param bot Whether the message was sent by a bot
+     * @return A copy of the state after the update
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState recordMessage(String threadId, long createdAt, boolean bot) throws IOException {
+        ThreadState state = states.computeIfAbsent(threadId, ThreadState::new);
+        state.lastMessageAt = Math.max(state.lastMessageAt, createdAt);
+        if (bot) {
+            state.lastBotMessageAt = Math.max(state.lastBotMessageAt, createdAt);
+        } else {
+            state.lastUserMessageAt = Math.max(state.lastUserMessageAt, createdAt);
+        }
+        saveThrottled();
+        return state.copy();
+    }
+
+    /**
+     * Brings a thread's state up to date with the time of its latest message, which is known
+     * from the message ID without a request. Covers threads that are new to the index and
+     * messages missed while the bot was offline; the author of such a message is unknown.
+     *
+     * @param threadId ID of the thread
+     * @param latestMessageAt Epoch milliseconds of the latest message, 0 if the thread has none
+     * @return A copy of the state after the update
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState observe(String threadId, long latestMessageAt) throws IOException {
+        ThreadState state = states.get(threadId);
+        if (state == null || latestMessageAt > state.lastMessageAt) {
+            if (state == null) {
+                state = new ThreadState(threadId);
+                states.put(threadId, state);
+            }
+            state.lastMessageAt = latestMessageAt;
+            saveThrottled();
+        }
+        return state.copy();
+    }
+
+    /**
+     * Replaces the activity of a thread with facts read from its history.
+     *
+     * @param threadId ID of the thread
+     * @param lastMessageAt Epoch milliseconds of the latest message
+     * @param lastUserMessageAt Epoch milliseconds of the latest user message, 0 if unknown
+     * @return A copy of the state after the update
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState confirm(String threadId, long lastMessageAt, long lastUserMessageAt) throws IOException {
+        ThreadState state = states.computeIfAbsent(threadId, ThreadState::new);
+        state.lastMessageAt = Math.max(state.lastMessageAt, lastMessageAt);
+        state.lastUserMessageAt = Math.max(state.lastUserMessageAt, lastUserMessageAt);
+        if (lastMessageAt > lastUserMessageAt) {
+            // The history ends with a bot message
+            state.lastBotMessageAt = Math.max(state.lastBotMessageAt, lastMessageAt);
+        }
+        saveThrottled();
+        return state.copy();
+    }
+
+    /**
+     * Records that an inactivity reminder was sent to a thread.
+     *
+     * @param threadId ID of the thread
+     * @param remindedAt Epoch milliseconds at which the reminder was sent
+     * @return A copy of the state after the update
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState markReminded(String threadId, long remindedAt) throws IOException {
+        ThreadState state = states.computeIfAbsent(threadId, ThreadState::new);
+        state.remindedAt = remindedAt;
+        save();
+        return state.copy();
+    }
+
+    /**
+     * Records that a thread was closed.
+     *
+     * @param threadId ID of the thread
+     * @param closedAt Epoch milliseconds at which the thread was closed
+     * @param closedBy ID of the member who closed the thread, or {@link #CLOSED_BY_INACTIVITY}
+     * @return A copy of the state after the update
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState markClosed(String threadId, long closedAt, String closedBy) throws IOException {
+        ThreadState state = states.computeIfAbsent(threadId, ThreadState::new);
+        state.closedAt = closedAt;
+        state.closedBy = closedBy;
+        save();
+        return state.copy();
+    }
+
+    /**
+     * Starts tracking the time to the first reply of a new thread.
+     *
+     * @param threadId ID of the thread
+     * @param createdAt Epoch milliseconds at which the thread was created
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized void trackNew(String threadId, long createdAt) throws IOException {
+        ThreadState state = states.computeIfAbsent(threadId, ThreadState::new);
+        if (state.createdAt == 0) {
+            state.createdAt = createdAt;
+            saveThrottled();
+        }
+    }
+
+    /**
+     * Records a reply by someone other than the thread's author.
+     *
+     * @param threadId ID of the thread
+     * @param repliedAt Epoch milliseconds at which the reply was created
+     * @return A copy of the state if this was the first reply to a tracked thread, null otherwise
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized ThreadState recordReply(String threadId, long repliedAt) throws IOException {
+        ThreadState state = states.get(threadId);
+        if (state == null || state.createdAt == 0 || state.firstReplyAt != 0) {
+            return null;
+        }
+        state.firstReplyAt = repliedAt;
+        saveThrottled();
+        return state.copy();
+    }
+
+    /**
+     * Records that a thread was escalated for having no reply.
+     *
+     * @param threadId ID of the thread
+     * @param escalatedAt Epoch milliseconds of the escalation
+     * @return Whether the thread is still unanswered and was not escalated before
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized boolean markEscalated(String threadId, long escalatedAt) throws IOException {
+        ThreadState state = states.get(threadId);
+        if (state == null || state.firstReplyAt != 0 || state.escalatedAt != 0) {
+            return false;
+        }
+        state.escalatedAt = escalatedAt;
+        save();
+        return true;
+    }
+
+    /**
+     * Gets the tracked threads that have neither been replied to nor escalated.
+     *
+     * @return Copies of their states
+     */
+    public synchronized List<ThreadState> getUnanswered() {
+        List<ThreadState> unanswered = new ArrayList<>();
+        for (ThreadState state : states.values()) {
+            if (state.createdAt != 0 && state.firstReplyAt == 0 && state.escalatedAt == 0) {
+                unanswered.add(state.copy());
+            }
+        }
+        return unanswered;
+    }
+
+    /**
+     * Removes a thread from the index.
+     *
+     * @param threadId ID of the thread
+     * @throws IOException If there is an error saving to the storage file
+     */
+    public synchronized void remove(String threadId) throws IOException {
+        if (states.remove(threadId) != null) {
+            save();
+        }
+    }
+
+    /**
+     * Saves pending changes.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty) {
+            save();
+        }
+    }
+
+    /**
+     * Marks the index as changed and saves it if the save interval has passed.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    private void saveThrottled() throws IOException {
+        dirty = true;
+        if (clock.millis() - lastSavedAt >= SAVE_INTERVAL_MILLIS) {
+            save();
+        }
+    }
+
+    /**
+     * Drops threads that have been closed for longer than the inactivity period.
+     *
+     * @param now Current epoch milliseconds
+     */
+    private void prune(long now) {
+        states.values().removeIf(state -> state.isClosed() && state.closedAt < now - CLOSED_RETENTION_MILLIS);
+    }
+
+    /**
+     * Saves the index to the JSON file, replacing it atomically.
+     *
+     * @throws IOException If there is an error writing to the storage file
+     */
+    private void save() throws IOException {
+        long now = clock.millis();
+        prune(now);
+        dirty = false;
+        lastSavedAt = now;
+        if (file == null) {
+            return;
+        }
+        StateData data = new StateData();
+        data.threads = new ArrayList<>(states.values());
+        Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+        mapper.writeValue(temp.toFile(), data);
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Activity and lifecycle of a single thread. Times are epoch milliseconds, 0 if unknown.
+     */
+    public static class ThreadState {
+        /** ID of the thread */
+        public String threadId;
+        /** Time of the latest message by anyone */
+        public long lastMessageAt;
+        /** Time of the latest message by a user */
+        public long lastUserMessageAt;
+        /** Time of the latest message by a bot */
+        public long lastBotMessageAt;
+        /** Time the latest inactivity reminder was sent, 0 if none was */
+        public long remindedAt;
+        /** Time the thread was closed, 0 if it is open */
+        public long closedAt;
+        /** ID of the member who closed the thread, or {@link #CLOSED_BY_INACTIVITY} */
+        public String closedBy;
+        /** Time the thread was created, 0 if it was created before reply tracking */
+        public long createdAt;
+        /** Time of the first reply by someone other than the author */
+        public long firstReplyAt;
+        /** Time the thread was escalated for having no reply */
+        public long escalatedAt;
+
+        /**
+         * Whether a reminder was sent since a user last wrote in the thread.
+         *
+         * @return True if the current quiet period was already reminded of
+         */
+        @JsonIgnore
+        public boolean isReminded() {
+            return remindedAt != 0 && remindedAt >= lastUserMessageAt;
+        }
+
+        /**
+         * Whether the thread was closed after the latest user message.
+         *
+         * @return True if the thread is closed
+         */
+        @JsonIgnore
+        public boolean isClosed() {
+            return closedAt != 0 && closedAt >= lastUserMessageAt;
+        }
+
+        /**
+         * Whether the author of the latest message is known. It is not for messages that were only
+         * observed from the thread, e.g. ones sent while the bot was offline.
+         *
+         * @return True if the latest message was recorded or confirmed from the history
+         */
+        @JsonIgnore
+        public boolean isLatestAuthorKnown() {
+            return lastMessageAt <= Math.max(Math.max(lastUserMessageAt, lastBotMessageAt), Math.max(remindedAt, closedAt));
+        }
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public ThreadState() {
+        }
+
+        private ThreadState(String threadId) {
+            this.threadId = threadId;
+        }
+
+        private ThreadState copy() {
+            ThreadState copy = new ThreadState(threadId);
+            copy.lastMessageAt = lastMessageAt;
+            copy.lastUserMessageAt = lastUserMessageAt;
+            copy.lastBotMessageAt = lastBotMessageAt;
+            copy.remindedAt = remindedAt;
+            copy.closedAt = closedAt;
+            copy.closedBy = closedBy;
+            copy.createdAt = createdAt;
+            copy.firstReplyAt = firstReplyAt;
+            copy.escalatedAt = escalatedAt;
+            return copy;
+        }
+    }
+
+    /**
+     * Internal class for JSON serialization.
+     */
+    public static class StateData {
+        public List<ThreadState> threads;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public StateData() {
+        }
+    }
+}
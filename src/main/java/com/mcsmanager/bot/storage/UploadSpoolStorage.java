@@ -0,0 +1,134 @@
+package com.mcsmanager.bot.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Spool directory of pending log upload jobs, one JSON file per job.
+ * A job is written before its attachments are processed and removed once its placeholder message
+ * has been edited, so jobs interrupted by a restart can be resumed on startup.
+ * Files are replaced atomically, so a crash while writing never leaves a half-written job behind.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class UploadSpoolStorage {
+
+    /** Directory holding the job files */
+    private final Path directory;
+    /** Jackson ObjectMapper for JSON operations */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Initializes the spool, creating its directory if necessary.
+     * Pending jobs are only read when they are resumed, see {@link #loadAll()}.
+     *
+     * @param directory Directory holding the job files
+     * @throws IOException If the directory cannot be created
+     */
+    public UploadSpoolStorage(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        LogUtils.logStorage("Using spool directory " + this.directory.toAbsolutePath(), "Upload Spool");
+    }
+
+    /**
+     * Writes or replaces a job.
+     *
+     * @param job The job to persist
+     * @throws IOException If there is an error writing the job file
+     */
+    public synchronized void save(UploadJob job) throws IOException {
+        Path target = directory.resolve(job.id + ".json");
+        Path temp = directory.resolve(job.id + ".json.tmp");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), job);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes a finished job.
+     *
+     * @param id Identifier of the job
+     */
+    public synchronized void remove(String id) {
+        try {
+            Files.deleteIfExists(directory.resolve(id + ".json"));
+        } catch (IOException e) {
+            LogUtils.logException("Error removing upload job " + id, e);
+        }
+    }
+
+    /**
+     * Loads all pending jobs, oldest first.
+     * Unreadable job files are renamed to {@code .broken} so they are not retried forever.
+     *
+     * @return The pending jobs
+     */
+    public synchronized List<UploadJob> loadAll() {
+        List<UploadJob> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    jobs.add(mapper.readValue(file.toFile(), UploadJob.class));
+                } catch (IOException e) {
+                    LogUtils.logException("Unreadable upload job " + file.getFileName() + ", setting it aside", e);
+                    setAside(file);
+                }
+            }
+        } catch (IOException e) {
+            LogUtils.logException("Error reading upload spool", e);
+        }
+        jobs.sort(Comparator.comparingLong(job -> job.createdAt));
+        return jobs;
+    }
+
+    /**
+     * Renames an unreadable job file to {@code .broken}. A failure is only logged, so the
+     * remaining jobs are still loaded.
+     *
+     * @param file The unreadable job file
+     */
+    private static void setAside(Path file) {
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogUtils.logException("Error setting aside upload job " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * A pending upload job.
+     */
+    public static class UploadJob {
+        /** Identifier of the job (the ID of the source message) */
+        public String id;
+        /** ID of the channel or thread the source message was posted in */
+        public String channelId;
+        /** ID of the message the logs were attached to */
+        public String messageId;
+        /** IDs of the attachments to upload */
+        public List<String> attachmentIds;
+        /** IDs of the messages a pasted log was collected from, null for attachment uploads */
+        public List<String> inlineMessageIds;
+        /** ID of the placeholder message, null until it was sent */
+        public String placeholderId;
+        /** Epoch milliseconds at which the job was created */
+        public long createdAt;
+        /** Number of times the job was resumed after a restart */
+        public int resumes;
+
+        /**
+         * No-arg constructor for Jackson deserialization.
+         */
+        public UploadJob() {
+        }
+    }
+}
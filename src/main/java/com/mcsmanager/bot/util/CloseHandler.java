@@ -1,7 +1,7 @@
 package com.mcsmanager.bot.util;
 
 import com.mcsmanager.bot.Bot;
-import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.ThreadStateStorage;
 import com.mcsmanager.bot.storage.VoteStorage;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -66,22 +66,8 @@ public class CloseHandler extends ListenerAdapter {
     public static void closeThread(ThreadChannel thread, Member invoker, Guild guild, Consumer<MessageEmbed> reply) throws IOException {
         ForumChannel parent = thread.getParentChannel().asForumChannel();
 
-        String threadOwnerId = thread.getOwnerId();
-        String[] modRoleIds;
-        try {
-            modRoleIds = Config.get().getRoles().getModerators();
-        } catch (Exception e) {
-            LogUtils.logException("Error loading mod role", e);
-            reply.accept(EmbedUtils.createSimpleError("❌ Config error"));
-            return;
-        }
-
-        boolean isOwner = invoker.getId().equals(threadOwnerId);
-        List<String> modRolesList = List.of(modRoleIds);
-        boolean isModerator = invoker.getRoles().stream()
-                .anyMatch(role -> modRolesList.contains(role.getId()));
-
-        if (!isOwner && !isModerator) {
+        boolean isOwner = invoker.getId().equals(thread.getOwnerId());
+        if (!isOwner && !PermissionUtils.isModerator(invoker)) {
             reply.accept(EmbedUtils.createSimpleError("❌ Only the post creator or a moderator can close this post."));
             return;
         }
@@ -130,6 +116,15 @@ public class CloseHandler extends ListenerAdapter {
                             } catch (IOException e) {
                                 LogUtils.logException("[BOT] Error removing votes from thread \"" + thread.getName() + "\"", e);
                             }
+
+                            ThreadStateStorage threadState = Bot.getThreadState();
+                            if (threadState != null) {
+                                try {
+                                    threadState.markClosed(thread.getId(), System.currentTimeMillis(), invoker.getId());
+                                } catch (IOException e) {
+                                    LogUtils.logException("[BOT] Error saving closure state of thread \"" + thread.getName() + "\"", e);
+                                }
+                            }
                         },
                         failure -> {
                             MessageEmbed failureEmbed = EmbedUtils.createError()
@@ -0,0 +1,66 @@
+package com.mcsmanager.bot.util;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The forum operations the inactivity scheduler depends on.
+ * Implemented on top of JDA for the bot and by a synthetic forum for simulations; every method
+ * returning a future stands for Discord requests, the others are answered from the cache.
+ *
+ * @author SkyKing_PX
+ */
+public interface ForumGateway {
+
+    /**
+     * Cached facts about a forum thread.
+     *
+     * @param id ID of the thread
+     * @param name Name of the thread
+     * @param forumName Name of the forum the thread belongs to
+     * @param latestMessageAt Epoch milliseconds of the latest message, from its snowflake; 0 if there is none
+     * @param exempt Whether the thread is never reminded or closed, e.g. pinned or already closed
+     */
+    record ForumThread(String id, String name, String forumName, long latestMessageAt, boolean exempt) {
+    }
+
+    /**
+     * Gets the open threads of the checked forums.
+     *
+     * @return The threads that are not archived
+     */
+    List<ForumThread> getOpenThreads();
+
+    /**
+     * Gets an open thread of the checked forums.
+     *
+     * @param threadId ID of the thread
+     * @return The thread, or null if it is unknown, archived or in another forum
+     */
+    ForumThread getOpenThread(String threadId);
+
+    /**
+     * Reads the recent history of a thread.
+     *
+     * @param thread The thread
+     * @return Snapshot of the history, or null if the thread has no messages
+     */
+    CompletableFuture<InactivityPolicy.Snapshot> fetchHistory(ForumThread thread);
+
+    /**
+     * Sends the inactivity reminder to a thread.
+     *
+     * @param thread The thread
+     * @return Time the reminder was sent
+     */
+    CompletableFuture<Instant> sendReminder(ForumThread thread);
+
+    /**
+     * Sends the closure notice to a thread, then locks and archives it.
+     *
+     * @param thread The thread
+     * @return Time the closure notice was sent
+     */
+    CompletableFuture<Instant> close(ForumThread thread);
+}
@@ -1,316 +1,182 @@
 package com.mcsmanager.bot.util;
 
+import com.mcsmanager.bot.Bot;
 import com.mcsmanager.bot.Config;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
-import net.dv8tion.jda.api.entities.channel.forums.ForumTagSnowflake;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.time.OffsetDateTime;
-import java.time.ZonedDateTime;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.time.Clock;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles checking for inactive forum posts and automatically closing them after 30 days.
- * Runs daily at 12 PM to check Bug Report and Support forums for inactive threads.
+ * Connects an {@link InactivityScheduler} for the Bug Report and Support forums to JDA: message
+ * events move the deadlines of their threads and a daemon thread advances the scheduler every tick.
+ * Deadlines are rebuilt from the persisted thread state index on startup, so deadlines missed while
+ * the bot was offline fire right away.
  *
  * @author SkyKing_PX
  */
 public class InactivityChecker extends ListenerAdapter {
 
-    private static Timer timer;
+    private static ScheduledExecutorService ticker;
+    private static InactivityScheduler scheduler;
     private static JDA jda;
 
     /**
-     * Starts the inactivity checker timer.
-     * Schedules the task to run daily at 12 PM.
+     * Starts the inactivity checker on the system clock.
+     * Calling it again only replaces the JDA instance and schedules the open threads again.
      *
      * @param jdaInstance The JDA instance
      */
     public static void start(JDA jdaInstance) {
-        jda = jdaInstance;
-        timer = new Timer("InactivityChecker", true);
-        scheduleNextRun();
-        LogUtils.logInfo("Inactivity Checker started. Will run daily at 12:00 PM.");
+        start(jdaInstance, Clock.systemUTC());
     }
 
     /**
-     * Schedules the next run of the inactivity checker.
-     * Calculates the time until the next 12 PM and schedules accordingly.
+     * Starts the inactivity checker, advancing the deadline wheel once per tick.
+     * The open threads are scheduled shortly after, once JDA is fully connected.
+     * Calling it again only replaces the JDA instance and schedules the open threads again.
+     *
+     * @param jdaInstance The JDA instance
+     * @param clock Source of the current time
      */
-    public static void scheduleNextRun() {
-        ZonedDateTime now = ZonedDateTime.now();
-        ZonedDateTime next12PM = now.withHour(12).withMinute(0).withSecond(0).withNano(0);
-
-        // If it's already past 12 PM today, schedule for tomorrow
-        if (now.isAfter(next12PM)) {
-            next12PM = next12PM.plusDays(1);
+    public static synchronized void start(JDA jdaInstance, Clock clock) {
+        jda = jdaInstance;
+        if (ticker == null) {
+            scheduler = new InactivityScheduler(clock, Bot.getThreadState(), new JdaForumGateway(jdaInstance), getMaxConcurrentRequests());
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "InactivityChecker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(InactivityChecker::tick, InactivityScheduler.TICK_MILLIS, InactivityScheduler.TICK_MILLIS, TimeUnit.MILLISECONDS);
+            LogUtils.logInfo("Inactivity Checker started. Deadlines are checked every minute.");
         }
 
-        long delayMillis = next12PM.toInstant().toEpochMilli() - System.currentTimeMillis();
-
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    checkInactiveThreads();
-                } catch (Exception e) {
-                    LogUtils.logException("Error during inactivity check", e);
-                }
-                // Reschedule for the next day
-                scheduleNextRun();
+        // Delay scheduling the open threads to allow JDA to fully connect
+        ticker.schedule(() -> {
+            try {
+                checkInactiveThreads();
+            } catch (Exception e) {
+                LogUtils.logException("Error during initial inactivity check", e);
             }
-        }, delayMillis);
-
-        LogUtils.logInfo("Inactivity Checker scheduled to run at: " + next12PM);
+        }, 5, TimeUnit.SECONDS);
     }
 
     /**
-     * Checks both Bug Report and Support forums for inactive threads.
-     *
-     * @throws IOException If there is an error accessing configuration
+     * Processes the threads whose deadline has passed and logs the outcome of the burst.
      */
-    public static void checkInactiveThreads() throws IOException {
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED) {
-            LogUtils.logWarning("JDA not connected, skipping inactivity check");
-            return;
-        }
+    private static void tick() {
+        try {
+            if (jda == null || jda.getStatus() != JDA.Status.CONNECTED) {
+                return; // Due deadlines stay in the wheel until the next tick
+            }
 
-        Guild guild = jda.getGuildById(Config.get().getBot().getGuild_id());
-        if (guild == null) {
-            LogUtils.logWarning("Guild not found, skipping inactivity check");
-            return;
+            long started = System.currentTimeMillis();
+            scheduler.tick().thenAccept(counts -> {
+                int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+                if (total == 0) {
+                    return;
+                }
+                LogUtils.logInfo("Inactivity check: " + total + " due threads processed in "
+                        + (System.currentTimeMillis() - started) + " ms ("
+                        + counts.getOrDefault(InactivityPolicy.Decision.REMIND, 0) + " reminded, "
+                        + counts.getOrDefault(InactivityPolicy.Decision.CLOSE, 0) + " closed)");
+            });
+        } catch (Exception e) {
+            LogUtils.logException("Error during inactivity check", e);
         }
-
-        // Check Bug Report Forum
-        checkForumInactivity(guild, Config.get().getBugReport().getBugReport_forum_id(), "Bug Report");
-
-        // Check Support Forum
-        checkForumInactivity(guild, Config.get().getSupport().getSupport_forum_id(), "Support");
     }
 
     /**
-     * Checks a specific forum for inactive threads.
-     *
-     * @param guild The Discord guild
-     * @param forumId The forum channel ID
-     * @param forumName The name of the forum (for logging)
+     * Schedules the deadlines of all open threads in the Bug Report and Support forums.
+     * Threads known to the thread state index are scheduled from their stored activity,
+     * others from the time of their latest message.
      */
-    private static void checkForumInactivity(Guild guild, String forumId, String forumName) {
-        ForumChannel forum = guild.getForumChannelById(forumId);
-        if (forum == null) {
-            LogUtils.logWarning("Forum " + forumName + " not found");
+    public static void checkInactiveThreads() {
+        if (jda == null || scheduler == null || jda.getStatus() != JDA.Status.CONNECTED) {
+            LogUtils.logWarning("JDA not connected, skipping inactivity check");
             return;
         }
 
-        forum.getThreadChannels().forEach(thread -> {
-            if (!thread.isArchived()) {
-                processThread(thread, forumName);
-            }
-        });
+        long started = System.currentTimeMillis();
+        int deadlines = scheduler.scheduleAll();
+        LogUtils.logInfo("Inactivity Checker tracks " + deadlines + " deadlines (scheduled in "
+                + (System.currentTimeMillis() - started) + " ms).");
     }
 
     /**
-     * Processes a single thread to check for inactivity.
-     * Sends a reminder at 7 days and closes at 30 days of inactivity.
+     * Decides about every open thread of the Bug Report and Support forums without sending anything.
      *
-     * @param thread The thread channel to check
-     * @param forumName The name of the forum
+     * @return The open threads by the action that would be taken now
      */
-    private static void processThread(ThreadChannel thread, String forumName) {
-        try {
-            // Skip pinned posts
-            if (thread.isPinned()) {
-                return;
-            }
-
-            // Skip posts that are already closed
-            boolean isClosed = thread.getAppliedTags().stream()
-                    .anyMatch(tag -> tag.getName().toLowerCase().contains("closed"));
-            if (isClosed) {
-                return;
-            }
-
-            // Get the latest message in the thread
-            thread.getHistory().retrievePast(100).queue(messages -> {
-                if (messages == null || messages.isEmpty()) {
-                    return; // No messages to check
-                }
-
-                // For reminder check: find the latest message (including bot messages)
-                Message latestMessage = null;
-                for (Message message : messages) {
-                    latestMessage = message;
-                    break;
-                }
-
-                // For auto-close check: find the latest non-bot user message
-                Message latestUserMessage = null;
-                for (Message message : messages) {
-                    if (!message.getAuthor().isBot()) {
-                        latestUserMessage = message;
-                        break;
-                    }
-                }
-
-                if (latestUserMessage == null) {
-                    return; // No user messages found
-                }
-
-                OffsetDateTime userMessageTime = latestUserMessage.getTimeCreated();
-                long daysSinceLastUserMessage = calculateDaysSince(userMessageTime);
-
-                // For reminders: check if the last message (any message) is older than 7 days
-                if (latestMessage != null) {
-                    OffsetDateTime latestMessageTime = latestMessage.getTimeCreated();
-                    long daysSinceLastMessage = calculateDaysSince(latestMessageTime);
-
-                    // Between 7 and 29 days since ANY message: send reminder
-                    if (daysSinceLastMessage >= 7 && daysSinceLastMessage < 30) {
-                        sendReminderMessage(thread);
-                    }
-                }
-
-                // At 30 days or more since last USER message: auto-close the thread
-                if (daysSinceLastUserMessage >= 30) {
-                    autoCloseThread(thread, forumName);
-                }
-            }, error -> {
-                LogUtils.logException("Error retrieving message history for thread " + thread.getName(), error);
-            });
-        } catch (Exception e) {
-            LogUtils.logException("Error processing thread " + thread.getName(), e);
+    public static CompletableFuture<Map<InactivityPolicy.Decision, List<ForumGateway.ForumThread>>> dryRun() {
+        if (scheduler == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The inactivity checker is not running"));
         }
+        return scheduler.dryRun();
     }
 
     /**
-     * Calculates the number of days between a given time and now.
+     * Keeps the activity index and the deadlines up to date with messages in support and bug report threads.
      *
-     * @param offsetDateTime The time to compare
-     * @return Number of days elapsed (rounded down)
+     * @param event The message received event
      */
-    private static long calculateDaysSince(OffsetDateTime offsetDateTime) {
-        Instant messageInstant = offsetDateTime.toInstant();
-        Instant now = Instant.now();
-        long secondsDiff = now.getEpochSecond() - messageInstant.getEpochSecond();
-        return secondsDiff / (24 * 60 * 60);
-    }
+    @Override
+    public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+        InactivityScheduler current = scheduler;
+        if (current == null || !event.isFromThread()) {
+            return;
+        }
 
-    /**
-     * Sends a reminder message to the thread asking if the issue was resolved.
-     * Checks if a reminder was already sent to prevent duplicates.
-     *
-     * @param thread The thread to send the reminder to
-     */
-    private static void sendReminderMessage(ThreadChannel thread) {
+        ThreadChannel thread = event.getChannel().asThreadChannel();
         try {
-            // Check if a reminder message already exists
-            thread.getHistory().retrievePast(100).queue(messages -> {
-                boolean reminderAlreadySent = messages.stream()
-                        .anyMatch(msg -> msg.getAuthor().isBot() &&
-                                msg.getEmbeds().stream()
-                                        .anyMatch(embed -> embed.getFields().stream()
-                                                .anyMatch(field -> "Inactivity notice".equals(field.getName()))));
-
-                if (reminderAlreadySent) {
-                    LogUtils.logDebug("Reminder already sent to thread: " + thread.getName());
-                    return;
-                }
-
-                // Ping the original post creator (thread owner), not the last message author
-                long threadCreatorId = thread.getOwnerIdLong();
-                MessageEmbed reminder = EmbedUtils.createWarning().addField("Inactivity notice", "It looks like your issue hasn't received a reply in the last 7 days.\nHas your issue been resolved? If so, please close this post using the `/close` command.\nIf not, please try to provide more information or ping the moderators.\n\n> Note: If this post stays inactive for a total of 30 days it will be closed automatically.", false).build();
-
-                thread.sendMessage("<@" + threadCreatorId + ">").addEmbeds(reminder).queue(
-                        success -> LogUtils.logInfo("Sent reminder to thread: " + thread.getName()),
-                        failure -> LogUtils.logException("Failed to send reminder to thread: " + thread.getName(), failure)
-                );
-            }, error -> {
-                LogUtils.logException("Error checking for existing reminders in thread " + thread.getName(), error);
-            });
-        } catch (Exception e) {
-            LogUtils.logException("Error sending reminder message", e);
+            String parentId = thread.getParentChannel().getId();
+            Config config = Config.get();
+            if (!parentId.equals(config.getSupport().getSupport_forum_id())
+                    && !parentId.equals(config.getBugReport().getBugReport_forum_id())) {
+                return;
+            }
+            current.recordMessage(thread.getId(), event.getMessage().getTimeCreated().toInstant().toEpochMilli(),
+                    event.getAuthor().isBot());
+        } catch (IOException e) {
+            LogUtils.logException("Error recording activity in thread " + thread.getName(), e);
         }
     }
 
     /**
-     * Automatically closes a thread after 30 days of inactivity.
+     * Gets the configured number of requests the checker may have in flight.
      *
-     * @param thread The thread to close
-     * @param forumName The name of the forum
+     * @return The request limit, at least 1
      */
-    private static void autoCloseThread(ThreadChannel thread, String forumName) {
+    private static int getMaxConcurrentRequests() {
         try {
-            // Check if a closure message already exists
-            thread.getHistory().retrievePast(100).queue(messages -> {
-                boolean closureAlreadySent = messages.stream()
-                        .anyMatch(msg -> msg.getAuthor().isBot() &&
-                                msg.getEmbeds().stream()
-                                        .anyMatch(embed -> "❗ Post closed".equals(embed.getTitle())));
-
-                if (closureAlreadySent) {
-                    LogUtils.logDebug("Closure message already sent to thread: " + thread.getName());
-                    return;
-                }
-
-                // Apply closed tag
-                String closedTagName = "closed";
-                var closedTag = thread.getParentChannel().asForumChannel().getAvailableTags().stream()
-                        .filter(tag -> tag.getName().toLowerCase().contains(closedTagName))
-                        .findFirst()
-                        .orElse(null);
-
-                List<ForumTagSnowflake> updatedTags = new java.util.ArrayList<>(thread.getAppliedTags());
-                if (closedTag != null && !updatedTags.contains(closedTag)) {
-                    updatedTags.add(closedTag);
-                }
-
-                // Send closure message with embed and ping the thread owner
-                long threadCreatorId = thread.getOwnerIdLong();
-                MessageEmbed closureEmbed = EmbedUtils.createError()
-                        .setTitle("❗ Post closed")
-                        .setDescription("This post has been automatically closed due to inactivity (30+ days with no user response).\n\n" +
-                                "If you still need help, feel free to create a new post in the " + forumName + " forum.\n\n" +
-                                "> Note: This feature is still in the testing phase. If you feel that your post was closed due to an error, please ping @skyking_px.")
-                        .build();
-
-                thread.sendMessage("<@" + threadCreatorId + ">").addEmbeds(closureEmbed).queue(
-                        msgSuccess -> {
-                            LogUtils.logInfo("Sent closure notification to thread: " + thread.getName());
-                            // Lock and archive the thread after sending the message
-                            thread.getManager()
-                                    .setAppliedTags(updatedTags.stream().map(tag -> (net.dv8tion.jda.api.entities.channel.forums.ForumTag) tag).toList())
-                                    .setLocked(true)
-                                    .setArchived(true)
-                                    .queue(
-                                            lockSuccess -> LogUtils.logInfo("Auto-closed and locked: " + thread.getName()),
-                                            lockFailure -> LogUtils.logException("Failed to lock/archive thread: " + thread.getName(), lockFailure)
-                                    );
-                        },
-                        msgFailure -> LogUtils.logException("Failed to send closure message for: " + thread.getName(), msgFailure)
-                );
-            }, error -> {
-                LogUtils.logException("Error checking for existing closure message in thread " + thread.getName(), error);
-            });
-        } catch (Exception e) {
-            LogUtils.logException("Error auto-closing thread: " + thread.getName(), e);
+            Config.Inactivity settings = Config.get().getInactivity();
+            return settings == null ? 2 : Math.max(1, settings.getMaxConcurrentRequests());
+        } catch (IOException e) {
+            LogUtils.logException("Error loading inactivity settings, using defaults", e);
+            return 2;
         }
     }
 
     /**
      * Stops the inactivity checker.
      */
-    public static void stop() {
-        if (timer != null) {
-            timer.cancel();
+    public static synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+            scheduler = null;
             LogUtils.logInfo("Inactivity Checker stopped.");
         }
     }
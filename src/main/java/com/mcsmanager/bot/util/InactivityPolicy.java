@@ -0,0 +1,99 @@
+package com.mcsmanager.bot.util;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides what the inactivity sweep does with a forum thread.
+ * Works on a snapshot of the thread taken once per sweep, so the decision needs no further
+ * Discord requests and can be reasoned about (and tested) without a connection.
+ *
+ * @author SkyKing_PX
+ */
+public final class InactivityPolicy {
+
+    /** Days without any message after which the thread owner is reminded */
+    public static final int REMIND_AFTER_DAYS = 7;
+    /** Days without a user message after which the thread is closed */
+    public static final int CLOSE_AFTER_DAYS = 30;
+
+    private InactivityPolicy() {
+    }
+
+    /**
+     * Everything the policy needs to know about a thread.
+     *
+     * @param lastMessage Time of the latest message, including bot messages, or null if there is none
+     * @param lastUserMessage Time of the latest message by a user, or null if there is none
+     * @param reminderSent Whether an inactivity reminder was already sent
+     * @param closureSent Whether a closure notice was already sent
+     */
+    public record Snapshot(Instant lastMessage, Instant lastUserMessage, boolean reminderSent, boolean closureSent) {
+    }
+
+    /**
+     * Action for a thread.
+     */
+    public enum Decision {
+        /** Leave the thread alone */
+        NONE,
+        /** Remind the owner that the thread is inactive */
+        REMIND,
+        /** Close the thread */
+        CLOSE
+    }
+
+    /**
+     * Decides what to do with a thread.
+     * Closing takes precedence: a thread that is due to be closed is not reminded first.
+     *
+     * @param snapshot The thread snapshot
+     * @param now The current time
+     * @return The action to take
+     */
+    public static Decision decide(Snapshot snapshot, Instant now) {
+        if (snapshot.lastUserMessage() == null) {
+            return Decision.NONE;
+        }
+
+        if (daysBetween(snapshot.lastUserMessage(), now) >= CLOSE_AFTER_DAYS) {
+            return snapshot.closureSent() ? Decision.NONE : Decision.CLOSE;
+        }
+
+        long daysSinceLastMessage = daysBetween(snapshot.lastMessage(), now);
+        if (daysSinceLastMessage >= REMIND_AFTER_DAYS && daysSinceLastMessage < CLOSE_AFTER_DAYS && !snapshot.reminderSent()) {
+            return Decision.REMIND;
+        }
+        return Decision.NONE;
+    }
+
+    /**
+     * Calculates when the decision for a thread changes next if nothing else happens in it.
+     *
+     * @param snapshot The thread snapshot
+     * @return Time at which a reminder or closure becomes due, or null if none will
+     */
+    public static Instant nextDeadline(Snapshot snapshot) {
+        if (snapshot.lastMessage() == null || snapshot.closureSent()) {
+            return null;
+        }
+
+        Instant remind = snapshot.reminderSent() ? null : snapshot.lastMessage().plus(Duration.ofDays(REMIND_AFTER_DAYS));
+        if (snapshot.lastUserMessage() == null) {
+            return remind;
+        }
+        Instant close = snapshot.lastUserMessage().plus(Duration.ofDays(CLOSE_AFTER_DAYS));
+        return remind == null || close.isBefore(remind) ? close : remind;
+    }
+
+    /**
+     * Calculates the number of whole days between two points in time.
+     *
+     * @param from The earlier time
+     * @param to The later time
+     * @return Number of days elapsed (rounded down)
+     */
+    public static long daysBetween(Instant from, Instant to) {
+        return Duration.between(from, to).toDays();
+    }
+}
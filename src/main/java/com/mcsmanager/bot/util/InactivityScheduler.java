@@ -0,0 +1,374 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.storage.ThreadStateStorage;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reminds and closes inactive forum threads at their deadlines.
+ * Every open thread has a deadline in a timing wheel at which its reminder or closure becomes due.
+ * Deadlines move whenever activity is seen and are decided from the thread state index; only threads
+ * that are about to be closed have their history read. All requests go through a request limit.
+ * A thread whose check fails is checked again after a retry delay, as its deadline has already left the wheel.
+ * Time is read from the given clock only, and the forum is reached through a {@link ForumGateway},
+ * so the same logic runs against Discord and in simulations.
+ *
+ * @author SkyKing_PX
+ */
+public class InactivityScheduler {
+
+    /** Precision of the deadlines in milliseconds */
+    public static final long TICK_MILLIS = 60_000;
+    /** Delay before a thread whose check failed is checked again */
+    private static final long RETRY_MILLIS = TimeUnit.HOURS.toMillis(1);
+    /** Number of processed threads between progress log lines of a burst */
+    private static final int PROGRESS_INTERVAL = 25;
+
+    private final Clock clock;
+    /** Thread state index, null if it could not be loaded */
+    private final ThreadStateStorage store;
+    private final ForumGateway forum;
+    private final TimingWheel<String> wheel;
+    private final RequestLimiter limiter;
+
+    /**
+     * Creates a scheduler without any deadlines.
+     *
+     * @param clock Source of the current time
+     * @param store Thread state index, null to decide from thread histories only
+     * @param forum The forum to check
+     * @param maxConcurrentRequests Maximum number of requests in flight
+     */
+    public InactivityScheduler(Clock clock, ThreadStateStorage store, ForumGateway forum, int maxConcurrentRequests) {
+        this.clock = clock;
+        this.store = store;
+        this.forum = forum;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, clock.millis());
+        this.limiter = new RequestLimiter(maxConcurrentRequests);
+    }
+
+    /**
+     * Schedules the deadlines of all open threads.
+     * Threads known to the thread state index are scheduled from their stored activity,
+     * others from the time of their latest message. Deadlines that have passed fire on the next tick.
+     *
+     * @return Number of scheduled deadlines
+     */
+    public int scheduleAll() {
+        for (ForumGateway.ForumThread thread : forum.getOpenThreads()) {
+            if (thread.exempt()) {
+                continue;
+            }
+            try {
+                if (store != null) {
+                    scheduleDeadline(store.observe(thread.id(), thread.latestMessageAt()), false);
+                } else if (thread.latestMessageAt() != 0) {
+                    // Without the index only the reminder deadline is known; the history decides the rest
+                    wheel.schedule(thread.id(), thread.latestMessageAt() + TimeUnit.DAYS.toMillis(InactivityPolicy.REMIND_AFTER_DAYS));
+                }
+            } catch (Exception e) {
+                LogUtils.logException("Error scheduling thread " + thread.name(), e);
+            }
+        }
+        return wheel.size();
+    }
+
+    /**
+     * Advances the deadline wheel to the current time and processes the threads whose deadline has passed.
+     * Progress of larger bursts, e.g. after downtime, is logged.
+     *
+     * @return Number of processed threads by the action taken, once all of them are done
+     */
+    public CompletableFuture<Map<InactivityPolicy.Decision, Integer>> tick() {
+        List<String> due = wheel.advance(clock.millis());
+        AtomicInteger done = new AtomicInteger();
+        List<CompletableFuture<InactivityPolicy.Decision>> running = new ArrayList<>();
+        for (String threadId : due) {
+            running.add(fire(threadId).whenComplete((decision, error) -> {
+                int count = done.incrementAndGet();
+                if (due.size() >= PROGRESS_INTERVAL && count % PROGRESS_INTERVAL == 0 && count < due.size()) {
+                    LogUtils.logInfo("Inactivity check: " + count + "/" + due.size() + " due threads processed, "
+                            + limiter.getWaiting() + " requests waiting");
+                }
+            }));
+        }
+
+        return CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).handle((ignored, error) -> {
+            Map<InactivityPolicy.Decision, Integer> counts = new EnumMap<>(InactivityPolicy.Decision.class);
+            running.forEach(future -> counts.merge(future.getNow(InactivityPolicy.Decision.NONE), 1, Integer::sum));
+            return counts;
+        });
+    }
+
+    /**
+     * Records a message in a checked thread and moves its deadline.
+     *
+     * @param threadId ID of the thread
+     * @param createdAt Epoch milliseconds at which the message was created
+     * @param bot Whether the message was sent by a bot
+     * @throws IOException If there is an error saving the thread state
+     */
+    public void recordMessage(String threadId, long createdAt, boolean bot) throws IOException {
+        if (store != null) {
+            scheduleDeadline(store.recordMessage(threadId, createdAt, bot), false);
+        }
+    }
+
+    /**
+     * Decides about every open thread without sending anything.
+     * History is only read for threads that are about to be closed, through the same request limit.
+     *
+     * @return The open threads by the action that would be taken now
+     */
+    public CompletableFuture<Map<InactivityPolicy.Decision, List<ForumGateway.ForumThread>>> dryRun() {
+        Map<ForumGateway.ForumThread, CompletableFuture<InactivityPolicy.Decision>> decisions = new LinkedHashMap<>();
+        for (ForumGateway.ForumThread thread : forum.getOpenThreads()) {
+            decisions.put(thread, processThread(thread, true));
+        }
+
+        return CompletableFuture.allOf(decisions.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<InactivityPolicy.Decision, List<ForumGateway.ForumThread>> result = new EnumMap<>(InactivityPolicy.Decision.class);
+            decisions.forEach((thread, decision) ->
+                    result.computeIfAbsent(decision.join(), key -> new ArrayList<>()).add(thread));
+            return result;
+        });
+    }
+
+    /**
+     * Gets the number of scheduled deadlines.
+     *
+     * @return Number of threads with a deadline
+     */
+    public int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Processes a thread whose deadline has passed.
+     *
+     * @param threadId ID of the thread
+     * @return The action taken
+     */
+    private CompletableFuture<InactivityPolicy.Decision> fire(String threadId) {
+        ForumGateway.ForumThread thread = forum.getOpenThread(threadId);
+        if (thread == null) {
+            return CompletableFuture.completedFuture(InactivityPolicy.Decision.NONE);
+        }
+        return processThread(thread, false);
+    }
+
+    /**
+     * Processes a single thread to check for inactivity.
+     * Activity and whether a notice was already sent are looked up in the thread state index.
+     * Sends a reminder at 7 days and closes at 30 days of inactivity.
+     *
+     * @param thread The thread to check
+     * @param dryRun Whether to only decide, without sending anything
+     * @return The action taken, or that would be taken in a dry run
+     */
+    private CompletableFuture<InactivityPolicy.Decision> processThread(ForumGateway.ForumThread thread, boolean dryRun) {
+        try {
+            // Skip pinned posts and posts that are already closed
+            if (thread.exempt()) {
+                return CompletableFuture.completedFuture(InactivityPolicy.Decision.NONE);
+            }
+
+            if (store == null) {
+                return processFromHistory(thread, dryRun);
+            }
+
+            // Catch up on messages missed while the bot was offline
+            ThreadStateStorage.ThreadState state = store.observe(thread.id(), thread.latestMessageAt());
+            if (state.lastMessageAt == 0) {
+                return CompletableFuture.completedFuture(InactivityPolicy.Decision.NONE); // No messages to check
+            }
+
+            Instant now = clock.instant();
+            Instant lastMessage = Instant.ofEpochMilli(state.lastMessageAt);
+            if (state.lastUserMessageAt == 0) {
+                // Nobody has written since the index knows the thread; read the history once it goes quiet
+                if (InactivityPolicy.daysBetween(lastMessage, now) >= InactivityPolicy.REMIND_AFTER_DAYS) {
+                    return processFromHistory(thread, dryRun);
+                }
+                scheduleDeadline(state, true);
+                return CompletableFuture.completedFuture(InactivityPolicy.Decision.NONE);
+            }
+
+            InactivityPolicy.Decision decision = InactivityPolicy.decide(snapshot(state), now);
+            if (decision == InactivityPolicy.Decision.REMIND && !state.isLatestAuthorKnown()) {
+                // A message was missed; only the history tells whether the author answered the reminder
+                return processFromHistory(thread, dryRun);
+            }
+            return switch (decision) {
+                case REMIND -> dryRun ? CompletableFuture.completedFuture(decision) : remind(thread);
+                case CLOSE -> processFromHistory(thread, dryRun); // confirm before closing
+                case NONE -> {
+                    scheduleDeadline(state, true);
+                    yield CompletableFuture.completedFuture(decision);
+                }
+            };
+        } catch (Exception e) {
+            LogUtils.logException("Error processing thread " + thread.name(), e);
+            return CompletableFuture.completedFuture(retryLater(thread, dryRun));
+        }
+    }
+
+    /**
+     * Decides about a thread from its recent history, fetched once. Used for threads that are
+     * about to be closed and threads whose last user message is unknown to the activity index.
+     * The activity read from the history is written back to the index; whether a notice was
+     * already sent comes from the index, which adopts notices found in the history if it has none recorded.
+     *
+     * @param thread The thread to check
+     * @param dryRun Whether to only decide, without sending anything
+     * @return The action taken, or that would be taken in a dry run
+     */
+    private CompletableFuture<InactivityPolicy.Decision> processFromHistory(ForumGateway.ForumThread thread, boolean dryRun) {
+        return limiter.submit(() -> forum.fetchHistory(thread)).thenCompose(history -> {
+            if (history == null) {
+                return CompletableFuture.completedFuture(InactivityPolicy.Decision.NONE); // No messages to check
+            }
+
+            InactivityPolicy.Snapshot snapshot = history;
+            ThreadStateStorage.ThreadState state = null;
+            if (store != null) {
+                try {
+                    state = store.confirm(thread.id(), history.lastMessage().toEpochMilli(),
+                            history.lastUserMessage() != null ? history.lastUserMessage().toEpochMilli() : 0);
+                    // Notices sent before the index existed are only known from their embeds; carry them over once
+                    if (history.reminderSent() && state.remindedAt == 0) {
+                        state = store.markReminded(thread.id(), history.lastMessage().toEpochMilli());
+                    }
+                    if (history.closureSent() && state.closedAt == 0) {
+                        state = store.markClosed(thread.id(), history.lastMessage().toEpochMilli(), ThreadStateStorage.CLOSED_BY_INACTIVITY);
+                    }
+                    snapshot = snapshot(state);
+                } catch (IOException e) {
+                    LogUtils.logException("Error saving thread state of " + thread.name(), e);
+                    return CompletableFuture.completedFuture(retryLater(thread, dryRun));
+                }
+            }
+
+            InactivityPolicy.Decision decision = InactivityPolicy.decide(snapshot, clock.instant());
+            if (decision == InactivityPolicy.Decision.NONE) {
+                if (state != null) {
+                    scheduleDeadline(state, true);
+                }
+                return CompletableFuture.completedFuture(decision);
+            }
+            if (dryRun) {
+                return CompletableFuture.completedFuture(decision);
+            }
+            return decision == InactivityPolicy.Decision.REMIND ? remind(thread) : close(thread);
+        }).exceptionally(error -> {
+            LogUtils.logException("Error retrieving message history for thread " + thread.name(), error);
+            return retryLater(thread, dryRun);
+        });
+    }
+
+    /**
+     * Sends the reminder to a thread and records it.
+     *
+     * @param thread The thread to remind
+     * @return REMIND once the reminder was sent, NONE if sending failed
+     */
+    private CompletableFuture<InactivityPolicy.Decision> remind(ForumGateway.ForumThread thread) {
+        return limiter.submit(() -> forum.sendReminder(thread)).handle((sentAt, failure) -> {
+            if (failure != null) {
+                LogUtils.logException("Failed to send reminder to thread: " + thread.name(), failure);
+                return retryLater(thread, false);
+            }
+
+            if (store != null) {
+                try {
+                    scheduleDeadline(store.markReminded(thread.id(), sentAt.toEpochMilli()), false);
+                } catch (IOException e) {
+                    LogUtils.logException("Error saving reminder state of " + thread.name(), e);
+                    retryLater(thread, false);
+                }
+            }
+            return InactivityPolicy.Decision.REMIND;
+        });
+    }
+
+    /**
+     * Closes a thread and records it.
+     *
+     * @param thread The thread to close
+     * @return CLOSE once the closure notice was sent, NONE if sending failed
+     */
+    private CompletableFuture<InactivityPolicy.Decision> close(ForumGateway.ForumThread thread) {
+        return limiter.submit(() -> forum.close(thread)).handle((closedAt, failure) -> {
+            if (failure != null) {
+                LogUtils.logException("Failed to auto-close thread: " + thread.name(), failure);
+                return retryLater(thread, false);
+            }
+
+            wheel.cancel(thread.id());
+            if (store != null) {
+                try {
+                    store.markClosed(thread.id(), closedAt.toEpochMilli(), ThreadStateStorage.CLOSED_BY_INACTIVITY);
+                } catch (IOException e) {
+                    LogUtils.logException("Error saving closure state of " + thread.name(), e);
+                }
+            }
+            return InactivityPolicy.Decision.CLOSE;
+        });
+    }
+
+    /**
+     * Schedules another check of a thread whose check failed.
+     * Dry runs leave the wheel alone.
+     *
+     * @param thread The thread to check again
+     * @param dryRun Whether the failed check was part of a dry run
+     * @return NONE, as no action was taken
+     */
+    private InactivityPolicy.Decision retryLater(ForumGateway.ForumThread thread, boolean dryRun) {
+        if (!dryRun) {
+            wheel.schedule(thread.id(), clock.millis() + RETRY_MILLIS);
+        }
+        return InactivityPolicy.Decision.NONE;
+    }
+
+    /**
+     * Schedules the next deadline of a thread in the wheel.
+     *
+     * @param state The thread state
+     * @param decided Whether the thread was just decided about; a deadline that is still due then
+     *                means nothing changes before new activity, so it is dropped instead of firing again
+     */
+    private void scheduleDeadline(ThreadStateStorage.ThreadState state, boolean decided) {
+        Instant deadline = InactivityPolicy.nextDeadline(snapshot(state));
+        if (deadline == null || (decided && !deadline.isAfter(clock.instant()))) {
+            wheel.cancel(state.threadId);
+        } else {
+            wheel.schedule(state.threadId, deadline.toEpochMilli());
+        }
+    }
+
+    /**
+     * Builds the policy snapshot of a thread from its entry in the thread state index.
+     * A reminder followed by a message of unknown author may have been answered, so it is not counted;
+     * the thread's history is read before another reminder is sent.
+     *
+     * @param state The thread state
+     * @return The snapshot
+     */
+    private static InactivityPolicy.Snapshot snapshot(ThreadStateStorage.ThreadState state) {
+        return new InactivityPolicy.Snapshot(
+                state.lastMessageAt != 0 ? Instant.ofEpochMilli(state.lastMessageAt) : null,
+                state.lastUserMessageAt != 0 ? Instant.ofEpochMilli(state.lastUserMessageAt) : null,
+                state.isReminded() && state.isLatestAuthorKnown(), state.isClosed());
+    }
+}
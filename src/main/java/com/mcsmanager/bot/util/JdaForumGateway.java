@@ -0,0 +1,215 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Config;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
+import net.dv8tion.jda.api.utils.TimeUtil;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link ForumGateway} for the Bug Report and Support forums of the configured guild.
+ *
+ * @author SkyKing_PX
+ */
+public class JdaForumGateway implements ForumGateway {
+
+    private final JDA jda;
+
+    /**
+     * Creates a gateway.
+     *
+     * @param jda The JDA instance
+     */
+    public JdaForumGateway(JDA jda) {
+        this.jda = jda;
+    }
+
+    @Override
+    public List<ForumThread> getOpenThreads() {
+        List<ForumThread> threads = new ArrayList<>();
+        try {
+            Config config = Config.get();
+            Guild guild = jda.getGuildById(config.getBot().getGuild_id());
+            if (guild == null) {
+                LogUtils.logWarning("Guild not found, skipping inactivity check");
+                return threads;
+            }
+
+            // Check Bug Report Forum
+            addOpenThreads(guild, config.getBugReport().getBugReport_forum_id(), "Bug Report", threads);
+
+            // Check Support Forum
+            addOpenThreads(guild, config.getSupport().getSupport_forum_id(), "Support", threads);
+        } catch (IOException e) {
+            LogUtils.logException("Error loading forum IDs", e);
+        }
+        return threads;
+    }
+
+    private void addOpenThreads(Guild guild, String forumId, String forumName, List<ForumThread> threads) {
+        ForumChannel forum = guild.getForumChannelById(forumId);
+        if (forum == null) {
+            LogUtils.logWarning("Forum " + forumName + " not found");
+            return;
+        }
+
+        for (ThreadChannel thread : forum.getThreadChannels()) {
+            if (!thread.isArchived()) {
+                threads.add(describe(thread, forumName));
+            }
+        }
+    }
+
+    @Override
+    public ForumThread getOpenThread(String threadId) {
+        ThreadChannel thread = jda.getThreadChannelById(threadId);
+        if (thread == null || thread.isArchived()) {
+            return null;
+        }
+
+        try {
+            String parentId = thread.getParentChannel().getId();
+            Config config = Config.get();
+            if (parentId.equals(config.getBugReport().getBugReport_forum_id())) {
+                return describe(thread, "Bug Report");
+            } else if (parentId.equals(config.getSupport().getSupport_forum_id())) {
+                return describe(thread, "Support");
+            }
+        } catch (IOException e) {
+            LogUtils.logException("Error loading forum IDs", e);
+        }
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<InactivityPolicy.Snapshot> fetchHistory(ForumThread thread) {
+        ThreadChannel channel = jda.getThreadChannelById(thread.id());
+        if (channel == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return channel.getHistory().retrievePast(100).submit()
+                .thenApply(messages -> messages == null || messages.isEmpty() ? null : snapshot(messages));
+    }
+
+    @Override
+    public CompletableFuture<Instant> sendReminder(ForumThread thread) {
+        ThreadChannel channel = jda.getThreadChannelById(thread.id());
+        if (channel == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Thread " + thread.id() + " is gone"));
+        }
+
+        // Ping the original post creator (thread owner), not the last message author
+        long threadCreatorId = channel.getOwnerIdLong();
+        MessageEmbed reminder = EmbedUtils.createWarning().addField("Inactivity notice", "It looks like your issue hasn't received a reply in the last 7 days.\nHas your issue been resolved? If so, please close this post using the `/close` command.\nIf not, please try to provide more information or ping the moderators.\n\n> Note: If this post stays inactive for a total of 30 days it will be closed automatically.", false).build();
+
+        return channel.sendMessage("<@" + threadCreatorId + ">").addEmbeds(reminder).submit().thenApply(message -> {
+            LogUtils.logInfo("Sent reminder to thread: " + channel.getName());
+            return message.getTimeCreated().toInstant();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Instant> close(ForumThread thread) {
+        ThreadChannel channel = jda.getThreadChannelById(thread.id());
+        if (channel == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Thread " + thread.id() + " is gone"));
+        }
+
+        // Apply closed tag
+        String closedTagName = "closed";
+        ForumTag closedTag = channel.getParentChannel().asForumChannel().getAvailableTags().stream()
+                .filter(tag -> tag.getName().toLowerCase().contains(closedTagName))
+                .findFirst()
+                .orElse(null);
+
+        List<ForumTag> updatedTags = new ArrayList<>(channel.getAppliedTags());
+        if (closedTag != null && !updatedTags.contains(closedTag)) {
+            updatedTags.add(closedTag);
+        }
+
+        // Send closure message with embed and ping the thread owner
+        long threadCreatorId = channel.getOwnerIdLong();
+        MessageEmbed closureEmbed = EmbedUtils.createError()
+                .setTitle("❗ Post closed")
+                .setDescription("This post has been automatically closed due to inactivity (30+ days with no user response).\n\n" +
+                        "If you still need help, feel free to create a new post in the " + thread.forumName() + " forum.\n\n" +
+                        "> Note: This feature is still in the testing phase. If you feel that your post was closed due to an error, please ping @skyking_px.")
+                .build();
+
+        return channel.sendMessage("<@" + threadCreatorId + ">").addEmbeds(closureEmbed).submit().thenCompose(message -> {
+            LogUtils.logInfo("Sent closure notification to thread: " + channel.getName());
+            Instant sentAt = message.getTimeCreated().toInstant();
+
+            // Lock and archive the thread after sending the message; the closure counts once the notice is out
+            return channel.getManager()
+                    .setAppliedTags(updatedTags)
+                    .setLocked(true)
+                    .setArchived(true)
+                    .submit()
+                    .handle((lockSuccess, lockFailure) -> {
+                        if (lockFailure != null) {
+                            LogUtils.logException("Failed to lock/archive thread: " + channel.getName(), lockFailure);
+                        } else {
+                            LogUtils.logInfo("Auto-closed and locked: " + channel.getName());
+                        }
+                        return sentAt;
+                    });
+        });
+    }
+
+    private static ForumThread describe(ThreadChannel thread, String forumName) {
+        long latestMessageId = thread.getLatestMessageIdLong();
+        // The latest message ID tells when the thread was last active, without a request
+        long latestMessageAt = latestMessageId == 0 ? 0 : TimeUtil.getTimeCreated(latestMessageId).toInstant().toEpochMilli();
+        return new ForumThread(thread.getId(), thread.getName(), forumName, latestMessageAt, isExempt(thread));
+    }
+
+    /**
+     * Checks whether a thread is never reminded or closed: pinned posts and posts that are already closed.
+     *
+     * @param thread The thread channel to check
+     * @return True if the thread is exempt
+     */
+    private static boolean isExempt(ThreadChannel thread) {
+        return thread.isPinned() || thread.getAppliedTags().stream()
+                .anyMatch(tag -> tag.getName().toLowerCase().contains("closed"));
+    }
+
+    /**
+     * Builds the policy snapshot of a thread from its recent history.
+     * Sent notices are recognized by their embeds, which is used when the thread state index is
+     * unavailable and to carry notices sent before the index existed over into it.
+     *
+     * @param messages The recent messages, newest first
+     * @return The snapshot
+     */
+    private static InactivityPolicy.Snapshot snapshot(List<Message> messages) {
+        Instant lastMessage = messages.get(0).getTimeCreated().toInstant();
+        Instant lastUserMessage = null;
+        boolean reminderSent = false;
+        boolean closureSent = false;
+        for (Message message : messages) {
+            if (!message.getAuthor().isBot()) {
+                if (lastUserMessage == null) {
+                    lastUserMessage = message.getTimeCreated().toInstant();
+                }
+                continue;
+            }
+            for (MessageEmbed embed : message.getEmbeds()) {
+                reminderSent |= embed.getFields().stream().anyMatch(field -> "Inactivity notice".equals(field.getName()));
+                closureSent |= "❗ Post closed".equals(embed.getTitle());
+            }
+        }
+        return new InactivityPolicy.Snapshot(lastMessage, lastUserMessage, reminderSent, closureSent);
+    }
+}
@@ -1,36 +1,179 @@
 package com.mcsmanager.bot.util;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.logs.CrashSignature;
+import com.mcsmanager.bot.logs.EnvironmentTap;
+import com.mcsmanager.bot.logs.ErrorBlockFinder;
+import com.mcsmanager.bot.logs.ErrorSignature;
+import com.mcsmanager.bot.logs.InlineLogDetector;
+import com.mcsmanager.bot.logs.InlineLogStitcher;
+import com.mcsmanager.bot.logs.LogArchiveReader;
+import com.mcsmanager.bot.logs.LogTailReader;
+import com.mcsmanager.bot.logs.LogTap;
+import com.mcsmanager.bot.logs.LogUploadResult;
+import com.mcsmanager.bot.logs.RedactingInputStream;
+import com.mcsmanager.bot.logs.SamplingInputStream;
+import com.mcsmanager.bot.logs.SignatureScanner;
+import com.mcsmanager.bot.logs.StackTraceTap;
+import com.mcsmanager.bot.logs.TailTap;
+import com.mcsmanager.bot.logs.TappedInputStream;
+import com.mcsmanager.bot.paste.PasteContent;
+import com.mcsmanager.bot.storage.CrashSignatureStorage;
+import com.mcsmanager.bot.storage.LogCacheStorage;
+import com.mcsmanager.bot.storage.UploadSpoolStorage;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
 import net.dv8tion.jda.api.components.buttons.Button;
 import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.HttpEntity;
-import org.apache.hc.core5.http.NameValuePair;
-import org.apache.hc.core5.http.message.BasicNameValuePair;
-
-import java.io.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 
 /**
  * Event listener for automatically uploading log files and crash reports.
- * Detects .log files and crash reports in messages and uploads them to mclo.gs.
+ * Detects .log files, crash reports and compressed log archives in messages, as well as logs pasted into
+ * message bodies, and uploads them to the configured paste service (mclo.gs by default).
  * 
  * @author SkyKing_PX
  */
 public class LogUploader extends ListenerAdapter {
 
+    /** Number of leading bytes fetched to fingerprint an attachment for the upload cache */
+    private static final int PROBE_BYTES = 64 * 1024;
+    /** Maximum number of detected error signatures shown in the result embed */
+    private static final int MAX_SIGNATURE_FIELDS = 5;
+    /** Maximum number of last-error excerpts shown in the result embed */
+    private static final int MAX_EXCERPT_FIELDS = 2;
+    /** Maximum length of a single excerpt in the result embed */
+    private static final int MAX_EXCERPT_CHARS = 900;
+    /** Maximum number of recurring crashes listed in the result embed */
+    private static final int MAX_CRASH_LINES = 3;
+    /** Redaction rules compiled from the current configuration */
+    private static volatile CompiledRules compiledRules;
+
+    /** Joins pasted logs split across consecutive messages */
+    private final InlineLogStitcher<MessageChannel> inlineStitcher = new InlineLogStitcher<>(
+            getSetting(Config.LogUpload::getInlineStitchSeconds, 8) * 1000L,
+            getSetting(Config.LogUpload::getInlineMaxChars, 256 * 1024),
+            this::uploadPasted);
+
+    /** Runs upload jobs through the spool and the upload executor */
+    private final UploadJobRunner jobs = new UploadJobRunner(new UploadJobRunner.Uploads() {
+        @Override
+        public List<Supplier<List<LogUploadResult>>> attachments(List<Message.Attachment> attachments) {
+            return attachmentUploads(attachments);
+        }
+
+        @Override
+        public Supplier<List<LogUploadResult>> pasted(String text, int parts) {
+            return () -> List.of(uploadInline(text, parts));
+        }
+
+        @Override
+        public CompletableFuture<Message> showResults(MessageChannel channel, Message placeholder, List<LogUploadResult> results) {
+            Map<EnvironmentTap.Fact, String> environment = mergeEnvironment(results);
+            applyEnvironmentTags(channel, environment);
+            return editSuccess(placeholder, results, recordCrashes(results, channel.getId()), environment);
+        }
+
+        @Override
+        public CompletableFuture<Message> showFailure(Message placeholder, Throwable error) {
+            return editFailure(placeholder, error);
+        }
+    });
+
+    /**
+     * Redaction rules compiled from a configured rule array.
+     *
+     * @param source The configured rules they were compiled from
+     * @param rules The compiled rules
+     */
+    private record CompiledRules(Config.RedactionRule[] source, List<RedactingInputStream.Rule> rules) {
+    }
+
+    /**
+     * Outcome of streaming a single log into a paste.
+     *
+     * @param url URL of the paste
+     * @param hash Hex SHA-256 of the original content
+     * @param signatures Known failures recognised in the log
+     * @param redactions Number of redacted values
+     * @param tail The trailing bytes of the log, or null if not requested
+     * @param crashes Crash signatures of the stack traces in the log
+     * @param environment Environment facts found in the log
+     */
+    private record StreamedUpload(String url, String hash, List<ErrorSignature> signatures, int redactions, TailTap tail,
+                                  List<CrashSignature> crashes, Map<EnvironmentTap.Fact, String> environment) {
+    }
+
+    /**
+     * Analysis stages of a single upload attempt: digest, signature scan, stack trace and environment
+     * extraction, optional tail and redaction.
+     */
+    private static final class Analysis {
+        /** Digest of the original content */
+        private final DigestInputStream digest;
+        /** Signature scan of the original content */
+        private final SignatureScanner.Session scan;
+        /** Stack traces of the original content */
+        private final StackTraceTap traces;
+        /** Environment facts of the original content */
+        private final EnvironmentTap environment;
+        /** Trailing bytes of the original content, or null */
+        private final TailTap tail;
+        /** Redaction stage, or null if redaction is disabled */
+        private final RedactingInputStream redacted;
+        /** Stream handed to the paste service */
+        private final InputStream output;
+
+        Analysis(InputStream source, SignatureScanner scanner, int tailBytes) {
+            this.digest = new DigestInputStream(source, sha256());
+            this.scan = scanner.newSession();
+            this.traces = new StackTraceTap();
+            this.environment = new EnvironmentTap();
+            this.tail = tailBytes > 0 ? new TailTap(tailBytes) : null;
+            List<LogTap> taps = tail != null ? List.of(scan, traces, environment, tail) : List.of(scan, traces, environment);
+            InputStream analysed = new TappedInputStream(digest, taps);
+            this.redacted = createRedactor(analysed);
+            this.output = redacted != null ? redacted : analysed;
+        }
+    }
+
     /**
      * Handles message received events to detect and upload log files.
      * 
@@ -41,95 +184,755 @@ public class LogUploader extends ListenerAdapter {
         if (event.getAuthor().isBot()) return;
 
         // Collect all attachments we want to handle
-        Map<File, String> filesToUpload = new HashMap<>();
-        event.getMessage().getAttachments().stream()
-                .filter(att -> att.getFileName().endsWith(".log") || att.getFileName().toLowerCase().contains("crash"))
-                .forEach(att -> {
-                    try {
-                        File tmp = File.createTempFile("mcsm-log", ".tmp");
-                        att.getProxy().downloadToFile(tmp).join();
-                        filesToUpload.put(tmp, att.getFileName());
-                    } catch (IOException e) {
-                        event.getChannel().sendMessage("❌ Couldn't save " + att.getFileName() + ".").queue();
-                    }
-                });
-
-        if (filesToUpload.isEmpty()) return;
-
-        // 1) send placeholder message
-        var loading = EmbedUtils.createDefault()
-                .setTitle("⏳ Uploading Logs …")
-                .setDescription("Please be patient.")
-                .setTimestamp(Instant.now());
+        List<Message.Attachment> attachments = event.getMessage().getAttachments().stream()
+                .filter(att -> att.getFileName().endsWith(".log") || att.getFileName().toLowerCase().contains("crash")
+                        || LogArchiveReader.isLogArchive(att.getFileName()))
+                .toList();
+
+        if (attachments.isEmpty()) {
+            handlePasted(event);
+            return;
+        }
+        inlineStitcher.interrupt(event.getChannel().getId());
 
-        event.getChannel().sendMessageEmbeds(loading.build()).queue(placeholder ->
-                // 2) run IO heavy work asynchronously so we don't block the gateway thread
-                CompletableFuture.supplyAsync(() -> uploadAll(filesToUpload))
-                        .thenAccept(result -> editSuccess(placeholder, result, filesToUpload))
-                        .exceptionally(ex -> { // any unhandled exception ends up here
-                            editFailure(placeholder, ex);
-                            return null;
-                        }));
+        UploadSpoolStorage.UploadJob job = new UploadSpoolStorage.UploadJob();
+        job.id = event.getMessageId();
+        job.channelId = event.getChannel().getId();
+        job.messageId = event.getMessageId();
+        job.attachmentIds = attachments.stream().map(Message.Attachment::getId).toList();
+        job.createdAt = Instant.now().toEpochMilli();
+
+        jobs.start(event.getChannel(), attachmentUploads(attachments), job);
+    }
+
+    /**
+     * Collects logs pasted into message bodies. Consecutive log messages of the same author are
+     * stitched together; any other message in the channel ends the paste.
+     *
+     * @param event The message received event
+     */
+    private void handlePasted(MessageReceivedEvent event) {
+        String channelId = event.getChannel().getId();
+        String authorId = event.getAuthor().getId();
+        Config.LogUpload settings;
+        try {
+            settings = Config.get().getLogUpload();
+        } catch (IOException e) {
+            LogUtils.logException("Error while reading log upload config", e);
+            return;
+        }
+
+        // Follow-up parts only need to look like log lines, the first part must also be long enough
+        boolean continuing = inlineStitcher.isCollecting(channelId, authorId);
+        String log = settings.isInlineEnabled()
+                ? InlineLogDetector.extract(event.getMessage().getContentRaw(), continuing ? 1 : settings.getInlineMinLines())
+                : null;
+        if (log == null) {
+            inlineStitcher.interrupt(channelId);
+            return;
+        }
+        inlineStitcher.offer(event.getChannel(), channelId, authorId, event.getMessageId(), log);
+    }
+
+    /**
+     * Starts the upload of a completed pasted log.
+     *
+     * @param batch The stitched messages
+     */
+    private void uploadPasted(InlineLogStitcher.Batch<MessageChannel> batch) {
+        UploadSpoolStorage.UploadJob job = new UploadSpoolStorage.UploadJob();
+        job.id = batch.messageIds().get(0);
+        job.channelId = batch.channel().getId();
+        job.messageId = batch.messageIds().get(0);
+        job.inlineMessageIds = batch.messageIds();
+        job.createdAt = Instant.now().toEpochMilli();
+
+        int parts = batch.messageIds().size();
+        LogUtils.logInfo("Detected pasted log in " + parts + " message(s) from " + batch.authorId());
+        jobs.start(batch.channel(), List.of(() -> List.of(uploadInline(batch.text(), parts))), job);
+    }
+
+    /**
+     * Resumes the upload jobs that were left unfinished by the last shutdown.
+     *
+     * @param event The ReadyEvent from JDA
+     */
+    @Override
+    public void onReady(@NotNull ReadyEvent event) {
+        jobs.resumeAll(event.getJDA());
+    }
+
+    /**
+     * Turns attachments into upload units, one per attachment.
+     *
+     * @param attachments The attachments to upload
+     * @return The upload units
+     */
+    private List<Supplier<List<LogUploadResult>>> attachmentUploads(List<Message.Attachment> attachments) {
+        return attachments.stream()
+                .<Supplier<List<LogUploadResult>>>map(att -> () -> LogArchiveReader.isLogArchive(att.getFileName())
+                        ? uploadArchive(att)
+                        : List.of(uploadAttachment(att)))
+                .toList();
+    }
+
+    /**
+     * Reads an integer setting of the log uploader.
+     *
+     * @param getter The setting to read
+     * @param fallback Value used if the configuration cannot be read
+     * @return The configured value
+     */
+    static int getSetting(ToIntFunction<Config.LogUpload> getter, int fallback) {
+        try {
+            return getter.applyAsInt(Config.get().getLogUpload());
+        } catch (IOException e) {
+            LogUtils.logException("Error while reading log upload config", e);
+            return fallback;
+        }
     }
 
     /**
-     * Uploads all log files to mclo.gs and returns the URLs.
+     * Streams a single attachment to the paste service on the calling worker thread.
+     * Before downloading, a small range request fingerprints the log. If the fingerprint matches a
+     * cached upload, the log is hashed in full to confirm it before the existing paste is reused.
+     * Otherwise the attachment is piped from the CDN straight into the upload request, while its
+     * SHA-256 is computed and known error signatures are scanned for in the same pass. Meanwhile
+     * the end of the log is read backwards with range requests to find the last error for the
+     * result embed. Logs above the paste size limit are shortened to their beginning and end,
+     * which are fetched with two range requests.
      * 
-     * @param files Map of temporary files to their original names
-     * @return List of formatted upload results
-     */
-    private List<String> uploadAll(Map<File, String> files) {
-        List<String> urls = new ArrayList<>();
-        for (Map.Entry<File, String> entry : files.entrySet()) {
-            File tmp = entry.getKey();
-            String original = entry.getValue();
-
-            try {
-                String url = uploadToMclogs(tmp);
-                urls.add("`" + original + "` → " + url);
-            } catch (IOException ex) {
-                throw new RuntimeException("Error while uploading " + original, ex);
-            } finally {
-                // We are done with the temp file either way
-                //noinspection ResultOfMethodCallIgnored
-                tmp.delete();
+     * @param att The attachment to upload
+     * @return The upload result
+     */
+    private LogUploadResult uploadAttachment(Message.Attachment att) {
+        String original = att.getFileName();
+        LogCacheStorage cache = Bot.getLogCache();
+        SignatureScanner scanner = SignatureScanner.get();
+        try {
+            Config.LogUpload settings = Config.get().getLogUpload();
+            byte[] head = null;
+            String probe = null;
+            if (cache != null) {
+                try {
+                    head = Bot.getLogHttpClient().getRange(att.getUrl(), 0, Math.min(att.getSize(), PROBE_BYTES)).join();
+                    probe = LogCacheStorage.probeKey(att.getSize(), hexSha256(head));
+                } catch (CompletionException ex) {
+                    LogUtils.logDebug("Could not fingerprint " + original + ", skipping cache: " + ex.getCause().getMessage());
+                    head = null;
+                    probe = null;
+                }
+            }
+
+            if (att.getSize() > settings.getMaxUploadBytes()) {
+                return uploadSample(att, probe, scanner, settings);
+            }
+
+            // Small logs were fully fetched by the probe, everything else is streamed from the CDN
+            CompletableFuture<String> excerpt = readExcerpt(att, head, settings);
+            byte[] complete = head != null && head.length >= att.getSize() ? head : null;
+            PasteContent source = complete != null ? () -> new ByteArrayInputStream(complete) : () -> download(att);
+            if (probe != null) {
+                // Only downloads the log if the probe matches, to confirm the hit against the whole content
+                LogCacheStorage.Entry cached = cache.lookup(probe, () -> hexSha256(source.open()));
+                if (cached != null) {
+                    return cachedResult(original, cached, scanner, awaitExcerpt(excerpt, original));
+                }
+            }
+            StreamedUpload upload = streamLog(original, source, scanner, 0);
+            cacheUpload(probe, upload, false);
+            return new LogUploadResult(original, upload.url(), false, upload.signatures(), upload.redactions(),
+                    awaitExcerpt(excerpt, original), false, upload.crashes(), upload.environment());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading log upload config", e);
+        } catch (CompletionException ex) {
+            throw new RuntimeException("Error while uploading " + original, ex.getCause());
+        }
+    }
+
+    /**
+     * Uploads a log pasted into one or more messages. It goes through the same cache, analysis
+     * and redaction as attachments; the text is already in memory, so nothing is downloaded.
+     *
+     * @param text The pasted log
+     * @param parts Number of messages the log was collected from
+     * @return The upload result
+     */
+    private LogUploadResult uploadInline(String text, int parts) {
+        String name = parts > 1 ? "pasted log (" + parts + " messages)" : "pasted log";
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        SignatureScanner scanner = SignatureScanner.get();
+        try {
+            Config.LogUpload settings = Config.get().getLogUpload();
+            byte[] window = Arrays.copyOfRange(content, Math.max(0, content.length - settings.getExcerptMaxBytes()), content.length);
+            String excerpt = redactExcerpt(ErrorBlockFinder.findLast(window, window.length < content.length));
+
+            LogCacheStorage cache = Bot.getLogCache();
+            byte[] head = Arrays.copyOf(content, Math.min(content.length, PROBE_BYTES));
+            String probe = LogCacheStorage.probeKey(content.length, hexSha256(head));
+            LogCacheStorage.Entry cached = cache != null ? cache.lookup(probe, () -> hexSha256(content)) : null;
+            if (cached != null) {
+                return cachedResult(name, cached, scanner, excerpt);
+            }
+
+            StreamedUpload upload = streamLog(name, () -> new ByteArrayInputStream(content), scanner, 0);
+            cacheUpload(probe, upload, false);
+            return new LogUploadResult(name, upload.url(), false, upload.signatures(), upload.redactions(),
+                    excerpt, false, upload.crashes(), upload.environment());
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading log upload config", e);
+        } catch (CompletionException ex) {
+            throw new RuntimeException("Error while uploading " + name, ex.getCause());
+        }
+    }
+
+    /**
+     * Uploads the beginning and end of a log that exceeds the paste size limit, joined by a truncation marker.
+     * The middle of the log is never downloaded.
+     *
+     * @param att The oversized attachment
+     * @param probe The probe key for the upload cache, or null
+     * @param scanner The signature scanner to use
+     * @param settings The log upload configuration
+     * @return The upload result
+     */
+    private LogUploadResult uploadSample(Message.Attachment att, String probe, SignatureScanner scanner, Config.LogUpload settings) {
+        long size = att.getSize();
+        long half = settings.getMaxUploadBytes() / 2;
+        int headLength = (int) Math.min(settings.getSampleHeadBytes(), half);
+        int tailLength = (int) Math.min(settings.getSampleTailBytes(), half);
+        CompletableFuture<byte[]> headRange = Bot.getLogHttpClient().getRange(att.getUrl(), 0, headLength);
+        CompletableFuture<byte[]> tailRange = Bot.getLogHttpClient().getRange(att.getUrl(), size - tailLength, tailLength);
+        byte[] head = headRange.join();
+        byte[] tail = tailRange.join();
+
+        // Cut both parts at line boundaries
+        int headEnd = head.length;
+        while (headEnd > 0 && head[headEnd - 1] != '\n') headEnd--;
+        if (headEnd == 0) headEnd = head.length;
+        int tailStart = 0;
+        while (tailStart < tail.length && tail[tailStart] != '\n') tailStart++;
+        tailStart = tailStart < tail.length ? tailStart + 1 : 0;
+        long omitted = size - headEnd - (tail.length - tailStart);
+
+        int headCut = headEnd;
+        int tailCut = tailStart;
+        byte[] marker = SamplingInputStream.marker(omitted).getBytes(StandardCharsets.UTF_8);
+        PasteContent source = () -> new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(head, 0, headCut),
+                new ByteArrayInputStream(marker),
+                new ByteArrayInputStream(tail, tailCut, tail.length - tailCut))));
+        byte[] window = Arrays.copyOfRange(tail, Math.max(0, tail.length - settings.getExcerptMaxBytes()), tail.length);
+        String excerpt = redactExcerpt(ErrorBlockFinder.findLast(window, true));
+
+        // The paste holds the sample, so a hit is confirmed against the hash of the sample
+        LogCacheStorage cache = Bot.getLogCache();
+        if (probe != null && cache != null) {
+            LogCacheStorage.Entry cached = cache.lookup(probe, () -> hexSha256(source.open()));
+            if (cached != null) {
+                return cachedResult(att.getFileName(), cached, scanner, excerpt);
+            }
+        }
+
+        LogUtils.logInfo("Uploading beginning and end of oversized log " + att.getFileName() + " (" + size + " bytes)");
+        StreamedUpload upload = streamLog(att.getFileName(), source, scanner, 0);
+        cacheUpload(probe, upload, true);
+        return new LogUploadResult(att.getFileName(), upload.url(), false, upload.signatures(), upload.redactions(),
+                excerpt, true, upload.crashes(), upload.environment());
+    }
+
+    /**
+     * Builds the result for a log whose paste was found in the cache.
+     *
+     * @param name Name of the log
+     * @param cached The cached upload
+     * @param scanner The signature scanner, to resolve the cached signature IDs
+     * @param excerpt The redacted last error block, or null
+     * @return The upload result
+     */
+    private static LogUploadResult cachedResult(String name, LogCacheStorage.Entry cached, SignatureScanner scanner, String excerpt) {
+        LogUtils.logInfo("Reusing cached paste for " + name + ": " + cached.url);
+        return new LogUploadResult(name, cached.url, true, resolveSignatures(scanner, cached.signatures),
+                cached.redactions, excerpt, cached.sampled, resolveCrashes(cached.crashes),
+                resolveEnvironment(cached.environment));
+    }
+
+    /**
+     * Remembers an upload in the cache.
+     *
+     * @param probe The probe key, or null if the attachment could not be fingerprinted
+     * @param upload The finished upload
+     * @param sampled Whether only the beginning and end of the log were uploaded
+     */
+    private static void cacheUpload(String probe, StreamedUpload upload, boolean sampled) {
+        LogCacheStorage cache = Bot.getLogCache();
+        if (probe == null || cache == null) return;
+        try {
+            List<String> ids = upload.signatures().stream().map(ErrorSignature::getId).toList();
+            List<String> crashes = upload.crashes().stream().map(CrashSignature::getId).toList();
+            Map<String, String> environment = new LinkedHashMap<>();
+            upload.environment().forEach((fact, value) -> environment.put(fact.getKey(), value));
+            cache.put(upload.hash(), probe, upload.url(), ids, upload.redactions(), sampled, crashes, environment);
+        } catch (IOException e) {
+            LogUtils.logException("Error saving log cache", e);
+        }
+    }
+
+    /**
+     * Starts looking for the last error block of an attachment.
+     * Logs fully fetched by the probe are searched in memory, everything else is read backwards from the CDN.
+     *
+     * @param att The attachment
+     * @param head Leading bytes fetched by the probe, or null
+     * @param settings The log upload configuration
+     * @return Future completing with the last error block, or null if none was found
+     */
+    private static CompletableFuture<String> readExcerpt(Message.Attachment att, byte[] head, Config.LogUpload settings) {
+        if (head != null && head.length >= att.getSize()) {
+            int from = Math.max(0, head.length - settings.getExcerptMaxBytes());
+            ErrorBlockFinder.Block block = ErrorBlockFinder.findLast(Arrays.copyOfRange(head, from, head.length), from > 0);
+            return CompletableFuture.completedFuture(block != null ? block.text() : null);
+        }
+        LogTailReader reader = new LogTailReader(Bot.getLogHttpClient(), settings.getExcerptChunkBytes(), settings.getExcerptMaxBytes());
+        return reader.lastErrorBlock(att.getUrl(), att.getSize());
+    }
+
+    /**
+     * Waits for an excerpt and redacts it. The excerpt is optional, so failures only get logged.
+     *
+     * @param excerpt The pending excerpt
+     * @param name Name of the log, for logging
+     * @return The redacted excerpt, or null
+     */
+    private static String awaitExcerpt(CompletableFuture<String> excerpt, String name) {
+        try {
+            String text = excerpt.join();
+            return text != null ? redactExcerpt(new ErrorBlockFinder.Block(text, false)) : null;
+        } catch (CompletionException ex) {
+            LogUtils.logDebug("Could not read the end of " + name + ": " + ex.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Applies the redaction rules to an excerpt before it is shown in Discord.
+     *
+     * @param block The error block, or null
+     * @return The redacted text, or null if there is none or it could not be redacted
+     */
+    private static String redactExcerpt(ErrorBlockFinder.Block block) {
+        return block != null ? redactText(block.text()) : null;
+    }
+
+    /**
+     * Applies the redaction rules to text taken from a log before it is shown in Discord.
+     *
+     * @param text The raw text
+     * @return The redacted text, or null if it could not be redacted
+     */
+    private static String redactText(String text) {
+        InputStream raw = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        RedactingInputStream redacted = createRedactor(raw);
+        if (redacted == null) return text;
+        try {
+            return new String(redacted.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Never show unredacted text
+            return null;
+        }
+    }
+
+    /**
+     * Applies the redaction rules to environment facts. Facts that cannot be redacted are dropped.
+     *
+     * @param facts The facts as extracted from the log
+     * @return The redacted facts
+     */
+    private static Map<EnvironmentTap.Fact, String> redactEnvironment(Map<EnvironmentTap.Fact, String> facts) {
+        Map<EnvironmentTap.Fact, String> redacted = new EnumMap<>(EnvironmentTap.Fact.class);
+        facts.forEach((fact, value) -> {
+            String safe = redactText(value);
+            if (safe != null) redacted.put(fact, safe);
+        });
+        return redacted;
+    }
+
+    /**
+     * Streams a compressed attachment from the CDN and uploads every log it contains.
+     * Archives bypass the upload cache, since one probe would have to map to several pastes.
+     * Contained logs above the paste size limit are shortened to their beginning and end,
+     * and the last error is taken from the tail seen while streaming.
+     *
+     * @param att The archive attachment
+     * @return The upload results, one per contained log
+     */
+    private List<LogUploadResult> uploadArchive(Message.Attachment att) {
+        String original = att.getFileName();
+        SignatureScanner scanner = SignatureScanner.get();
+        List<LogUploadResult> results = new ArrayList<>();
+        try {
+            Config.LogUpload settings = Config.get().getLogUpload();
+            LogArchiveReader reader = new LogArchiveReader(settings);
+            reader.read(original, att.getProxy().download().join(), (name, content) -> {
+                SamplingInputStream sample = new SamplingInputStream(content,
+                        settings.getSampleTailBytes(), settings.getMaxUploadBytes());
+                // Archive entries cannot be re-read, so they get a single attempt
+                StreamedUpload upload = streamLog(name, PasteContent.once(sample), scanner, settings.getExcerptMaxBytes());
+                String excerpt = redactExcerpt(ErrorBlockFinder.findLast(upload.tail().getTail(), upload.tail().isTruncated()));
+                results.add(new LogUploadResult(name, upload.url(), false, upload.signatures(), upload.redactions(),
+                        excerpt, sample.getOmittedBytes() > 0, upload.crashes(), upload.environment()));
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Error while unpacking " + original + ": " + e.getMessage(), e);
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            throw new RuntimeException("Error while uploading " + original + ": " + cause.getMessage(), cause);
+        }
+
+        if (results.isEmpty()) {
+            throw new RuntimeException("No log files found in " + original);
+        }
+        LogUtils.logInfo("Uploaded " + results.size() + " log(s) from archive " + original);
+        return results;
+    }
+
+    /**
+     * Pipes a log into a new paste, computing its SHA-256, scanning it for known error signatures
+     * and redacting sensitive values in the same pass. Runs on the calling worker thread.
+     * If the paste service retries, the analysis restarts with the content, so the result always
+     * describes the attempt that succeeded.
+     *
+     * @param name Name of the log, for logging
+     * @param source The log content
+     * @param scanner The signature scanner to use
+     * @param tailBytes Number of trailing bytes to remember, 0 for none
+     * @return The outcome of the upload
+     * @throws CompletionException If the upload fails
+     */
+    private StreamedUpload streamLog(String name, PasteContent source, SignatureScanner scanner, int tailBytes) {
+        AtomicReference<Analysis> current = new AtomicReference<>();
+        PasteContent analysed = new PasteContent() {
+            @Override
+            public InputStream open() throws IOException {
+                Analysis analysis = new Analysis(source.open(), scanner, tailBytes);
+                current.set(analysis);
+                return analysis.output;
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return source.isRepeatable();
+            }
+        };
+
+        String url = Bot.getPasteService().upload(analysed).join();
+        Analysis analysis = current.get();
+        int redactions = analysis.redacted != null ? analysis.redacted.getRedactionCount() : 0;
+        if (redactions > 0) {
+            LogUtils.logInfo("Redacted " + redactions + " sensitive value(s) from " + name);
+        }
+        return new StreamedUpload(url, HexFormat.of().formatHex(analysis.digest.getMessageDigest().digest()),
+                analysis.scan.getMatches(), redactions, analysis.tail, analysis.traces.getSignatures(),
+                redactEnvironment(analysis.environment.getFacts()));
+    }
+
+    /**
+     * Opens an attachment as a stream from the CDN.
+     *
+     * @param att The attachment
+     * @return The attachment content
+     * @throws IOException If the download cannot be started
+     */
+    private static InputStream download(Message.Attachment att) throws IOException {
+        try {
+            return att.getProxy().download().join();
+        } catch (CompletionException ex) {
+            throw new IOException("Could not download " + att.getFileName(), ex.getCause());
+        }
+    }
+
+    /**
+     * Wraps a log stream in the configured redaction stage.
+     * Compiled rules are cached per configuration instance, so they are only rebuilt after a reload.
+     *
+     * @param in The stream to redact
+     * @return The redacting stream, or null if redaction is disabled
+     */
+    private static RedactingInputStream createRedactor(InputStream in) {
+        Config.LogUpload settings;
+        try {
+            settings = Config.get().getLogUpload();
+        } catch (IOException e) {
+            LogUtils.logException("Error while reading log upload config", e);
+            return null;
+        }
+        if (!settings.isRedactionEnabled() || settings.getRedactionRules() == null) {
+            return null;
+        }
+
+        CompiledRules compiled = compiledRules;
+        if (compiled == null || compiled.source != settings.getRedactionRules()) {
+            List<RedactingInputStream.Rule> rules = new ArrayList<>();
+            for (Config.RedactionRule rule : settings.getRedactionRules()) {
+                try {
+                    rules.add(new RedactingInputStream.Rule(rule.getName(), Pattern.compile(rule.getRegex()), rule.getReplacement()));
+                } catch (PatternSyntaxException | NullPointerException e) {
+                    LogUtils.logException("Invalid redaction rule " + rule.getName(), e);
+                }
             }
+            compiled = new CompiledRules(settings.getRedactionRules(), rules);
+            compiledRules = compiled;
+        }
+        return new RedactingInputStream(in, compiled.rules, settings.getRedactionWindow());
+    }
+
+    /**
+     * Resolves cached signature identifiers against the currently loaded signatures.
+     *
+     * @param scanner The current scanner
+     * @param ids Cached signature identifiers, may be null
+     * @return The signatures that still exist
+     */
+    private static List<ErrorSignature> resolveSignatures(SignatureScanner scanner, List<String> ids) {
+        if (ids == null) return List.of();
+        return ids.stream().map(scanner::findById).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Resolves cached crash signature identifiers against the crash index.
+     *
+     * @param ids Cached crash signature identifiers, may be null
+     * @return The signatures that are still indexed
+     */
+    private static List<CrashSignature> resolveCrashes(List<String> ids) {
+        CrashSignatureStorage index = Bot.getCrashIndex();
+        if (ids == null || index == null) return List.of();
+        return ids.stream().map(index::find).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Resolves cached environment facts. They are redacted again, since entries cached by older
+     * versions may hold raw values.
+     *
+     * @param cached Cached facts by fact key, may be null
+     * @return The facts
+     */
+    private static Map<EnvironmentTap.Fact, String> resolveEnvironment(Map<String, String> cached) {
+        Map<EnvironmentTap.Fact, String> environment = new EnumMap<>(EnvironmentTap.Fact.class);
+        if (cached != null) {
+            cached.forEach((key, value) -> {
+                EnvironmentTap.Fact fact = EnvironmentTap.Fact.fromKey(key);
+                if (fact != null) environment.put(fact, value);
+            });
         }
-        return urls;
+        return redactEnvironment(environment);
+    }
+
+    /**
+     * Combines the environment facts of all logs of a job, preferring the first log that names a fact.
+     *
+     * @param results Results of the uploaded logs
+     * @return The combined facts, in display order
+     */
+    private static Map<EnvironmentTap.Fact, String> mergeEnvironment(List<LogUploadResult> results) {
+        Map<EnvironmentTap.Fact, String> environment = new EnumMap<>(EnvironmentTap.Fact.class);
+        results.forEach(result -> result.getEnvironment().forEach(environment::putIfAbsent));
+        return environment;
     }
 
+    /**
+     * Applies the configured forum tags for the environment of a job, if its logs were posted
+     * in a support or bug report thread. Existing tags are kept, and no more tags are added than
+     * a forum post can hold.
+     *
+     * @param channel The channel the logs were posted in
+     * @param environment The environment facts of the job
+     */
+    private static void applyEnvironmentTags(MessageChannel channel, Map<EnvironmentTap.Fact, String> environment) {
+        if (environment.isEmpty() || !(channel instanceof ThreadChannel thread)
+                || !(thread.getParentChannel() instanceof ForumChannel forum)) {
+            return;
+        }
+
+        Config.EnvironmentTagRule[] rules;
+        try {
+            Config config = Config.get();
+            boolean supportForum = forum.getId().equals(config.getSupport().getSupport_forum_id())
+                    || forum.getId().equals(config.getBugReport().getBugReport_forum_id());
+            rules = supportForum ? config.getLogUpload().getEnvironmentTags() : null;
+        } catch (IOException e) {
+            LogUtils.logException("Error while reading log upload config", e);
+            return;
+        }
+        if (rules == null) return;
+
+        List<ForumTag> tags = new ArrayList<>(thread.getAppliedTags());
+        for (Config.EnvironmentTagRule rule : rules) {
+            EnvironmentTap.Fact fact = EnvironmentTap.Fact.fromKey(rule.getFact());
+            String value = fact != null ? environment.get(fact) : null;
+            String contains = rule.getContains() != null ? rule.getContains().toLowerCase(Locale.ROOT) : "";
+            if (value == null || rule.getTag() == null || !value.toLowerCase(Locale.ROOT).contains(contains)) continue;
+            forum.getAvailableTags().stream()
+                    .filter(tag -> tag.getName().equalsIgnoreCase(rule.getTag()))
+                    .findFirst()
+                    .filter(tag -> !tags.contains(tag) && tags.size() < ForumChannel.MAX_POST_TAGS)
+                    .ifPresent(tags::add);
+        }
+        if (tags.size() == thread.getAppliedTags().size()) return;
+
+        thread.getManager().setAppliedTags(tags).queue(
+                success -> LogUtils.logInfo("Tagged " + thread.getName() + " with its log environment"),
+                error -> LogUtils.logWarning("Could not tag " + thread.getName() + ": " + error.getMessage()));
+    }
+
+    /**
+     * Records the crash signatures of an upload job in the crash index.
+     * Each signature is counted once per job, however many of its logs contain it.
+     *
+     * @param results Results of the uploaded logs
+     * @param threadId ID of the thread or channel the logs were posted in
+     * @return The recorded sightings, empty if the index is unavailable
+     */
+    private static List<CrashSignatureStorage.Sighting> recordCrashes(List<LogUploadResult> results, String threadId) {
+        CrashSignatureStorage index = Bot.getCrashIndex();
+        if (index == null) return List.of();
+        Map<String, CrashSignature> distinct = new LinkedHashMap<>();
+        results.forEach(result -> result.getCrashes().forEach(crash -> distinct.putIfAbsent(crash.getId(), crash)));
+        if (distinct.isEmpty()) return List.of();
+        try {
+            return index.record(new ArrayList<>(distinct.values()), threadId);
+        } catch (IOException e) {
+            LogUtils.logException("Error saving crash index", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Computes the hex SHA-256 of a byte array.
+     *
+     * @param content The bytes to hash
+     * @return The hex digest
+     */
+    private static String hexSha256(byte[] content) {
+        return HexFormat.of().formatHex(sha256().digest(content));
+    }
+
+    /**
+     * Computes the hex SHA-256 of a stream, reading it to the end and closing it.
+     *
+     * @param in The stream to hash
+     * @return The hex digest
+     * @throws IOException If the stream cannot be read
+     */
+    private static String hexSha256(InputStream in) throws IOException {
+        try (DigestInputStream digest = new DigestInputStream(in, sha256())) {
+            digest.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(digest.getMessageDigest().digest());
+        }
+    }
+
+    /**
+     * Creates a new SHA-256 digest.
+     *
+     * @return A fresh message digest
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+
     // ────────────────────────────────────────────────────────────────────────────────
     //  Message editing helpers
     // ────────────────────────────────────────────────────────────────────────────────
 
     /**
      * Edits the placeholder message with successful upload results.
+     * Known failures recognised in the logs are listed together with their fix.
      * 
      * @param placeholder The message to edit
-     * @param uploaded List of uploaded file URLs
-     * @param files Map of files that were uploaded
+     * @param results Results of the uploaded logs
+     * @param crashes Crash signatures of the logs as recorded in the crash index
+     * @param environment Environment facts found in the logs
+     * @return Future completing once the message was edited
      */
-    private void editSuccess(Message placeholder, List<String> uploaded, Map<File, String> files) {
+    private CompletableFuture<Message> editSuccess(Message placeholder, List<LogUploadResult> results,
+                                                   List<CrashSignatureStorage.Sighting> crashes,
+                                                   Map<EnvironmentTap.Fact, String> environment) {
         var success = EmbedUtils.createSuccess()
                 .setTitle("📄 Log-Files uploaded")
                 .addField("Information", "Use the Button(s) below to navigate through the logs", false)
                 .setTimestamp(Instant.now());
 
+        if (!environment.isEmpty()) {
+            String summary = environment.entrySet().stream()
+                    .map(fact -> "**" + fact.getKey().getLabel() + "** " + fact.getValue().replace("`", ""))
+                    .collect(Collectors.joining(" · "));
+            success.addField("🖥️ Environment", truncate(summary, MessageEmbed.VALUE_MAX_LENGTH), false);
+        }
+
+        Map<String, ErrorSignature> detected = new LinkedHashMap<>();
+        results.forEach(result -> result.getSignatures().forEach(signature -> detected.putIfAbsent(signature.getId(), signature)));
+        detected.values().stream().limit(MAX_SIGNATURE_FIELDS).forEach(signature ->
+                success.addField("🔎 " + signature.getTitle(), truncate(signature.getFix(), MessageEmbed.VALUE_MAX_LENGTH), false));
+
+        results.stream().filter(result -> result.getExcerpt() != null).limit(MAX_EXCERPT_FIELDS).forEach(result ->
+                success.addField(truncate("🧾 Last error in " + result.getFileName(), MessageEmbed.TITLE_MAX_LENGTH),
+                        "```\n" + truncate(result.getExcerpt().replace("```", "`\u200B``"), MAX_EXCERPT_CHARS) + "\n```", false));
+
+        // Crashes seen before are linked to the most recent other thread that reported them
+        List<String> recurring = crashes.stream()
+                .filter(sighting -> sighting.occurrences() > 1)
+                .limit(MAX_CRASH_LINES)
+                .map(sighting -> {
+                    CrashSignature crash = sighting.signature();
+                    String top = crash.getTopFrame();
+                    String line = "`" + crash.getException() + "`" + (top != null ? " at `" + top + "`" : "")
+                            + "\nSeen **" + sighting.occurrences() + "** times";
+                    return sighting.otherThreadId() != null ? line + ", see <#" + sighting.otherThreadId() + ">" : line;
+                })
+                .toList();
+        if (!recurring.isEmpty()) {
+            success.addField("🧬 Known crash", truncate(String.join("\n", recurring), MessageEmbed.VALUE_MAX_LENGTH), false);
+        }
+
+        List<String> sampled = results.stream().filter(LogUploadResult::isSampled).map(LogUploadResult::getFileName).toList();
+        if (!sampled.isEmpty()) {
+            success.addField("✂️ Shortened", truncate(String.join(", ", sampled)
+                    + " exceeded the upload limit, only the beginning and end were uploaded.", MessageEmbed.VALUE_MAX_LENGTH), false);
+        }
+
+        int redactions = results.stream().mapToInt(LogUploadResult::getRedactions).sum();
+        if (redactions > 0) {
+            success.addField("🔒 Privacy", "Removed **" + redactions + "** sensitive value(s) (keys, tokens, IPs, emails) before uploading.", false);
+        }
+
         List<Button> buttons = new ArrayList<>();
-        if (!uploaded.isEmpty()) {
-            int maxButtons = Math.min(uploaded.size(), 5);
-            for (int i = 0; i < maxButtons; i++) {
-                String pretty = uploaded.get(i);
-                String url = pretty.substring(pretty.indexOf("→") + 1).trim();
-                buttons.add(Button.link(url, "Open " + files.values().iterator().next()));
-            }
+        int maxButtons = Math.min(results.size(), 5);
+        for (int i = 0; i < maxButtons; i++) {
+            LogUploadResult result = results.get(i);
+            buttons.add(Button.link(result.getUrl(), truncate("Open " + result.getFileName(), Button.LABEL_MAX_LENGTH)));
         }
 
         if (buttons.isEmpty()) {
-            placeholder.editMessageEmbeds(success.build()).queue();
-        } else {
-            placeholder.editMessageEmbeds(success.build()).setComponents(ActionRow.of(buttons)).queue();
+            return placeholder.editMessageEmbeds(success.build()).submit();
         }
+        return placeholder.editMessageEmbeds(success.build()).setComponents(ActionRow.of(buttons)).submit();
+    }
+
+    /**
+     * Shortens a text to the given length.
+     *
+     * @param text The text, may be null
+     * @param max Maximum length
+     * @return The possibly shortened text
+     */
+    private static String truncate(String text, int max) {
+        if (text == null) return "";
+        return text.length() <= max ? text : text.substring(0, max - 1) + "…";
     }
 
     /**
@@ -137,58 +940,14 @@ public class LogUploader extends ListenerAdapter {
      * 
      * @param placeholder The message to edit
      * @param ex The exception that occurred
+     * @return Future completing once the message was edited
      */
-    private void editFailure(Message placeholder, Throwable ex) {
+    private CompletableFuture<Message> editFailure(Message placeholder, Throwable ex) {
         var fail = EmbedUtils.createError()
                 .setTitle("❌ Upload failed")
                 .setDescription("Error: " + ex.getMessage())
                 .setTimestamp(Instant.now());
 
-        placeholder.editMessageEmbeds(fail.build()).queue();
-    }
-
-    // ────────────────────────────────────────────────────────────────────────────────
-    //  Low‑level HTTP helper
-    // ────────────────────────────────────────────────────────────────────────────────
-
-    /**
-     * Uploads a log file to mclo.gs and returns the URL.
-     * 
-     * @param file The log file to upload
-     * @return URL of the uploaded log
-     * @throws IOException If upload fails or API returns an error
-     */
-    private String uploadToMclogs(File file) throws IOException {
-        // Read log file (10MiB API limit – we trust users to send something reasonable)
-        StringBuilder log = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                log.append(line).append('\n');
-            }
-        }
-
-        // Build x‑www‑form‑urlencoded entity
-        List<NameValuePair> params = List.of(new BasicNameValuePair("content", log.toString()));
-        HttpEntity entity = new UrlEncodedFormEntity(params, StandardCharsets.UTF_8);
-
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpPost post = new HttpPost("https://api.mclo.gs/1/log");
-            post.setEntity(entity);
-
-            try (CloseableHttpResponse response = client.execute(post)) {
-                HttpEntity resEntity = response.getEntity();
-                if (resEntity != null) {
-                    String result = new String(resEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
-                    JsonNode json = new ObjectMapper().readTree(result);
-
-                    if (json.path("success").asBoolean(false)) {
-                        if (json.has("url")) return json.get("url").asText();
-                    }
-                    throw new IOException(json.path("error").asText("mclo.gs API Error"));
-                }
-            }
-        }
-        throw new IOException("mclo.gs API Error – leere Antwort");
+        return placeholder.editMessageEmbeds(fail.build()).submit();
     }
 }
@@ -0,0 +1,41 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Config;
+import net.dv8tion.jda.api.entities.Member;
+
+import java.util.List;
+
+/**
+ * Utility class for permission checks shared by commands and handlers.
+ *
+ * @author SkyKing_PX
+ */
+public final class PermissionUtils {
+
+    private PermissionUtils() {
+    }
+
+    /**
+     * Checks if a member has one of the configured moderator roles.
+     *
+     * @param member The member to check, null outside of guilds
+     * @return true if the member is a moderator, false otherwise or if the config cannot be read
+     */
+    public static boolean isModerator(Member member) {
+        if (member == null) {
+            return false;
+        }
+
+        String[] modRoleIds;
+        try {
+            modRoleIds = Config.get().getRoles().getModerators();
+        } catch (Exception e) {
+            LogUtils.logException("Error loading mod roles", e);
+            return false;
+        }
+
+        List<String> modRolesList = List.of(modRoleIds);
+        return member.getRoles().stream()
+                .anyMatch(role -> modRolesList.contains(role.getId()));
+    }
+}
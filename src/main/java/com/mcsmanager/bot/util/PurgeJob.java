@@ -0,0 +1,621 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.MessageIndexStorage;
+import com.mcsmanager.bot.storage.PurgeJobStorage;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.components.actionrow.ActionRow;
+import net.dv8tion.jda.api.components.buttons.Button;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageEditAction;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.TimeUtil;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * A single purge of a user's messages, run by the {@link PurgeJobRegistry}.
+ * If the requested time range is covered by the message index, the messages are taken from it.
+ * Otherwise text channels, voice channel chats and active threads, including forum posts, are scanned.
+ * Every channel is its own rate limit bucket, so several channels are processed at once,
+ * each with one request in flight.
+ * Progress is shown in a status message with a cancel button, edited at a throttled rate. The
+ * position reached in every channel is checkpointed, so an interrupted purge resumes where it stopped.
+ *
+ * @author SkyKing_PX
+ */
+public class PurgeJob implements Runnable {
+
+    /** Maximum number of messages per bulk delete request */
+    private static final int BULK_DELETE_LIMIT = 100;
+    /** Minimum time between two edits of the status message */
+    private static final long STATUS_INTERVAL_MILLIS = 5_000;
+    /** Maximum time matches are held back before they are deleted and the position is checkpointed */
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 15_000;
+
+    private final Guild guild;
+    private final PurgeJobStorage.PurgeJobState state;
+    /** Whether to only count the messages that would be deleted */
+    private final boolean preview;
+
+    private volatile boolean cancelled;
+    /** Whether the messages are taken from the message index */
+    private volatile boolean indexed;
+    private final AtomicInteger channelsTotal = new AtomicInteger();
+    private final AtomicInteger channelsDone = new AtomicInteger();
+    private final AtomicInteger scanned = new AtomicInteger();
+    /** Deleted messages, or matching messages in a preview */
+    private final AtomicInteger found = new AtomicInteger();
+    /** Number of messages that may still be deleted, shared by all channels */
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicLong lastStatusAt = new AtomicLong();
+    private long lastCheckpointAt;
+
+    /**
+     * Creates a job.
+     *
+     * @param guild The guild to purge in
+     * @param state The job and the position it reached, if it is resumed
+     * @param preview Whether to only count the messages that would be deleted
+     */
+    public PurgeJob(Guild guild, PurgeJobStorage.PurgeJobState state, boolean preview) {
+        this.guild = guild;
+        this.state = state;
+        this.preview = preview;
+    }
+
+    /**
+     * Gets the identifier of the job.
+     *
+     * @return The job ID
+     */
+    public String getId() {
+        return state.id;
+    }
+
+    /**
+     * Gets the persisted state of the job.
+     *
+     * @return The job state
+     */
+    public PurgeJobStorage.PurgeJobState getState() {
+        return state;
+    }
+
+    /**
+     * Whether the job only counts the messages that would be deleted.
+     *
+     * @return True for a preview
+     */
+    public boolean isPreview() {
+        return preview;
+    }
+
+    /**
+     * Asks the job to stop. Channels stop after their current request; messages found but not
+     * deleted yet are left alone.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Runs the purge and reports the result in the status message.
+     */
+    @Override
+    public void run() {
+        int alreadyDeleted = 0;
+        for (PurgeJobStorage.ChannelCursor cursor : state.cursors.values()) {
+            alreadyDeleted += cursor.deleted;
+        }
+        found.set(preview ? 0 : alreadyDeleted);
+        remaining.set(state.limit > 0 ? Math.max(0, state.limit - found.get()) : Integer.MAX_VALUE);
+
+        try {
+            postStatus();
+
+            MessageIndexStorage index = Bot.getMessageIndex();
+            if (!state.forceScan && index != null && state.cutoffMillis != 0 && index.covers(state.targetUserId, state.cutoffMillis)) {
+                indexed = true;
+                purgeFromIndex(index);
+            } else {
+                purgeByScan();
+            }
+
+            LogUtils.logInfo((preview ? "Purge preview found " : "Deleted ") + found.get() + " messages from " + state.targetUserName +
+                    (state.days > 0 ? " from last " + state.days + " days" : " (all messages)") +
+                    (state.scopeMention != null ? " in " + state.scopeMention : "") +
+                    (state.limit > 0 ? " (limit: " + state.limit + ")" : "") +
+                    (indexed ? " using the message index" : "") +
+                    (cancelled ? ", cancelled" : ""));
+            editStatus(buildResult(), true);
+        } catch (Exception e) {
+            LogUtils.logException("Error running purge job " + state.id, e);
+            editStatus(EmbedUtils.createSimpleError("❌ The purge failed after deleting " + found.get() + " messages. Check the bot log."), true);
+        }
+    }
+
+    /**
+     * Deletes the messages of the user found in the message index, without reading any channel history.
+     */
+    private void purgeFromIndex(MessageIndexStorage index) {
+        Set<String> allowedChannels = state.channelIds != null ? new HashSet<>(state.channelIds) : null;
+        Map<GuildMessageChannel, List<String>> byChannel = new LinkedHashMap<>();
+        int selected = 0;
+        for (MessageIndexStorage.IndexedMessage message : index.getMessages(state.targetUserId, state.cutoffMillis, Integer.MAX_VALUE)) {
+            if (selected >= remaining.get()) {
+                break;
+            }
+            if (allowedChannels != null && !allowedChannels.contains(message.channelId)) {
+                continue;
+            }
+            GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, message.channelId);
+            if (channel == null) {
+                continue; // Deleted or not in this guild
+            }
+            byChannel.computeIfAbsent(channel, key -> new ArrayList<>()).add(message.messageId);
+            selected++;
+        }
+        LogUtils.logInfo("Purge " + state.id + ": " + selected + " indexed messages in " + byChannel.size() + " channels");
+
+        if (preview) {
+            found.set(selected);
+            return;
+        }
+        // Deleted messages drop out of the index, so a resumed job simply asks it again
+        forEachChannel(new ArrayList<>(byChannel.keySet()), channel -> deleteMessages(channel, byChannel.get(channel)));
+    }
+
+    /**
+     * Scans the history of the channels for messages of the user and deletes them.
+     */
+    private void purgeByScan() {
+        // Determine which channels to scan
+        List<GuildMessageChannel> channelsToScan = new ArrayList<>();
+        if (state.channelIds != null) {
+            // Only scan the specified channels
+            for (String channelId : state.channelIds) {
+                GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, channelId);
+                if (channel != null) channelsToScan.add(channel);
+            }
+        } else {
+            // Scan all text channels, voice channel chats and active threads
+            channelsToScan.addAll(guild.getTextChannels());
+            channelsToScan.addAll(guild.getVoiceChannels());
+            channelsToScan.addAll(guild.getThreadChannels());
+        }
+        channelsToScan.removeIf(channel -> !guild.getSelfMember().hasPermission(channel,
+                Permission.VIEW_CHANNEL, Permission.MESSAGE_HISTORY));
+
+        // Channels without messages since the cutoff are skipped without a request
+        if (state.cutoffMillis != 0) {
+            long cutoffId = TimeUtil.getDiscordTimestamp(state.cutoffMillis);
+            int before = channelsToScan.size();
+            channelsToScan.removeIf(channel -> channel.getLatestMessageIdLong() < cutoffId);
+            LogUtils.logDebug("Skipped " + (before - channelsToScan.size()) + " channels without messages in the last " + state.days + " days");
+        }
+
+        forEachChannel(channelsToScan, this::purgeChannel);
+    }
+
+    /**
+     * Runs a task for every channel, a configured number of channels at once.
+     *
+     * @param channels The channels to process
+     * @param task Processes a channel and returns the number of messages found or deleted in it
+     */
+    private void forEachChannel(List<GuildMessageChannel> channels, ToIntFunction<GuildMessageChannel> task) {
+        channelsTotal.set(channels.size());
+        int parallelism = Math.max(1, Math.min(getMaxParallelChannels(), channels.size()));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "PurgeJob-" + state.id + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LogUtils.logInfo("Purge " + state.id + ": processing " + channels.size() + " channels, " + parallelism + " at once");
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (GuildMessageChannel channel : channels) {
+            results.add(workers.submit(() -> {
+                if (cancelled) {
+                    return 0;
+                }
+                int count = task.applyAsInt(channel);
+                LogUtils.logInfo("Purge " + state.id + ": finished " + channel.getName() + " with " + count + " messages ("
+                        + channelsDone.incrementAndGet() + "/" + channels.size() + " channels)");
+                updateStatus();
+                return count;
+            }));
+        }
+        workers.shutdown();
+
+        for (Future<Integer> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.shutdownNow();
+                break;
+            } catch (ExecutionException e) {
+                LogUtils.logException("Error purging a channel", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Scans a channel for messages of the user and deletes them, continuing from the checkpointed position.
+     * Matches are deleted once a bulk delete is full or they were held back for a while; the position
+     * is only checkpointed when no matches are pending, so a resumed job never skips any.
+     *
+     * @param channel The channel to scan
+     * @return Number of deleted messages, or of matching messages in a preview
+     */
+    private int purgeChannel(GuildMessageChannel channel) {
+        PurgeJobStorage.ChannelCursor cursor = getCursor(channel.getId());
+        if (cursor.done) {
+            return cursor.deleted;
+        }
+
+        // Without a count limit the order does not matter, so the window after the cutoff is paged forward
+        boolean oldestFirst = state.cutoffMillis != 0 && state.limit == 0;
+        OffsetDateTime cutoffTime = state.cutoffMillis != 0
+                ? OffsetDateTime.ofInstant(Instant.ofEpochMilli(state.cutoffMillis), ZoneOffset.UTC) : null;
+        String anchor = cursor.anchorId;
+        int deleted = cursor.deleted;
+        int matched = 0;
+        boolean done = false;
+        List<String> pending = new ArrayList<>();
+        long heldSince = System.currentTimeMillis();
+
+        try {
+            LogUtils.logDebug("Searching for messages in channel: " + channel.getName());
+
+            while (!cancelled) {
+                // Check if we've reached the deletion limit
+                if (remaining.get() <= 0) {
+                    LogUtils.logDebug("Reached deletion limit in channel " + channel.getName());
+                    done = true;
+                    break;
+                }
+
+                List<Message> messages;
+                try {
+                    if (oldestFirst) {
+                        // Page forward from the cutoff, or from the newest message processed
+                        String after = anchor != null ? anchor : Long.toUnsignedString(TimeUtil.getDiscordTimestamp(state.cutoffMillis));
+                        messages = channel.getHistoryAfter(after, 100).complete().getRetrievedHistory();
+                    } else if (anchor == null) {
+                        // First retrieval - get the most recent messages
+                        messages = channel.getHistory().retrievePast(100).complete();
+                    } else {
+                        // Subsequent retrieval - get messages before the oldest one processed
+                        messages = channel.getHistoryBefore(anchor, 100).complete().getRetrievedHistory();
+                    }
+                } catch (Exception e) {
+                    // If we can't retrieve messages, skip this channel
+                    LogUtils.logDebug("Could not retrieve messages from channel " + channel.getName() + ": " + e.getMessage());
+                    done = true;
+                    break;
+                }
+
+                if (messages.isEmpty()) {
+                    done = true; // No more messages in this channel
+                    break;
+                }
+
+                boolean shouldContinue = true;
+                for (Message message : messages) {
+                    // Check if we've gone past the cutoff time
+                    if (cutoffTime != null && message.getTimeCreated().isBefore(cutoffTime)) {
+                        shouldContinue = false;
+                        break;
+                    }
+
+                    // Check if message is from target user, reserving it against the deletion limit
+                    if (message.getAuthor().getId().equals(state.targetUserId)) {
+                        if (remaining.getAndUpdate(left -> Math.max(0, left - 1)) <= 0) {
+                            shouldContinue = false;
+                            break;
+                        }
+                        if (pending.isEmpty()) heldSince = System.currentTimeMillis();
+                        pending.add(message.getId());
+                    }
+                }
+                scanned.addAndGet(messages.size());
+                boolean last = !shouldContinue || messages.size() < 100;
+
+                // Batches are ordered newest first
+                anchor = oldestFirst ? messages.getFirst().getId() : messages.getLast().getId();
+
+                if (preview) {
+                    matched += pending.size();
+                    found.addAndGet(pending.size());
+                    pending.clear();
+                } else if (!pending.isEmpty() && (last || pending.size() >= BULK_DELETE_LIMIT
+                        || System.currentTimeMillis() - heldSince >= CHECKPOINT_INTERVAL_MILLIS)) {
+                    int removed = deleteMessages(channel, pending);
+                    // Hand the reservations of messages that could not be deleted back to the limit
+                    remaining.addAndGet(pending.size() - removed);
+                    deleted += removed;
+                    pending.clear();
+                }
+                if (pending.isEmpty()) {
+                    checkpoint(channel.getId(), anchor, deleted, last, false);
+                }
+                updateStatus();
+
+                if (last) {
+                    done = true;
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            LogUtils.logDebug("Error accessing channel " + channel.getName() + ": " + e.getMessage());
+        }
+
+        if (pending.isEmpty()) {
+            checkpoint(channel.getId(), anchor, deleted, done, true);
+        } else {
+            remaining.addAndGet(pending.size());
+        }
+        if (deleted > cursor.deleted) {
+            LogUtils.logDebug("Deleted " + (deleted - cursor.deleted) + " messages from channel " + channel.getName());
+        }
+        return preview ? matched : deleted;
+    }
+
+    /**
+     * Deletes messages of a channel.
+     * Messages younger than 14 days are deleted with the bulk delete endpoint, up to 100 per request.
+     * Discord rejects older messages there, so they are deleted one by one, paced by the rate limiter.
+     * A bulk delete fails as a whole if a single message is gone or cannot be deleted, so the messages
+     * of a failed bulk delete are retried one by one as well.
+     *
+     * @param channel The channel the messages are in
+     * @param messageIds IDs of the messages to delete
+     * @return Number of deleted messages
+     */
+    private int deleteMessages(GuildMessageChannel channel, List<String> messageIds) {
+        // Leave some margin, since the messages were collected a while ago
+        OffsetDateTime bulkCutoff = OffsetDateTime.now().minusDays(14).plusMinutes(10);
+        List<String> recent = new ArrayList<>();
+        List<String> single = new ArrayList<>();
+        for (String messageId : messageIds) {
+            if (TimeUtil.getTimeCreated(MiscUtil.parseSnowflake(messageId)).isAfter(bulkCutoff)) {
+                recent.add(messageId);
+            } else {
+                single.add(messageId);
+            }
+        }
+
+        int deleted = 0;
+        for (int start = 0; start < recent.size() && !cancelled; start += BULK_DELETE_LIMIT) {
+            List<String> chunk = recent.subList(start, Math.min(start + BULK_DELETE_LIMIT, recent.size()));
+            try {
+                if (chunk.size() == 1) {
+                    // Bulk deletes need at least two messages
+                    channel.deleteMessageById(chunk.get(0)).complete();
+                } else {
+                    channel.deleteMessagesByIds(chunk).complete();
+                }
+                deleted += chunk.size();
+                found.addAndGet(chunk.size());
+            } catch (Exception e) {
+                LogUtils.logDebug("Could not bulk delete " + chunk.size() + " messages in channel " + channel.getName() + ": " + e.getMessage());
+                if (chunk.size() > 1) {
+                    single.addAll(chunk);
+                }
+            }
+        }
+
+        for (String messageId : single) {
+            if (cancelled) {
+                break;
+            }
+            try {
+                // Use complete() inside a separate thread, not a callback; JDA waits out the rate limit
+                channel.deleteMessageById(messageId).complete();
+                deleted++;
+                found.incrementAndGet();
+                LogUtils.logDebug("Deleted message " + messageId + " from " + channel.getName());
+            } catch (Exception e) {
+                LogUtils.logDebug("Could not delete message " + messageId + " in channel " + channel.getName() + ": " + e.getMessage());
+            }
+            updateStatus();
+        }
+        return deleted;
+    }
+
+    private synchronized PurgeJobStorage.ChannelCursor getCursor(String channelId) {
+        PurgeJobStorage.ChannelCursor cursor = state.cursors.get(channelId);
+        PurgeJobStorage.ChannelCursor copy = new PurgeJobStorage.ChannelCursor();
+        if (cursor != null) {
+            copy.anchorId = cursor.anchorId;
+            copy.done = cursor.done;
+            copy.deleted = cursor.deleted;
+        }
+        return copy;
+    }
+
+    /**
+     * Records the position reached in a channel and saves the job at a throttled rate.
+     *
+     * @param channelId ID of the channel
+     * @param anchorId ID of the last message processed
+     * @param deleted Number of messages deleted in the channel
+     * @param done Whether the channel is finished
+     * @param force Whether to save regardless of the checkpoint interval
+     */
+    private synchronized void checkpoint(String channelId, String anchorId, int deleted, boolean done, boolean force) {
+        if (preview) {
+            return;
+        }
+        PurgeJobStorage.ChannelCursor cursor = state.cursors.computeIfAbsent(channelId, id -> new PurgeJobStorage.ChannelCursor());
+        cursor.anchorId = anchorId;
+        cursor.deleted = deleted;
+        cursor.done = done;
+
+        long now = System.currentTimeMillis();
+        if (force || now - lastCheckpointAt >= CHECKPOINT_INTERVAL_MILLIS) {
+            lastCheckpointAt = now;
+            save();
+        }
+    }
+
+    /**
+     * Saves the job, if the job storage is available.
+     */
+    synchronized void save() {
+        PurgeJobStorage storage = Bot.getPurgeJobs();
+        if (storage == null || preview) {
+            return;
+        }
+        try {
+            storage.save(state);
+        } catch (IOException e) {
+            LogUtils.logException("Error saving purge job " + state.id, e);
+        }
+    }
+
+    /**
+     * Sends the status message with the cancel button, or shows in the existing one that the job (re)started.
+     */
+    private void postStatus() {
+        GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, state.statusChannelId);
+        if (channel == null) {
+            return;
+        }
+        ActionRow cancel = ActionRow.of(Button.danger("purge_cancel:" + state.id, "❌ Cancel"));
+        if (state.statusMessageId == null) {
+            Message message = channel.sendMessageEmbeds(buildProgress()).setComponents(cancel).complete();
+            synchronized (this) {
+                state.statusMessageId = message.getId();
+            }
+            save();
+        } else {
+            channel.editMessageEmbedsById(state.statusMessageId, buildProgress()).setComponents(cancel)
+                    .queue(null, failure -> LogUtils.logDebug("Could not edit status of purge job " + state.id + ": " + failure.getMessage()));
+        }
+        lastStatusAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Edits the status message with the current progress, at most once per status interval.
+     */
+    private void updateStatus() {
+        long now = System.currentTimeMillis();
+        long last = lastStatusAt.get();
+        if (now - last < STATUS_INTERVAL_MILLIS || !lastStatusAt.compareAndSet(last, now)) {
+            return;
+        }
+        editStatus(buildProgress(), false);
+    }
+
+    /**
+     * Replaces the embed of the status message.
+     *
+     * @param embed The new embed
+     * @param finished Whether the job is over, removing the cancel button
+     */
+    private void editStatus(MessageEmbed embed, boolean finished) {
+        GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, state.statusChannelId);
+        if (channel == null || state.statusMessageId == null) {
+            return;
+        }
+        MessageEditAction edit = channel.editMessageEmbedsById(state.statusMessageId, embed);
+        if (finished) {
+            edit = edit.setComponents();
+        }
+        edit.queue(null, failure -> LogUtils.logDebug("Could not edit status of purge job " + state.id + ": " + failure.getMessage()));
+    }
+
+    private MessageEmbed buildProgress() {
+        EmbedBuilder embed = EmbedUtils.createDefault()
+                .setTitle(preview ? "🔍 Counting messages …" : "🧹 Deleting messages …")
+                .setDescription("Purging messages from <@" + state.targetUserId + ">"
+                        + (state.resumes > 0 ? " (resumed after a restart)" : ""))
+                .addField(preview ? "Messages Found" : "Messages Deleted", String.valueOf(found.get()), true)
+                .addField("Channels", channelsDone.get() + "/" + channelsTotal.get(), true);
+        if (!indexed) {
+            embed.addField("Messages Scanned", String.valueOf(scanned.get()), true);
+        }
+        return addScope(embed).setFooter("Job " + state.id).build();
+    }
+
+    private MessageEmbed buildResult() {
+        EmbedBuilder embed;
+        if (cancelled) {
+            embed = EmbedUtils.createWarning()
+                    .setTitle("⏹️ Purge Cancelled")
+                    .setDescription("The purge of messages from <@" + state.targetUserId + "> was cancelled")
+                    .addField(preview ? "Messages Found" : "Messages Deleted", String.valueOf(found.get()), false);
+        } else if (preview) {
+            embed = EmbedUtils.createDefault()
+                    .setTitle("🔍 Purge Preview")
+                    .setDescription("Nothing was deleted. These messages from **<@" + state.targetUserId + ">** would be deleted")
+                    .addField("Messages to Delete", String.valueOf(found.get()), false);
+        } else {
+            embed = EmbedUtils.createSuccess()
+                    .setTitle("✅ Messages Deleted")
+                    .setDescription("Successfully deleted messages from **<@" + state.targetUserId + ">**")
+                    .addField("Messages Deleted", String.valueOf(found.get()), false);
+        }
+        embed.addField("Channels", String.valueOf(channelsTotal.get()), false);
+        addScope(embed);
+        embed.addField("Source", indexed ? "Message index (messages sent while the bot was offline are missed)" : "Channel scan", false);
+        return embed.setFooter("Job " + state.id).build();
+    }
+
+    private EmbedBuilder addScope(EmbedBuilder embed) {
+        if (state.scopeMention != null) {
+            embed.addField("Channel", state.scopeMention, false);
+        }
+
+        if (state.days > 0) {
+            embed.addField("Time Range", "Last " + state.days + " day(s)", false);
+        } else {
+            embed.addField("Time Range", "All messages", false);
+        }
+
+        if (state.limit > 0) {
+            embed.addField("Limit", state.limit + " messages", false);
+        }
+        return embed;
+    }
+
+    /**
+     * Gets the configured number of channels scanned at once.
+     *
+     * @return The maximum number of parallel channel scans
+     */
+    private static int getMaxParallelChannels() {
+        try {
+            return Config.get().getPurge().getMaxParallelChannels();
+        } catch (IOException e) {
+            LogUtils.logException("Error loading purge settings, using defaults", e);
+            return 4;
+        }
+    }
+}
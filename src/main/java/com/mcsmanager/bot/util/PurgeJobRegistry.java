@@ -0,0 +1,154 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.PurgeJobStorage;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of running purge jobs.
+ * Limits how many purges run at once, lets moderators cancel them and resumes the jobs
+ * that were interrupted by the last shutdown.
+ *
+ * @author SkyKing_PX
+ */
+public class PurgeJobRegistry {
+
+    /** Maximum number of times a job is resumed before it is given up */
+    private static final int MAX_RESUMES = 3;
+
+    /** Running and waiting jobs by ID */
+    private static final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+    private static ExecutorService executor;
+
+    private PurgeJobRegistry() {
+    }
+
+    /**
+     * Starts a new job, unless the configured number of jobs is already running.
+     *
+     * @param job The job to start
+     * @return True if the job was started, false if too many jobs are running
+     */
+    public static synchronized boolean start(PurgeJob job) {
+        if (jobs.size() >= getMaxConcurrentJobs()) {
+            return false;
+        }
+        submit(job);
+        return true;
+    }
+
+    /**
+     * Cancels a running job.
+     *
+     * @param id Identifier of the job
+     * @return True if the job was running, false if it is unknown or already finished
+     */
+    public static boolean cancel(String id) {
+        PurgeJob job = jobs.get(id);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
+        LogUtils.logInfo("Purge job " + id + " cancelled");
+        return true;
+    }
+
+    /**
+     * Resumes the jobs that were left unfinished by the last shutdown.
+     * Resumed jobs wait for a free slot instead of being rejected.
+     *
+     * @param jda The JDA instance
+     */
+    public static synchronized void resumeAll(JDA jda) {
+        PurgeJobStorage storage = Bot.getPurgeJobs();
+        if (storage == null) return;
+
+        List<PurgeJobStorage.PurgeJobState> interrupted = storage.loadAll();
+        if (interrupted.isEmpty()) return;
+        LogUtils.logInfo("Resuming " + interrupted.size() + " interrupted purge job(s)");
+
+        for (PurgeJobStorage.PurgeJobState state : interrupted) {
+            if (jobs.containsKey(state.id)) {
+                continue; // Already resumed on an earlier ready event
+            }
+            Guild guild = jda.getGuildById(state.guildId);
+            if (guild == null) {
+                LogUtils.logWarning("Dropping purge job " + state.id + ", guild " + state.guildId + " is not available");
+                storage.remove(state.id);
+                continue;
+            }
+
+            state.resumes++;
+            if (state.resumes > MAX_RESUMES) {
+                abandon(guild, state);
+                continue;
+            }
+            submit(new PurgeJob(guild, state, false));
+        }
+    }
+
+    private static void submit(PurgeJob job) {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(getMaxConcurrentJobs(), runnable -> {
+                Thread thread = new Thread(runnable, "PurgeJobRegistry-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        jobs.put(job.getId(), job);
+        job.save();
+        executor.execute(() -> {
+            try {
+                job.run();
+            } finally {
+                jobs.remove(job.getId());
+                PurgeJobStorage storage = Bot.getPurgeJobs();
+                if (storage != null) {
+                    storage.remove(job.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Gives up a job that was interrupted too often and reports it in its status message.
+     */
+    private static void abandon(Guild guild, PurgeJobStorage.PurgeJobState state) {
+        LogUtils.logWarning("Giving up purge job " + state.id + " after " + MAX_RESUMES + " restarts");
+        Bot.getPurgeJobs().remove(state.id);
+        GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, state.statusChannelId);
+        if (channel != null && state.statusMessageId != null) {
+            channel.editMessageEmbedsById(state.statusMessageId,
+                            EmbedUtils.createSimpleError("❌ The purge was interrupted by too many restarts. Please run it again."))
+                    .setComponents()
+                    .queue(null, failure -> LogUtils.logDebug("Could not edit status of purge job " + state.id + ": " + failure.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the configured number of purges that may run at once.
+     *
+     * @return The maximum number of concurrent jobs
+     */
+    private static int getMaxConcurrentJobs() {
+        try {
+            return Math.max(1, Config.get().getPurge().getMaxConcurrentJobs());
+        } catch (IOException e) {
+            LogUtils.logException("Error loading purge settings, using defaults", e);
+            return 2;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.mcsmanager.bot.util;
 
 import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.logs.SignatureScanner;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
@@ -36,6 +37,7 @@ public class Reload extends ListenerAdapter {
             event.deferReply(true).queue(hook -> {
                 try {
                     Config.reload();
+                    SignatureScanner.reload();
                     LogUtils.logConfig("Configuration reloaded successfully");
                     hook.editOriginalEmbeds(EmbedUtils.createSimpleSuccess("✅ Config reloaded successfully!")).queue();
                 } catch (Exception e) {
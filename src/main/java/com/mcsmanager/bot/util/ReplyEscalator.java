@@ -0,0 +1,316 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.storage.ThreadStateStorage;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.TimeFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Escalates new support and bug report posts that nobody but their author has replied to.
+ * Time to the first reply is tracked from message events in the thread state index. The reply
+ * deadlines of unanswered posts are kept in a priority queue, and a single timer wakes up when the
+ * earliest one expires; answered posts are dropped from the queue once they reach its head.
+ * When a deadline expires the moderator roles are pinged in the escalation channel, unless a reply
+ * that arrived while the bot was offline shows up in the thread's history.
+ *
+ * @author SkyKing_PX
+ */
+public class ReplyEscalator extends ListenerAdapter {
+
+    /** Reply deadlines, earliest first */
+    private static final PriorityQueue<Pending> queue = new PriorityQueue<>(Comparator.comparingLong(Pending::dueAt));
+
+    private static ScheduledExecutorService timer;
+    private static ScheduledFuture<?> wakeUp;
+    private static JDA jda;
+
+    /**
+     * Starts the escalator and queues the deadlines of posts that were unanswered when the bot stopped.
+     * Deadlines are real time, as the timer waits on the system clock.
+     * Calling it again only replaces the JDA instance.
+     *
+     * @param jdaInstance The JDA instance
+     */
+    public static synchronized void start(JDA jdaInstance) {
+        jda = jdaInstance;
+        if (timer != null) {
+            return;
+        }
+
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReplyEscalator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ThreadStateStorage store = Bot.getThreadState();
+        if (store == null) {
+            LogUtils.logWarning("Thread state unavailable, unanswered posts are not escalated");
+            return;
+        }
+        long sla = getSlaMillis();
+        for (ThreadStateStorage.ThreadState state : store.getUnanswered()) {
+            queue.add(new Pending(state.threadId, state.createdAt + sla));
+        }
+        arm();
+        LogUtils.logInfo("Reply Escalator started with " + queue.size() + " unanswered posts.");
+    }
+
+    /**
+     * Starts tracking new posts in the support and bug report forums.
+     *
+     * @param event The channel creation event
+     */
+    @Override
+    public void onChannelCreate(@NotNull ChannelCreateEvent event) {
+        ThreadStateStorage store = Bot.getThreadState();
+        if (store == null || !event.getChannel().getType().isThread()) {
+            return;
+        }
+
+        ThreadChannel thread = event.getChannel().asThreadChannel();
+        try {
+            if (forumName(thread) == null || !Config.get().getEscalation().isEnabled()) {
+                return;
+            }
+            long createdAt = thread.getTimeCreated().toInstant().toEpochMilli();
+            store.trackNew(thread.getId(), createdAt);
+            enqueue(new Pending(thread.getId(), createdAt + getSlaMillis()));
+        } catch (IOException e) {
+            LogUtils.logException("Error tracking new post " + thread.getName(), e);
+        }
+    }
+
+    /**
+     * Records the first reply by someone other than the author of a tracked post.
+     *
+     * @param event The message received event
+     */
+    @Override
+    public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+        ThreadStateStorage store = Bot.getThreadState();
+        if (store == null || !event.isFromThread() || event.getAuthor().isBot()) {
+            return;
+        }
+
+        ThreadChannel thread = event.getChannel().asThreadChannel();
+        if (event.getAuthor().getIdLong() == thread.getOwnerIdLong()) {
+            return;
+        }
+        try {
+            ThreadStateStorage.ThreadState state = store.recordReply(thread.getId(),
+                    event.getMessage().getTimeCreated().toInstant().toEpochMilli());
+            if (state != null) {
+                LogUtils.logInfo("First reply in " + thread.getName() + " after "
+                        + Duration.ofMillis(state.firstReplyAt - state.createdAt).toMinutes() + " minutes");
+            }
+        } catch (IOException e) {
+            LogUtils.logException("Error recording reply in thread " + thread.getName(), e);
+        }
+    }
+
+    private static synchronized void enqueue(Pending pending) {
+        queue.add(pending);
+        if (queue.peek() == pending) {
+            arm();
+        }
+    }
+
+    /**
+     * Sets the timer to the earliest deadline in the queue.
+     */
+    private static synchronized void arm() {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        Pending head = queue.peek();
+        if (head == null || timer == null) {
+            return;
+        }
+        long delay = Math.max(0, head.dueAt() - System.currentTimeMillis());
+        wakeUp = timer.schedule(ReplyEscalator::expire, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Escalates the posts whose deadline has expired.
+     */
+    private static void expire() {
+        List<Pending> due = new ArrayList<>();
+        synchronized (ReplyEscalator.class) {
+            long now = System.currentTimeMillis();
+            while (!queue.isEmpty() && queue.peek().dueAt() <= now) {
+                due.add(queue.poll());
+            }
+            arm();
+        }
+
+        for (Pending pending : due) {
+            try {
+                escalate(pending.threadId());
+            } catch (Exception e) {
+                LogUtils.logException("Error escalating thread " + pending.threadId(), e);
+            }
+        }
+    }
+
+    /**
+     * Escalates a post unless it was answered, closed or deleted in the meantime.
+     * Replies sent while the bot was offline never reached {@link #onMessageReceived}, so unless
+     * the starter message is still the latest message, the last page of history is checked first.
+     *
+     * @param threadId ID of the thread
+     * @throws IOException If there is an error accessing configuration or the thread state index
+     */
+    private static void escalate(String threadId) throws IOException {
+        ThreadStateStorage store = Bot.getThreadState();
+        if (store == null || jda == null) {
+            return;
+        }
+        ThreadChannel thread = jda.getThreadChannelById(threadId);
+        if (thread == null) {
+            store.remove(threadId); // Deleted
+            return;
+        }
+        if (thread.isArchived()) {
+            store.markEscalated(threadId, System.currentTimeMillis()); // Closed before its deadline
+            return;
+        }
+        String forumName = forumName(thread);
+        if (forumName == null || !Config.get().getEscalation().isEnabled()) {
+            return;
+        }
+        if (thread.getLatestMessageIdLong() == thread.getIdLong()) {
+            notifyModerators(store, thread, forumName);
+            return;
+        }
+
+        thread.getHistory().retrievePast(100).queue(messages -> {
+            try {
+                Message reply = messages.stream()
+                        .filter(message -> !message.getAuthor().isBot() && message.getAuthor().getIdLong() != thread.getOwnerIdLong())
+                        .min(Comparator.comparing(Message::getTimeCreated))
+                        .orElse(null);
+                if (reply != null) {
+                    store.recordReply(threadId, reply.getTimeCreated().toInstant().toEpochMilli());
+                    return;
+                }
+                notifyModerators(store, thread, forumName);
+            } catch (IOException e) {
+                LogUtils.logException("Error escalating thread " + thread.getName(), e);
+            }
+        }, failure -> LogUtils.logException("Failed to read history of unanswered post: " + thread.getName(), failure));
+    }
+
+    /**
+     * Marks a post as escalated and pings the moderator roles in the escalation channel.
+     *
+     * @param store The thread state index
+     * @param thread The unanswered post
+     * @param forumName Name of the forum the post belongs to
+     * @throws IOException If there is an error accessing configuration or the thread state index
+     */
+    private static void notifyModerators(ThreadStateStorage store, ThreadChannel thread, String forumName) throws IOException {
+        if (!store.markEscalated(thread.getId(), System.currentTimeMillis())) {
+            return; // Answered in the meantime
+        }
+
+        Config config = Config.get();
+        String channelId = config.getEscalation().getChannelId();
+        TextChannel channel = thread.getGuild().getTextChannelById(
+                channelId == null || channelId.isBlank() ? config.getLogging().getLogChannelId() : channelId);
+        if (channel == null) {
+            LogUtils.logWarning("Escalation channel not found, could not escalate " + thread.getName());
+            return;
+        }
+
+        String mentions = Arrays.stream(config.getRoles().getModerators())
+                .map(roleId -> "<@&" + roleId + ">")
+                .collect(Collectors.joining(" "));
+        MessageEmbed embed = EmbedUtils.createWarning()
+                .setTitle("⏰ Unanswered post")
+                .setDescription(thread.getAsMention() + " has not received a reply from anyone but its author yet.")
+                .addField("Forum", forumName, true)
+                .addField("Opened", TimeFormat.RELATIVE.format(thread.getTimeCreated()), true)
+                .build();
+        channel.sendMessage(mentions).addEmbeds(embed).queue(
+                success -> LogUtils.logInfo("Escalated unanswered post: " + thread.getName()),
+                failure -> LogUtils.logException("Failed to escalate unanswered post: " + thread.getName(), failure)
+        );
+    }
+
+    /**
+     * Gets the name of the forum a thread belongs to.
+     *
+     * @param thread The thread
+     * @return "Support" or "Bug Report", or null if the thread is in neither forum
+     * @throws IOException If there is an error accessing configuration
+     */
+    private static String forumName(ThreadChannel thread) throws IOException {
+        String parentId = thread.getParentChannel().getId();
+        Config config = Config.get();
+        if (parentId.equals(config.getSupport().getSupport_forum_id())) {
+            return "Support";
+        }
+        if (parentId.equals(config.getBugReport().getBugReport_forum_id())) {
+            return "Bug Report";
+        }
+        return null;
+    }
+
+    /**
+     * Gets the configured time a new post may wait for its first reply.
+     *
+     * @return The reply deadline in milliseconds
+     */
+    private static long getSlaMillis() {
+        try {
+            return TimeUnit.MINUTES.toMillis(Math.max(1, Config.get().getEscalation().getReplySlaMinutes()));
+        } catch (IOException e) {
+            LogUtils.logException("Error loading escalation settings, using defaults", e);
+            return TimeUnit.MINUTES.toMillis(720);
+        }
+    }
+
+    /**
+     * Stops the escalator.
+     */
+    public static synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+            wakeUp = null;
+        }
+    }
+
+    /**
+     * Reply deadline of an unanswered post.
+     *
+     * @param threadId ID of the thread
+     * @param dueAt Epoch milliseconds at which the post is escalated
+     */
+    private record Pending(String threadId, long dueAt) {
+    }
+}
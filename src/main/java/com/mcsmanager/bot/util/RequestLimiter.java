@@ -0,0 +1,92 @@
+package com.mcsmanager.bot.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous Discord requests a background task has in flight.
+ * Further requests wait in submission order and are started as earlier ones complete, so a large
+ * batch never floods JDA's rate limit queue ahead of interactive commands.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @author SkyKing_PX
+ */
+public class RequestLimiter {
+
+    /** Maximum number of requests in flight */
+    private final int maxInFlight;
+    /** Requests waiting for a free slot */
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    /** Number of requests in flight */
+    private int inFlight;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param maxInFlight Maximum number of requests in flight, at least 1
+     */
+    public RequestLimiter(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Starts a request as soon as a slot is free.
+     *
+     * @param request Starts the request, e.g. {@code () -> action.submit()}
+     * @param <T> Type of the result
+     * @return Future completed with the outcome of the request
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> running;
+            try {
+                running = request.get();
+            } catch (Exception e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            running.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                waiting.add(start);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    /**
+     * Gets the number of requests waiting for a slot.
+     *
+     * @return Number of waiting requests
+     */
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        // The slot passes straight to the next request
+        next.run();
+    }
+}
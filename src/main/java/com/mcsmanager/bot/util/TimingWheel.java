@@ -0,0 +1,180 @@
+package com.mcsmanager.bot.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel holding at most one deadline per key.
+ * Level 0 has one slot per tick, every further level has slots spanning a whole turn of the
+ * level below. A deadline is kept in the lowest level that can hold it and moves down a level
+ * whenever the wheel reaches its slot, so scheduling, rescheduling and cancelling are O(1)
+ * and each deadline fires on the tick it falls into.
+ * Thread-safe implementation using synchronized methods.
+ *
+ * @param <K> Type of the keys
+ * @author SkyKing_PX
+ */
+public class TimingWheel<K> {
+
+    /** Number of bits of a slot index */
+    private static final int SLOT_BITS = 6;
+    /** Number of slots per level */
+    private static final int SLOTS = 1 << SLOT_BITS;
+    /** Mask of a slot index */
+    private static final int SLOT_MASK = SLOTS - 1;
+    /** Number of levels, enough for 2^24 ticks */
+    private static final int LEVELS = 4;
+
+    /** Length of a tick in milliseconds */
+    private final long tickMillis;
+    /** Slots by level, each the sentinel of a circular list */
+    private final Entry<K>[][] wheel;
+    /** Entries by key */
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    /** Last tick that was processed */
+    private long currentTick;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param tickMillis Length of a tick in milliseconds, the precision of the deadlines
+     * @param nowMillis Current time in epoch milliseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheel = new Entry[LEVELS][SLOTS];
+        for (Entry<K>[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Entry<>(null, 0);
+            }
+        }
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline.
+     * Deadlines that have already passed fire on the next tick.
+     *
+     * @param key The key
+     * @param deadlineMillis Deadline in epoch milliseconds
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key, 0);
+            entries.put(key, entry);
+        } else {
+            entry.unlink();
+        }
+        // Round up so a deadline never fires early
+        entry.tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        insert(entry);
+    }
+
+    /**
+     * Removes the deadline of a key.
+     *
+     * @param key The key
+     */
+    public synchronized void cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry != null) {
+            entry.unlink();
+        }
+    }
+
+    /**
+     * Gets the number of scheduled keys.
+     *
+     * @return Number of keys with a deadline
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advances the wheel to the given time and removes the keys whose deadline has passed.
+     *
+     * @param nowMillis Current time in epoch milliseconds
+     * @return Expired keys in order of their deadline tick
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Move deadlines down from the levels whose slot boundary was reached, highest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(wheel[level][(int) ((currentTick >>> shift) & SLOT_MASK)]);
+                }
+            }
+
+            Entry<K> slot = wheel[0][(int) (currentTick & SLOT_MASK)];
+            while (slot.next != slot) {
+                Entry<K> entry = slot.next;
+                entry.unlink();
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(Entry<K> slot) {
+        Entry<K> entry = slot.next;
+        while (entry != slot) {
+            Entry<K> next = entry.next;
+            entry.unlink();
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private void insert(Entry<K> entry) {
+        long tick = entry.tick;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((tick >>> shift) - (currentTick >>> shift) < SLOTS) {
+                wheel[level][(int) ((tick >>> shift) & SLOT_MASK)].append(entry);
+                return;
+            }
+        }
+        // Beyond the wheel: park in the last slot of the top level and place it again from there
+        int shift = SLOT_BITS * (LEVELS - 1);
+        wheel[LEVELS - 1][(int) (((currentTick >>> shift) + SLOTS - 1) & SLOT_MASK)].append(entry);
+    }
+
+    /**
+     * A scheduled key, linked into the list of its slot.
+     */
+    private static final class Entry<K> {
+        private final K key;
+        private long tick;
+        private Entry<K> prev = this;
+        private Entry<K> next = this;
+
+        private Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+
+        private void append(Entry<K> entry) {
+            entry.prev = prev;
+            entry.next = this;
+            prev.next = entry;
+            prev = entry;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.mcsmanager.bot.util;
+
+import com.mcsmanager.bot.Bot;
+import com.mcsmanager.bot.Config;
+import com.mcsmanager.bot.logs.InlineLogDetector;
+import com.mcsmanager.bot.logs.LogUploadResult;
+import com.mcsmanager.bot.storage.UploadSpoolStorage;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs log upload jobs through their lifecycle: spools them, hands their uploads to the upload
+ * executor, keeps the placeholder message up to date and removes them from the spool once the
+ * result is shown. Jobs left unfinished by a shutdown are resumed from the spool.
+ *
+ * @author SkyKing_PX
+ */
+public class UploadJobRunner {
+
+    /**
+     * Creates the uploads of a job and presents their outcome.
+     */
+    public interface Uploads {
+
+        /**
+         * Turns attachments into upload units, one per attachment.
+         *
+         * @param attachments The attachments to upload
+         * @return The upload units
+         */
+        List<Supplier<List<LogUploadResult>>> attachments(List<Message.Attachment> attachments);
+
+        /**
+         * Turns a pasted log into an upload unit.
+         *
+         * @param text The pasted log
+         * @param parts Number of messages the log was pasted in
+         * @return The upload unit
+         */
+        Supplier<List<LogUploadResult>> pasted(String text, int parts);
+
+        /**
+         * Replaces the placeholder with the results of a finished job.
+         *
+         * @param channel The channel the logs were posted in
+         * @param placeholder The message to edit
+         * @param results Results of the uploaded logs
+         * @return Future completing once the message was edited
+         */
+        CompletableFuture<Message> showResults(MessageChannel channel, Message placeholder, List<LogUploadResult> results);
+
+        /**
+         * Replaces the placeholder with the failure of a job.
+         *
+         * @param placeholder The message to edit
+         * @param error The failure
+         * @return Future completing once the message was edited
+         */
+        CompletableFuture<Message> showFailure(Message placeholder, Throwable error);
+    }
+
+    /** Creates uploads and presents their outcome */
+    private final Uploads uploads;
+
+    /**
+     * Creates a new job runner.
+     *
+     * @param uploads Creates the uploads of jobs and presents their outcome
+     */
+    public UploadJobRunner(Uploads uploads) {
+        this.uploads = uploads;
+    }
+
+    /**
+     * Starts a new job. If all workers are busy, the job is dropped and the channel is told so.
+     *
+     * @param channel The channel the logs were posted in
+     * @param units The upload units, each producing the results of one attachment or pasted log
+     * @param job The job to start
+     */
+    public void start(MessageChannel channel, List<Supplier<List<LogUploadResult>>> units, UploadSpoolStorage.UploadJob job) {
+        if (!process(channel, units, job, null)) {
+            finish(job);
+            sendBusy(channel);
+        }
+    }
+
+    /**
+     * Tells the channel that the uploader is saturated.
+     *
+     * @param channel The channel the logs were posted in
+     */
+    private static void sendBusy(MessageChannel channel) {
+        channel.sendMessageEmbeds(EmbedUtils.createWarning()
+                .setTitle("⚠️ Log uploader busy")
+                .setDescription("Too many logs are being processed right now. Please try again in a moment.")
+                .build()).queue();
+    }
+
+    /**
+     * Resumes the jobs that were left unfinished by the last shutdown.
+     *
+     * @param jda The JDA instance
+     */
+    public void resumeAll(JDA jda) {
+        UploadSpoolStorage spool = Bot.getUploadSpool();
+        if (spool == null) return;
+
+        List<UploadSpoolStorage.UploadJob> jobs = spool.loadAll();
+        if (jobs.isEmpty()) return;
+        LogUtils.logInfo("Resuming " + jobs.size() + " unfinished log upload job(s)");
+
+        for (UploadSpoolStorage.UploadJob job : jobs) {
+            job.resumes++;
+            if (job.resumes > LogUploader.getSetting(Config.LogUpload::getSpoolMaxResumes, 3)) {
+                abandon(jda, job, "The upload was interrupted by too many restarts. Please post the logs again.");
+                continue;
+            }
+            spool(job);
+            resume(jda, job);
+        }
+    }
+
+    /**
+     * Resumes a spooled job. The source messages are fetched again, since attachment URLs expire
+     * and pasted logs are not stored in the spool.
+     *
+     * @param jda The JDA instance
+     * @param job The job to resume
+     */
+    private void resume(JDA jda, UploadSpoolStorage.UploadJob job) {
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, job.channelId);
+        if (channel == null) {
+            LogUtils.logWarning("Dropping upload job " + job.id + ", channel " + job.channelId + " no longer exists");
+            finish(job);
+            return;
+        }
+
+        CompletableFuture<Message> existing = job.placeholderId == null
+                ? CompletableFuture.completedFuture(null)
+                : channel.retrieveMessageById(job.placeholderId).submit().exceptionally(ex -> null);
+        CompletableFuture<List<Supplier<List<LogUploadResult>>>> units = job.inlineMessageIds != null
+                ? retrievePasted(channel, job)
+                : channel.retrieveMessageById(job.messageId).submit()
+                        .thenApply(source -> uploads.attachments(source.getAttachments().stream()
+                                .filter(att -> job.attachmentIds != null && job.attachmentIds.contains(att.getId()))
+                                .toList()))
+                        .exceptionally(ex -> List.of());
+        units.thenAcceptBoth(existing, (resumed, placeholder) -> {
+            if (resumed.isEmpty()) {
+                fail(placeholder, job, "The message with the logs was deleted before the upload finished.");
+                return;
+            }
+
+            if (placeholder != null) {
+                placeholder.editMessageEmbeds(loadingEmbed("Resuming after a restart …")).queue();
+            }
+            if (!process(channel, resumed, job, placeholder)) {
+                // All workers are busy; the job stays in the spool and is tried again later
+                int delay = LogUploader.getSetting(Config.LogUpload::getSpoolRetrySeconds, 30);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.SECONDS).execute(() -> resume(jda, job));
+            }
+        });
+    }
+
+    /**
+     * Fetches the messages of a spooled pasted log and extracts the log from them again.
+     *
+     * @param channel The channel the log was pasted in
+     * @param job The spooled job
+     * @return Future completing with the upload, or an empty list if all messages were deleted
+     */
+    private CompletableFuture<List<Supplier<List<LogUploadResult>>>> retrievePasted(MessageChannel channel, UploadSpoolStorage.UploadJob job) {
+        List<CompletableFuture<Message>> messages = job.inlineMessageIds.stream()
+                .map(id -> channel.retrieveMessageById(id).submit().exceptionally(ex -> null))
+                .toList();
+        return CompletableFuture.allOf(messages.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<String> parts = messages.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .map(message -> InlineLogDetector.extract(message.getContentRaw(), 1))
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (parts.isEmpty()) return List.of();
+            return List.of(uploads.pasted(String.join("\n", parts), parts.size()));
+        });
+    }
+
+    /**
+     * Gives up a spooled job and reports it in its placeholder, if one was sent.
+     *
+     * @param jda The JDA instance
+     * @param job The job to give up
+     * @param reason Message shown in the placeholder
+     */
+    private void abandon(JDA jda, UploadSpoolStorage.UploadJob job, String reason) {
+        LogUtils.logWarning("Giving up upload job " + job.id + ": " + reason);
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, job.channelId);
+        if (channel == null || job.placeholderId == null) {
+            finish(job);
+            return;
+        }
+        channel.retrieveMessageById(job.placeholderId).submit()
+                .whenComplete((placeholder, error) -> fail(placeholder, job, reason));
+    }
+
+    /**
+     * Shows a failure in a job's placeholder and removes the job from the spool.
+     *
+     * @param placeholder The placeholder message, or null if there is none
+     * @param job The failed job
+     * @param reason Message shown in the placeholder
+     */
+    private void fail(Message placeholder, UploadSpoolStorage.UploadJob job, String reason) {
+        if (placeholder == null) {
+            finish(job);
+            return;
+        }
+        uploads.showFailure(placeholder, new IOException(reason)).whenComplete((edited, error) -> finish(job));
+    }
+
+    /**
+     * Runs a job: hands its uploads to the bounded upload executor and, once every upload is
+     * done, replaces the placeholder with the result. The job stays in the spool until the
+     * placeholder has been edited.
+     *
+     * @param channel The channel to post the placeholder in
+     * @param units The upload units, each producing the results of one attachment or pasted log
+     * @param job The spooled job
+     * @param existingPlaceholder Placeholder of a resumed job, or null to send a new one
+     * @return Whether the job was started; false if all workers are busy
+     */
+    private boolean process(MessageChannel channel, List<Supplier<List<LogUploadResult>>> units,
+                            UploadSpoolStorage.UploadJob job, Message existingPlaceholder) {
+        // 1) hand the uploads to the bounded upload executor, split into parallel lanes
+        List<List<LogUploadResult>> results = new ArrayList<>(Collections.nCopies(units.size(), List.of()));
+        int lanes = Math.min(units.size(), getMaxParallelPerMessage());
+        List<Supplier<Void>> tasks = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            int first = lane;
+            tasks.add(() -> {
+                for (int i = first; i < units.size(); i += lanes) {
+                    results.set(i, units.get(i).get());
+                }
+                return null;
+            });
+        }
+
+        spool(job);
+        List<CompletableFuture<Void>> running = Bot.getLogUploadExecutor().trySubmitAll(tasks);
+        if (running == null) {
+            return false;
+        }
+
+        // 2) send placeholder message while the workers are already downloading
+        CompletableFuture<Message> placeholder;
+        if (existingPlaceholder != null) {
+            placeholder = CompletableFuture.completedFuture(existingPlaceholder);
+        } else {
+            placeholder = channel.sendMessageEmbeds(loadingEmbed("Please be patient.")).submit().thenApply(message -> {
+                job.placeholderId = message.getId();
+                spool(job);
+                return message;
+            });
+        }
+
+        // 3) once every lane is done, swap the placeholder for the result
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).whenComplete((done, ex) ->
+                placeholder.thenCompose(message -> {
+                    if (ex != null) {
+                        return uploads.showFailure(message, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                    }
+                    return uploads.showResults(channel, message, results.stream().flatMap(List::stream).toList());
+                }).whenComplete((edited, error) -> finish(job)));
+        return true;
+    }
+
+    /**
+     * Builds the embed shown while logs are being uploaded.
+     *
+     * @param description Description of the embed
+     * @return The placeholder embed
+     */
+    private static MessageEmbed loadingEmbed(String description) {
+        return EmbedUtils.createDefault()
+                .setTitle("⏳ Uploading Logs …")
+                .setDescription(description)
+                .setTimestamp(Instant.now())
+                .build();
+    }
+
+    /**
+     * Persists a job in the spool, if the spool is available.
+     *
+     * @param job The job to persist
+     */
+    private static void spool(UploadSpoolStorage.UploadJob job) {
+        UploadSpoolStorage spool = Bot.getUploadSpool();
+        if (spool == null) return;
+        try {
+            spool.save(job);
+        } catch (IOException e) {
+            LogUtils.logException("Error saving upload job " + job.id, e);
+        }
+    }
+
+    /**
+     * Removes a completed job from the spool.
+     *
+     * @param job The finished job
+     */
+    private static void finish(UploadSpoolStorage.UploadJob job) {
+        UploadSpoolStorage spool = Bot.getUploadSpool();
+        if (spool != null) {
+            spool.remove(job.id);
+        }
+    }
+
+    /**
+     * Gets the configured number of attachments per message that may be processed in parallel.
+     *
+     * @return The per-message parallelism, at least 1
+     */
+    private static int getMaxParallelPerMessage() {
+        try {
+            return Math.max(1, Config.get().getLogUpload().getMaxParallelPerMessage());
+        } catch (IOException e) {
+            LogUtils.logException("Error while reading log upload config", e);
+            return 1;
+        }
+    }
+}
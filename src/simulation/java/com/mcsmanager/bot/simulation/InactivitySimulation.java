@@ -0,0 +1,227 @@
+package com.mcsmanager.bot.simulation;
+
+import com.mcsmanager.bot.storage.ThreadStateStorage;
+import com.mcsmanager.bot.util.InactivityScheduler;
+import com.mcsmanager.bot.util.LogUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Replays a synthetic forum against the inactivity scheduler on a virtual clock.
+ * Thousands of threads with random message timelines are generated; the clock then advances tick by
+ * tick, delivering messages as message events would and letting the scheduler remind and close threads.
+ * Part of the run is spent offline: messages keep arriving, the scheduler misses them and is rebuilt
+ * from the thread state index on restart, as on a real startup.
+ * Afterwards the Discord requests the bot would have issued and the timeliness and correctness of
+ * every notice are reported. Months of behaviour run in seconds.
+ * <p>
+ * Usage: {@code InactivitySimulation [threads=5000] [days=180] [seed=42] [outageDay=90] [outageDays=2]}
+ *
+ * @author SkyKing_PX
+ */
+public class InactivitySimulation {
+
+    /** Mean time between two messages of an active thread */
+    private static final Duration MEAN_GAP = Duration.ofHours(36);
+    /** Chance that a thread falls silent after a user message */
+    private static final double SILENCE_CHANCE = 0.25;
+    /** Chance that a bot (e.g. the log uploader) answers a user message */
+    private static final double BOT_REPLY_CHANCE = 0.2;
+    /** Chance that the author answers a reminder */
+    private static final double REMINDER_ANSWER_CHANCE = 0.4;
+    /** Share of pinned threads */
+    private static final double PINNED_SHARE = 0.02;
+
+    private final Random random;
+    private final VirtualClock clock;
+    private final ThreadStateStorage store;
+    private final SimulatedForum forum;
+    /** Future messages, earliest first */
+    private final PriorityQueue<Scheduled> timeline = new PriorityQueue<>(Comparator.comparingLong(Scheduled::at));
+    /** Notices sent by the bot, delivered as message events on the next tick */
+    private final Queue<SimulatedForum.Post> echoes = new ArrayDeque<>();
+    /** Forum and pinned flag of each thread */
+    private final Map<String, Scheduled> origins = new HashMap<>();
+
+    private InactivityScheduler scheduler;
+
+    private InactivitySimulation(long seed, Instant start) throws IOException {
+        this.random = new Random(seed);
+        this.clock = new VirtualClock(start);
+        this.store = new ThreadStateStorage(null, clock);
+        this.forum = new SimulatedForum(clock, echoes::add);
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args Optional key=value arguments, see the class description
+     * @throws IOException Never, the thread state index is kept in memory
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, Long> options = new HashMap<>(Map.of(
+                "threads", 5000L, "days", 180L, "seed", 42L, "outageDay", 90L, "outageDays", 2L));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2 || !options.containsKey(pair[0])) {
+                LogUtils.logWarning("Ignoring unknown argument " + arg);
+                continue;
+            }
+            options.put(pair[0], Long.parseLong(pair[1]));
+        }
+
+        InactivitySimulation simulation = new InactivitySimulation(options.get("seed"), Instant.parse("2025-01-01T00:00:00Z"));
+        simulation.run(options.get("threads").intValue(), Duration.ofDays(options.get("days")),
+                Duration.ofDays(options.get("outageDay")), Duration.ofDays(options.get("outageDays")));
+    }
+
+    private void run(int threadCount, Duration length, Duration outageStart, Duration outageLength) {
+        long start = clock.millis();
+        long end = start + length.toMillis();
+        long offlineFrom = start + outageStart.toMillis();
+        long offlineUntil = offlineFrom + outageLength.toMillis();
+
+        // Threads open over the first two thirds of the run, so the last ones can still go stale
+        for (int i = 0; i < threadCount; i++) {
+            long createdAt = start + (long) (random.nextDouble() * length.toMillis() * 2 / 3);
+            Scheduled first = new Scheduled(String.valueOf(i), createdAt, false,
+                    random.nextBoolean() ? "Support" : "Bug Report", random.nextDouble() < PINNED_SHARE);
+            origins.put(first.threadId(), first);
+            timeline.add(first);
+        }
+
+        long wallStart = System.nanoTime();
+        scheduler = new InactivityScheduler(clock, store, forum, 2);
+        boolean online = true;
+        long ticks = 0;
+        long sweepHistoryReads = 0;
+        long nextNoon = start + Duration.ofHours(12).toMillis();
+        while (clock.millis() < end) {
+            clock.advance(Duration.ofMillis(InactivityScheduler.TICK_MILLIS));
+            long now = clock.millis();
+
+            if (online && now >= offlineFrom && now < offlineUntil) {
+                online = false;
+                LogUtils.logInfo("Simulation: bot offline at " + clock.instant());
+            } else if (!online && now >= offlineUntil) {
+                online = true;
+                echoes.clear(); // Sent before the outage and lost with it
+                scheduler = new InactivityScheduler(clock, store, forum, 2);
+                LogUtils.logInfo("Simulation: bot back at " + clock.instant() + ", rebuilt "
+                        + scheduler.scheduleAll() + " deadlines from the thread state index");
+            }
+
+            // A daily history sweep would have read every open thread once a day
+            if (now >= nextNoon) {
+                sweepHistoryReads += forum.countCheckedThreads();
+                nextNoon += Duration.ofDays(1).toMillis();
+            }
+
+            deliverMessages(now, online);
+            if (online) {
+                scheduler.tick().join();
+                ticks++;
+            }
+            answerReminders(now);
+        }
+        long wallMillis = Duration.ofNanos(System.nanoTime() - wallStart).toMillis();
+
+        LogUtils.logInfo("Simulation: " + forum.getThreadCount() + " threads over " + length.toDays() + " days ("
+                + ticks + " ticks) in " + wallMillis + " ms");
+        LogUtils.logInfo("Simulation: " + forum.getReminders() + " reminders, " + forum.getClosures() + " closures");
+        LogUtils.logInfo("Simulation: REST calls - " + forum.getHistoryRequests() + " history reads, "
+                + forum.getMessageRequests() + " messages, " + forum.getEditRequests() + " thread edits "
+                + "(a daily history sweep would have read " + sweepHistoryReads + " histories)");
+        LogUtils.logInfo("Simulation: notices " + forum.getAverageDelay().toSeconds() + " s late on average, at most "
+                + forum.getMaxDelay().toMinutes() + " min; " + forum.getLateNotices() + " more than one tick late");
+        LogUtils.logInfo("Simulation: " + forum.getWrongReminders() + " premature or repeated reminders, "
+                + forum.getWrongClosures() + " premature closures");
+    }
+
+    /**
+     * Posts the messages that are due and hands them to the scheduler if the bot is online.
+     */
+    private void deliverMessages(long now, boolean online) {
+        if (online) {
+            while (!echoes.isEmpty()) {
+                SimulatedForum.Post echo = echoes.poll();
+                record(echo);
+            }
+        }
+
+        while (!timeline.isEmpty() && timeline.peek().at() <= now) {
+            Scheduled message = timeline.poll();
+            Scheduled origin = origins.get(message.threadId());
+            SimulatedForum.Post post = new SimulatedForum.Post(message.threadId(), message.at(), message.bot());
+            forum.post(post, origin.forumName(), origin.pinned());
+            if (online) {
+                record(post);
+            }
+            if (!message.bot()) {
+                planFollowUps(message);
+            }
+        }
+    }
+
+    /**
+     * Plans the messages that follow a user message: possibly a bot answer and the next user message.
+     */
+    private void planFollowUps(Scheduled message) {
+        Scheduled origin = origins.get(message.threadId());
+        if (random.nextDouble() < BOT_REPLY_CHANCE) {
+            timeline.add(new Scheduled(message.threadId(), message.at() + Duration.ofMinutes(1).toMillis(), true,
+                    origin.forumName(), origin.pinned()));
+        }
+        if (random.nextDouble() >= SILENCE_CHANCE) {
+            timeline.add(new Scheduled(message.threadId(), message.at() + gap(), false, origin.forumName(), origin.pinned()));
+        }
+    }
+
+    /**
+     * Lets some authors answer their reminder.
+     */
+    private void answerReminders(long now) {
+        for (SimulatedForum.SimThread thread : forum.drainReminded()) {
+            if (random.nextDouble() < REMINDER_ANSWER_CHANCE) {
+                Scheduled origin = origins.get(thread.getId());
+                timeline.add(new Scheduled(thread.getId(), now + gap(), false, origin.forumName(), origin.pinned()));
+            }
+        }
+    }
+
+    private void record(SimulatedForum.Post post) {
+        try {
+            scheduler.recordMessage(post.threadId(), post.at(), post.bot());
+        } catch (IOException e) {
+            LogUtils.logException("Simulation: error recording message", e);
+        }
+    }
+
+    /**
+     * Draws an exponentially distributed gap between two messages.
+     */
+    private long gap() {
+        return (long) (-Math.log(1 - random.nextDouble()) * MEAN_GAP.toMillis());
+    }
+
+    /**
+     * A planned message.
+     *
+     * @param threadId ID of the thread
+     * @param at Epoch milliseconds of the message
+     * @param bot Whether the message is by a bot
+     * @param forumName Forum of the thread
+     * @param pinned Whether the thread is pinned
+     */
+    private record Scheduled(String threadId, long at, boolean bot, String forumName, boolean pinned) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.mcsmanager.bot.simulation;
+
+import com.mcsmanager.bot.util.ForumGateway;
+import com.mcsmanager.bot.util.InactivityPolicy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic forum for simulations of the inactivity scheduler.
+ * Holds the true activity of every thread and answers requests immediately, counting each request
+ * the bot would have sent to Discord. Notices the scheduler sends are checked against the true
+ * activity, which includes messages the bot missed while it was offline.
+ *
+ * @author SkyKing_PX
+ */
+public class SimulatedForum implements ForumGateway {
+
+    private final Clock clock;
+    /** Receives the bot's own notices, as the message event for them would */
+    private final Consumer<Post> botMessages;
+    /** Threads by ID, in creation order */
+    private final Map<String, SimThread> threads = new LinkedHashMap<>();
+
+    /** Number of history reads */
+    private long historyRequests;
+    /** Number of messages sent */
+    private long messageRequests;
+    /** Number of thread edits */
+    private long editRequests;
+    /** Number of reminders sent */
+    private long reminders;
+    /** Number of closures */
+    private long closures;
+    /** Reminders sent before 7 days without messages, or twice in one quiet period */
+    private long wrongReminders;
+    /** Closures before 30 days without a user message */
+    private long wrongClosures;
+    /** Total and maximum delay of notices after their true deadline */
+    private long totalDelayMillis;
+    private long maxDelayMillis;
+    /** Notices sent more than one tick after their true deadline */
+    private long lateNotices;
+    /** Threads reminded since the last {@link #drainReminded()} */
+    private final List<SimThread> reminded = new ArrayList<>();
+
+    /**
+     * Creates an empty forum.
+     *
+     * @param clock Source of the current time
+     * @param botMessages Receives the notices sent by the bot
+     */
+    public SimulatedForum(Clock clock, Consumer<Post> botMessages) {
+        this.clock = clock;
+        this.botMessages = botMessages;
+    }
+
+    /**
+     * A message posted in a thread.
+     *
+     * @param threadId ID of the thread
+     * @param at Epoch milliseconds of the message
+     * @param bot Whether the message is by a bot
+     */
+    public record Post(String threadId, long at, boolean bot) {
+    }
+
+    /**
+     * Adds a message to a thread, creating the thread with its first message.
+     *
+     * @param post The message
+     * @param forumName Forum of the thread if it is new
+     * @param exempt Whether a new thread is pinned
+     */
+    public void post(Post post, String forumName, boolean exempt) {
+        SimThread thread = threads.computeIfAbsent(post.threadId(),
+                id -> new SimThread(id, "Post " + id, forumName, exempt));
+        if (thread.closed) {
+            return; // Locked
+        }
+        thread.lastMessageAt = Math.max(thread.lastMessageAt, post.at());
+        if (!post.bot()) {
+            thread.lastUserMessageAt = Math.max(thread.lastUserMessageAt, post.at());
+            thread.remindedSinceUser = false;
+        }
+    }
+
+    /**
+     * Takes the threads reminded since the last call.
+     *
+     * @return The reminded threads
+     */
+    public List<SimThread> drainReminded() {
+        List<SimThread> drained = new ArrayList<>(reminded);
+        reminded.clear();
+        return drained;
+    }
+
+    @Override
+    public List<ForumThread> getOpenThreads() {
+        List<ForumThread> open = new ArrayList<>();
+        for (SimThread thread : threads.values()) {
+            if (!thread.closed) {
+                open.add(thread.describe());
+            }
+        }
+        return open;
+    }
+
+    @Override
+    public ForumThread getOpenThread(String threadId) {
+        SimThread thread = threads.get(threadId);
+        return thread == null || thread.closed ? null : thread.describe();
+    }
+
+    @Override
+    public CompletableFuture<InactivityPolicy.Snapshot> fetchHistory(ForumThread forumThread) {
+        historyRequests++;
+        SimThread thread = threads.get(forumThread.id());
+        if (thread.lastMessageAt == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.completedFuture(new InactivityPolicy.Snapshot(
+                Instant.ofEpochMilli(thread.lastMessageAt),
+                thread.lastUserMessageAt != 0 ? Instant.ofEpochMilli(thread.lastUserMessageAt) : null,
+                thread.remindedSinceUser, thread.closed));
+    }
+
+    @Override
+    public CompletableFuture<Instant> sendReminder(ForumThread forumThread) {
+        messageRequests++;
+        reminders++;
+        SimThread thread = threads.get(forumThread.id());
+        long now = clock.millis();
+        long due = thread.lastMessageAt + Duration.ofDays(InactivityPolicy.REMIND_AFTER_DAYS).toMillis();
+        if (now < due || thread.remindedSinceUser) {
+            wrongReminders++;
+        }
+        recordDelay(now - due);
+
+        thread.remindedSinceUser = true;
+        thread.lastMessageAt = now;
+        reminded.add(thread);
+        botMessages.accept(new Post(thread.id, now, true));
+        return CompletableFuture.completedFuture(Instant.ofEpochMilli(now));
+    }
+
+    @Override
+    public CompletableFuture<Instant> close(ForumThread forumThread) {
+        messageRequests++;
+        editRequests++;
+        closures++;
+        SimThread thread = threads.get(forumThread.id());
+        long now = clock.millis();
+        long due = thread.lastUserMessageAt + Duration.ofDays(InactivityPolicy.CLOSE_AFTER_DAYS).toMillis();
+        if (thread.lastUserMessageAt == 0 || now < due) {
+            wrongClosures++;
+        }
+        recordDelay(now - due);
+
+        thread.lastMessageAt = now;
+        botMessages.accept(new Post(thread.id, now, true));
+        thread.closed = true;
+        return CompletableFuture.completedFuture(Instant.ofEpochMilli(now));
+    }
+
+    private void recordDelay(long delayMillis) {
+        long delay = Math.max(0, delayMillis);
+        totalDelayMillis += delay;
+        maxDelayMillis = Math.max(maxDelayMillis, delay);
+        if (delay > Duration.ofMinutes(1).toMillis()) {
+            lateNotices++;
+        }
+    }
+
+    /**
+     * Counts the open threads that are not pinned, i.e. the history reads of a full sweep.
+     *
+     * @return Number of threads a periodic sweep would read
+     */
+    public int countCheckedThreads() {
+        int count = 0;
+        for (SimThread thread : threads.values()) {
+            if (!thread.closed && !thread.exempt) count++;
+        }
+        return count;
+    }
+
+    /** @return Number of threads created */
+    public int getThreadCount() { return threads.size(); }
+    /** @return Number of history reads */
+    public long getHistoryRequests() { return historyRequests; }
+    /** @return Number of messages sent */
+    public long getMessageRequests() { return messageRequests; }
+    /** @return Number of thread edits */
+    public long getEditRequests() { return editRequests; }
+    /** @return Number of reminders sent */
+    public long getReminders() { return reminders; }
+    /** @return Number of closures */
+    public long getClosures() { return closures; }
+    /** @return Number of reminders sent too early or twice */
+    public long getWrongReminders() { return wrongReminders; }
+    /** @return Number of closures sent too early */
+    public long getWrongClosures() { return wrongClosures; }
+    /** @return Number of notices sent more than one tick late */
+    public long getLateNotices() { return lateNotices; }
+    /** @return Maximum delay of a notice after its deadline */
+    public Duration getMaxDelay() { return Duration.ofMillis(maxDelayMillis); }
+
+    /**
+     * Gets the average delay of notices after their deadline.
+     *
+     * @return The average delay
+     */
+    public Duration getAverageDelay() {
+        long notices = reminders + closures;
+        return Duration.ofMillis(notices == 0 ? 0 : totalDelayMillis / notices);
+    }
+
+    /**
+     * True state of a simulated thread.
+     */
+    public static final class SimThread {
+        private final String id;
+        private final String name;
+        private final String forumName;
+        private final boolean exempt;
+        private long lastMessageAt;
+        private long lastUserMessageAt;
+        private boolean remindedSinceUser;
+        private boolean closed;
+
+        private SimThread(String id, String name, String forumName, boolean exempt) {
+            this.id = id;
+            this.name = name;
+            this.forumName = forumName;
+            this.exempt = exempt;
+        }
+
+        /** @return ID of the thread */
+        public String getId() { return id; }
+
+        private ForumThread describe() {
+            return new ForumThread(id, name, forumName, lastMessageAt, exempt);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mcsmanager.bot.simulation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock that only moves when it is told to, for replaying weeks of forum activity in seconds.
+ *
+ * @author SkyKing_PX
+ */
+public class VirtualClock extends Clock {
+
+    /** Current time */
+    private Instant now;
+
+    /**
+     * Creates a clock standing at the given time.
+     *
+     * @param start The initial time
+     */
+    public VirtualClock(Instant start) {
+        this.now = start;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration Time to advance by
+     */
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        // Only instants are read; the zone does not matter
+        return this;
+    }
+}
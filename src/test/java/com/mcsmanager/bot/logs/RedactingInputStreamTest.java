@@ -0,0 +1,87 @@
+package com.mcsmanager.bot.logs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link RedactingInputStream}.
+ *
+ * @author SkyKing_PX
+ */
+class RedactingInputStreamTest {
+
+    /** Number of characters the stream decodes per chunk */
+    private static final int CHUNK = 8192;
+    /** Secret used in the tests */
+    private static final String SECRET = "sk_live_0123456789abcdef";
+    /** Rule removing the secret */
+    private static final RedactingInputStream.Rule KEY =
+            new RedactingInputStream.Rule("key", Pattern.compile("sk_live_[0-9a-f]{16}"), "[KEY]");
+
+    private static String redact(InputStream source, List<RedactingInputStream.Rule> rules) throws IOException {
+        try (RedactingInputStream redacted = new RedactingInputStream(source, rules, 64)) {
+            return new String(redacted.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream utf8(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void redactsASecretSplitAcrossChunks() throws IOException {
+        String padding = "x".repeat(CHUNK - SECRET.length() / 2);
+        String log = padding + SECRET + " done\n";
+
+        assertEquals(padding + "[KEY] done\n", redact(utf8(log), List.of(KEY)));
+    }
+
+    @Test
+    void redactsSecretsWhenTheSourceDeliversSingleBytes() throws IOException {
+        String log = "a " + SECRET + " b " + SECRET + " c";
+        InputStream trickle = new FilterInputStream(utf8(log)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        assertEquals("a [KEY] b [KEY] c", redact(trickle, List.of(KEY)));
+    }
+
+    @Test
+    void appliesLookBehindAcrossChunks() throws IOException {
+        RedactingInputStream.Rule token =
+                new RedactingInputStream.Rule("token", Pattern.compile("(?<=token=)[A-Za-z0-9]+"), "***");
+        String padding = "x".repeat(CHUNK - "token=".length());
+        String log = padding + "token=abc123 end";
+
+        assertEquals(padding + "token=*** end", redact(utf8(log), List.of(token)));
+    }
+
+    @Test
+    void keepsSurrogatePairsAtChunkBorders() throws IOException {
+        String padding = "x".repeat(CHUNK - 65);
+        String log = padding + "😀".repeat(40) + " " + SECRET;
+
+        assertEquals(padding + "😀".repeat(40) + " [KEY]", redact(utf8(log), List.of(KEY)));
+    }
+
+    @Test
+    void countsRedactions() throws IOException {
+        String log = (SECRET + "\n" + "y".repeat(5000) + "\n").repeat(4);
+        try (RedactingInputStream redacted = new RedactingInputStream(utf8(log), List.of(KEY), 64)) {
+            redacted.readAllBytes();
+            assertEquals(4, redacted.getRedactionCount());
+        }
+    }
+}
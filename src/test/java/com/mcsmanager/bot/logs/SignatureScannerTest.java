@@ -0,0 +1,68 @@
+package com.mcsmanager.bot.logs;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SignatureScanner}.
+ *
+ * @author SkyKing_PX
+ */
+class SignatureScannerTest {
+
+    private static ErrorSignature signature(String id, String... patterns) {
+        ErrorSignature signature = new ErrorSignature();
+        signature.setId(id);
+        signature.setPatterns(List.of(patterns));
+        return signature;
+    }
+
+    private static List<String> scan(SignatureScanner scanner, String log, int chunkSize) {
+        byte[] bytes = log.getBytes(StandardCharsets.UTF_8);
+        SignatureScanner.Session session = scanner.newSession();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            session.accept(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+        return session.getMatches().stream().map(ErrorSignature::getId).toList();
+    }
+
+    @Test
+    void findsASignatureSplitAcrossChunks() {
+        SignatureScanner scanner = new SignatureScanner(List.of(signature("port", "EADDRINUSE")));
+        String log = "listen EADDRINUSE: address already in use :::23333";
+
+        for (int chunkSize = 1; chunkSize <= log.length(); chunkSize++) {
+            assertEquals(List.of("port"), scan(scanner, log, chunkSize), "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void findsOverlappingSignaturesInSignatureOrder() {
+        SignatureScanner scanner = new SignatureScanner(List.of(
+                signature("oom", "java.lang.OutOfMemoryError"),
+                signature("error", "Error"),
+                signature("memory", "OutOfMemory")));
+
+        assertEquals(List.of("oom", "error", "memory"),
+                scan(scanner, "Exception in thread \"main\" java.lang.OutOfMemoryError: Java heap space", 7));
+    }
+
+    @Test
+    void matchesCaseInsensitively() {
+        SignatureScanner scanner = new SignatureScanner(List.of(signature("eula", "You need to agree to the EULA")));
+
+        assertEquals(List.of("eula"), scan(scanner, "[INFO] you need to agree to the eula in order to run", 5));
+    }
+
+    @Test
+    void ignoresLogsWithoutSignatures() {
+        SignatureScanner scanner = new SignatureScanner(List.of(signature("port", "EADDRINUSE")));
+
+        assertTrue(scan(scanner, "EADDRINUS EADDR INUSE", 3).isEmpty());
+    }
+}
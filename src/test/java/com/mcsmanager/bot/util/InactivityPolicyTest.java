@@ -0,0 +1,90 @@
+package com.mcsmanager.bot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link InactivityPolicy}.
+ *
+ * @author SkyKing_PX
+ */
+class InactivityPolicyTest {
+
+    /** Time of the last user message in the tests */
+    private static final Instant START = Instant.parse("2026-01-01T12:00:00Z");
+    /** Time at which a reminder becomes due */
+    private static final Instant REMIND_AT = START.plus(Duration.ofDays(InactivityPolicy.REMIND_AFTER_DAYS));
+    /** Time at which a closure becomes due */
+    private static final Instant CLOSE_AT = START.plus(Duration.ofDays(InactivityPolicy.CLOSE_AFTER_DAYS));
+
+    private static InactivityPolicy.Snapshot snapshot(boolean reminderSent, boolean closureSent) {
+        return new InactivityPolicy.Snapshot(START, START, reminderSent, closureSent);
+    }
+
+    @Test
+    void remindsAfterSevenDays() {
+        assertEquals(InactivityPolicy.Decision.NONE,
+                InactivityPolicy.decide(snapshot(false, false), REMIND_AT.minusMillis(1)));
+        assertEquals(InactivityPolicy.Decision.REMIND,
+                InactivityPolicy.decide(snapshot(false, false), REMIND_AT));
+    }
+
+    @Test
+    void remindsOnlyOnce() {
+        assertEquals(InactivityPolicy.Decision.NONE,
+                InactivityPolicy.decide(snapshot(true, false), REMIND_AT));
+        assertEquals(InactivityPolicy.Decision.NONE,
+                InactivityPolicy.decide(snapshot(true, false), CLOSE_AT.minusMillis(1)));
+    }
+
+    @Test
+    void closesAfterThirtyDays() {
+        assertEquals(InactivityPolicy.Decision.CLOSE,
+                InactivityPolicy.decide(snapshot(true, false), CLOSE_AT));
+    }
+
+    @Test
+    void closesWithoutRemindingFirst() {
+        assertEquals(InactivityPolicy.Decision.REMIND,
+                InactivityPolicy.decide(snapshot(false, false), CLOSE_AT.minusMillis(1)));
+        assertEquals(InactivityPolicy.Decision.CLOSE,
+                InactivityPolicy.decide(snapshot(false, false), CLOSE_AT));
+    }
+
+    @Test
+    void closesOnlyOnce() {
+        assertEquals(InactivityPolicy.Decision.NONE,
+                InactivityPolicy.decide(snapshot(true, true), CLOSE_AT));
+    }
+
+    @Test
+    void ignoresThreadsWithoutUserMessages() {
+        InactivityPolicy.Snapshot botOnly = new InactivityPolicy.Snapshot(START, null, false, false);
+        assertEquals(InactivityPolicy.Decision.NONE, InactivityPolicy.decide(botOnly, CLOSE_AT));
+    }
+
+    @Test
+    void closesByTheLastUserMessageDespiteLaterBotMessages() {
+        InactivityPolicy.Snapshot reminded = new InactivityPolicy.Snapshot(REMIND_AT, START, true, false);
+        assertEquals(InactivityPolicy.Decision.CLOSE, InactivityPolicy.decide(reminded, CLOSE_AT));
+    }
+
+    @Test
+    void nextDeadlineIsTheReminderUntilItWasSent() {
+        assertEquals(REMIND_AT, InactivityPolicy.nextDeadline(snapshot(false, false)));
+        assertEquals(CLOSE_AT, InactivityPolicy.nextDeadline(snapshot(true, false)));
+        assertNull(InactivityPolicy.nextDeadline(snapshot(true, true)));
+    }
+
+    @Test
+    void nextDeadlinePrefersAnEarlierClosure() {
+        Instant lastMessage = CLOSE_AT.minus(Duration.ofDays(1));
+        InactivityPolicy.Snapshot snapshot = new InactivityPolicy.Snapshot(lastMessage, START, false, false);
+        assertEquals(CLOSE_AT, InactivityPolicy.nextDeadline(snapshot));
+    }
+}
@@ -0,0 +1,80 @@
+package com.mcsmanager.bot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link RequestLimiter}.
+ *
+ * @author SkyKing_PX
+ */
+class RequestLimiterTest {
+
+    @Test
+    void holdsBackRequestsBeyondTheLimit() {
+        RequestLimiter limiter = new RequestLimiter(2);
+        List<CompletableFuture<Integer>> running = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            limiter.submit(() -> {
+                CompletableFuture<Integer> request = new CompletableFuture<>();
+                running.add(request);
+                return request;
+            });
+        }
+
+        assertEquals(2, running.size());
+        assertEquals(1, limiter.getWaiting());
+
+        running.get(0).complete(0);
+        assertEquals(3, running.size());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void startsWaitingRequestsInSubmissionOrder() {
+        RequestLimiter limiter = new RequestLimiter(1);
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        List<Integer> started = new ArrayList<>();
+        limiter.submit(() -> first);
+        for (int i = 1; i <= 3; i++) {
+            int id = i;
+            limiter.submit(() -> {
+                started.add(id);
+                return CompletableFuture.completedFuture(id);
+            });
+        }
+
+        assertTrue(started.isEmpty());
+        first.complete(0);
+        assertEquals(List.of(1, 2, 3), started);
+    }
+
+    @Test
+    void passesOnTheOutcomeOfTheRequest() {
+        RequestLimiter limiter = new RequestLimiter(1);
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        assertEquals(42, limiter.submit(() -> CompletableFuture.completedFuture(42)).join());
+        CompletableFuture<Integer> failed = limiter.submit(() -> CompletableFuture.failedFuture(failure));
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(failure, failed.handle((value, error) -> error).join());
+    }
+
+    @Test
+    void releasesTheSlotOfARequestThatThrows() {
+        RequestLimiter limiter = new RequestLimiter(1);
+        CompletableFuture<Integer> thrown = limiter.submit(() -> {
+            throw new IllegalStateException("failed");
+        });
+
+        assertTrue(thrown.isCompletedExceptionally());
+        assertEquals(7, limiter.submit(() -> CompletableFuture.completedFuture(7)).join());
+        assertEquals(0, limiter.getWaiting());
+    }
+}
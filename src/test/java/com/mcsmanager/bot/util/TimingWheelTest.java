@@ -0,0 +1,126 @@
+package com.mcsmanager.bot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TimingWheel}.
+ *
+ * @author SkyKing_PX
+ */
+class TimingWheelTest {
+
+    /** Length of a tick in the tests */
+    private static final long TICK = 1000;
+
+    @Test
+    void firesOnTheTickOfTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", 5 * TICK);
+
+        assertTrue(wheel.advance(5 * TICK - 1).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(5 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void roundsDeadlinesUpToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", TICK + 1);
+
+        assertTrue(wheel.advance(2 * TICK - 1).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(2 * TICK));
+    }
+
+    @Test
+    void firesDeadlinesAtLevelBoundaries() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("level1", 64 * TICK);
+        wheel.schedule("level2", 64 * 64 * TICK);
+        wheel.schedule("level3", 64 * 64 * 64 * TICK);
+
+        assertTrue(wheel.advance(64 * TICK - 1).isEmpty());
+        assertEquals(List.of("level1"), wheel.advance(64 * TICK));
+        assertTrue(wheel.advance(64 * 64 * TICK - 1).isEmpty());
+        assertEquals(List.of("level2"), wheel.advance(64 * 64 * TICK));
+        assertTrue(wheel.advance(64 * 64 * 64 * TICK - 1).isEmpty());
+        assertEquals(List.of("level3"), wheel.advance(64 * 64 * 64 * TICK));
+    }
+
+    @Test
+    void firesDeadlinesThatCascadeFromAHigherLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", 130 * TICK);
+        wheel.schedule("b", 4100 * TICK);
+
+        assertTrue(wheel.advance(129 * TICK).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(130 * TICK));
+        assertTrue(wheel.advance(4099 * TICK).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(4100 * TICK));
+    }
+
+    @Test
+    void reschedulesToALowerLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", 5000 * TICK);
+        wheel.schedule("a", 10 * TICK);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("a"), wheel.advance(10 * TICK));
+        assertTrue(wheel.advance(5000 * TICK).isEmpty());
+    }
+
+    @Test
+    void reschedulesToAHigherLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", 10 * TICK);
+        wheel.schedule("a", 5000 * TICK);
+
+        assertTrue(wheel.advance(4999 * TICK).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(5000 * TICK));
+    }
+
+    @Test
+    void firesPastDeadlinesOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.advance(10 * TICK);
+        wheel.schedule("a", 3 * TICK);
+
+        assertTrue(wheel.advance(11 * TICK - 1).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(11 * TICK));
+    }
+
+    @Test
+    void firesDeadlinesBeyondTheWheel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        long deadline = ((1L << 24) + 5) * TICK;
+        wheel.schedule("a", deadline);
+
+        assertTrue(wheel.advance(deadline - 1).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(deadline));
+    }
+
+    @Test
+    void returnsExpiredKeysInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("late", 200 * TICK);
+        wheel.schedule("early", 3 * TICK);
+        wheel.schedule("middle", 70 * TICK);
+
+        assertEquals(List.of("early", "middle", "late"), wheel.advance(300 * TICK));
+    }
+
+    @Test
+    void cancelledKeysDoNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", 100 * TICK);
+        wheel.cancel("a");
+
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(200 * TICK).isEmpty());
+    }
+}